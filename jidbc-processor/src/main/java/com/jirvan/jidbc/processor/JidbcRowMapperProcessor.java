@@ -0,0 +1,538 @@
+/*
+
+Copyright (c) 2013, Jirvan Pty Ltd
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+
+    * Redistributions of source code must retain the above copyright notice,
+      this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above copyright notice,
+      this list of conditions and the following disclaimer in the documentation
+      and/or other materials provided with the distribution.
+    * Neither the name of Jirvan Pty Ltd nor the names of its contributors
+      may be used to endorse or promote products derived from this software
+      without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+(INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+*/
+
+package com.jirvan.jidbc.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Generates a com.jirvan.jidbc.GeneratedRowMapper subclass for each row class that is
+ * annotated with @TableRow or has @Id annotated attributes.  The generated mapper (named
+ * &lt;row class binary name&gt;_JidbcMapper and placed in the row class's package) captures
+ * the attributes jidbc would otherwise find by reflection and accesses them directly (via
+ * typed accessors for primitive attributes, so they are not boxed), so at runtime jidbc
+ * picks it up instead of introspecting the row class.
+ * <p/>
+ * Row classes the generated code can't handle (private, abstract or inner classes, classes
+ * without an accessible no-arg constructor or with a @JidbcConstructor constructor, final
+ * fields or attributes of types jidbc doesn't support) are skipped with a warning and are
+ * handled reflectively as before.
+ * <p/>
+ * The processor refers to the jidbc annotations by name only so it has no dependencies.
+ */
+@SupportedAnnotationTypes({"com.jirvan.jidbc.TableRow", "com.jirvan.jidbc.Id"})
+public class JidbcRowMapperProcessor extends AbstractProcessor {
+
+    private static final String TABLE_ROW = "com.jirvan.jidbc.TableRow";
+    private static final String TABLE_ROW_EXTENSION_CLASS = "com.jirvan.jidbc.TableRowExtensionClass";
+    private static final String ID = "com.jirvan.jidbc.Id";
+    private static final String JIDBC_IGNORE = "com.jirvan.jidbc.JidbcIgnore";
+    private static final String JIDBC_CONSTRUCTOR = "com.jirvan.jidbc.JidbcConstructor";
+    private static final String STORE_AS_TIMESTAMP = "com.jirvan.jidbc.StoreAsTimestamp";
+    private static final String NULL_AS_DEFAULT = "com.jirvan.jidbc.NullAsDefault";
+    private static final String DATABASE_DEFAULT = "com.jirvan.jidbc.DatabaseDefault";
+    private static final String GENERATED_ROW_MAPPER = "com.jirvan.jidbc.GeneratedRowMapper";
+    private static final String DATABASE_TYPE = "com.jirvan.util.DatabaseType";
+    private static final String GENERATED_CLASS_NAME_SUFFIX = "_JidbcMapper";
+    private static final Pattern GET_METHOD_PATTERN = Pattern.compile("^get([A-Z].*)$");
+    private static final Set<String> SUPPORTED_DECLARED_TYPES = new HashSet<String>(Arrays.asList("java.lang.String",
+                                                                                                  "java.lang.Integer",
+                                                                                                  "java.lang.Long",
+                                                                                                  "java.lang.Double",
+                                                                                                  "java.math.BigDecimal",
+                                                                                                  "java.lang.Boolean",
+                                                                                                  "java.util.Date",
+                                                                                                  "java.time.ZonedDateTime",
+                                                                                                  "java.time.LocalDate",
+                                                                                                  "java.time.LocalDateTime",
+                                                                                                  "com.jirvan.dates.Month",
+                                                                                                  "com.jirvan.dates.Day",
+                                                                                                  "com.jirvan.dates.Hour",
+                                                                                                  "com.jirvan.dates.Minute",
+                                                                                                  "com.jirvan.dates.Second",
+                                                                                                  "com.jirvan.dates.Millisecond"));
+
+    private final Set<String> processedRowClasses = new HashSet<String>();
+
+    private static class Attribute {
+        String name;
+        TypeMirror type;
+        VariableElement field;
+        ExecutableElement getter;
+        ExecutableElement setter;
+        boolean storeAsTimestamp;
+        boolean nullAsDefault;
+        boolean hasDatabaseDefault;
+        AnnotationMirror idAnnotation;
+    }
+
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+
+        // Collect the row classes (the annotated classes and the classes of annotated attributes)
+        Set<TypeElement> rowClasses = new LinkedHashSet<TypeElement>();
+        for (TypeElement annotation : annotations) {
+            for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                if (element.getKind() == ElementKind.CLASS) {
+                    rowClasses.add((TypeElement) element);
+                } else if (element.getEnclosingElement().getKind() == ElementKind.CLASS) {
+                    rowClasses.add((TypeElement) element.getEnclosingElement());
+                }
+            }
+        }
+
+        // Generate their row mappers
+        for (TypeElement rowClass : rowClasses) {
+            if (processedRowClasses.add(rowClass.getQualifiedName().toString())
+                && getAnnotation(rowClass, TABLE_ROW_EXTENSION_CLASS) == null) {
+                generateRowMapper(rowClass);
+            }
+        }
+
+        // Don't claim the annotations (they are jidbc's runtime annotations)
+        return false;
+
+    }
+
+    private void generateRowMapper(TypeElement rowClass) {
+
+        // Check the row class can be handled by generated code
+        String reasonNotSupported = getReasonRowClassIsNotSupported(rowClass);
+        if (reasonNotSupported != null) {
+            warnNotGenerating(rowClass, reasonNotSupported);
+            return;
+        }
+
+        // Extract the attributes (in the same way as RowDef.addBasicColumnDefsToRowDef)
+        Map<String, Attribute> attributes = new LinkedHashMap<String, Attribute>();
+        for (VariableElement field : ElementFilter.fieldsIn(processingEnv.getElementUtils().getAllMembers(rowClass))) {
+            if (field.getModifiers().contains(Modifier.PUBLIC)
+                && !field.getModifiers().contains(Modifier.STATIC)
+                && getAnnotation(field, JIDBC_IGNORE) == null
+                && !isCollection(field.asType())) {
+                if (!isSupportedType(field.asType())) {
+                    warnNotGenerating(rowClass, String.format("field %s is of unsupported type %s", field.getSimpleName(), field.asType()));
+                    return;
+                }
+                if (field.getModifiers().contains(Modifier.FINAL)) {
+                    warnNotGenerating(rowClass, String.format("field %s is final", field.getSimpleName()));
+                    return;
+                }
+                Attribute attribute = new Attribute();
+                attribute.name = field.getSimpleName().toString();
+                attribute.type = field.asType();
+                attribute.field = field;
+                attribute.storeAsTimestamp = getAnnotation(field, STORE_AS_TIMESTAMP) != null;
+                attribute.nullAsDefault = getAnnotation(field, NULL_AS_DEFAULT) != null;
+                attribute.hasDatabaseDefault = getAnnotation(field, DATABASE_DEFAULT) != null;
+                attribute.idAnnotation = getAnnotation(field, ID);
+                attributes.put(attribute.name, attribute);
+            }
+        }
+        List<ExecutableElement> methods = ElementFilter.methodsIn(processingEnv.getElementUtils().getAllMembers(rowClass));
+        for (ExecutableElement method : methods) {
+            Matcher matcher = GET_METHOD_PATTERN.matcher(method.getSimpleName());
+            if (matcher.matches()
+                && method.getParameters().isEmpty()
+                && method.getModifiers().contains(Modifier.PUBLIC)
+                && !method.getModifiers().contains(Modifier.STATIC)
+                && getAnnotation(method, JIDBC_IGNORE) == null
+                && !isCollection(method.getReturnType())) {
+                String afterGetString = matcher.group(1);
+                String attributeName = afterGetString.substring(0, 1).toLowerCase() + afterGetString.substring(1);
+                Attribute attribute = attributes.get(attributeName);
+                if (attribute != null) {
+                    if (attribute.field != null && attribute.getter == null) {
+                        attribute.getter = method;
+                        if (attribute.idAnnotation == null) {
+                            attribute.idAnnotation = getAnnotation(method, ID);
+                        }
+                    }
+                } else {
+                    ExecutableElement setter = findSetter(methods, "set" + afterGetString, method.getReturnType());
+                    if (setter != null) {
+                        if (!isSupportedType(method.getReturnType())) {
+                            warnNotGenerating(rowClass, String.format("attribute %s is of unsupported type %s", attributeName, method.getReturnType()));
+                            return;
+                        }
+                        attribute = new Attribute();
+                        attribute.name = attributeName;
+                        attribute.type = method.getReturnType();
+                        attribute.getter = method;
+                        attribute.setter = setter;
+                        attribute.storeAsTimestamp = getAnnotation(method, STORE_AS_TIMESTAMP) != null;
+                        attribute.nullAsDefault = getAnnotation(method, NULL_AS_DEFAULT) != null;
+                        attribute.hasDatabaseDefault = getAnnotation(method, DATABASE_DEFAULT) != null;
+                        attribute.idAnnotation = getAnnotation(method, ID);
+                        attributes.put(attribute.name, attribute);
+                    }
+                }
+            }
+        }
+
+        // Extract the generator sequence stuff (if any) and check the id attributes
+        AnnotationMirror generatorIdAnnotation = null;
+        int idAttributeCount = 0;
+        for (Attribute attribute : attributes.values()) {
+            if (attribute.idAnnotation != null) {
+                idAttributeCount++;
+                if (!"<None>".equals(getAnnotationValue(attribute.idAnnotation, "generatorSequence"))) {
+                    if (generatorIdAnnotation != null) {
+                        error(rowClass, String.format("Row class %s has more than one id field with a generatorSequence", rowClass.getQualifiedName()));
+                        return;
+                    }
+                    if (!"java.lang.Long".equals(attribute.type.toString())) {
+                        error(rowClass, String.format("Id attribute %s.%s has a generatorSequence assigned but is not a Long (only type Long can be generated)", rowClass.getSimpleName(), attribute.name));
+                        return;
+                    }
+                    generatorIdAnnotation = attribute.idAnnotation;
+                }
+            }
+        }
+        if (idAttributeCount == 0) {
+            warnNotGenerating(rowClass, "it does not have any id attributes");
+            return;
+        }
+        if (idAttributeCount > 1 && generatorIdAnnotation != null) {
+            error(rowClass, String.format("Row class %s has more than one id field and a generatorSequence has been assigned", rowClass.getQualifiedName()));
+            return;
+        }
+
+        // Write the row mapper
+        try {
+            writeRowMapper(rowClass, new ArrayList<Attribute>(attributes.values()), generatorIdAnnotation);
+        } catch (IOException e) {
+            error(rowClass, String.format("Could not write jidbc row mapper for %s: %s", rowClass.getQualifiedName(), e.getMessage()));
+        }
+
+    }
+
+    private void writeRowMapper(TypeElement rowClass, List<Attribute> attributes, AnnotationMirror generatorIdAnnotation) throws IOException {
+
+        String packageName = processingEnv.getElementUtils().getPackageOf(rowClass).getQualifiedName().toString();
+        String binaryName = processingEnv.getElementUtils().getBinaryName(rowClass).toString();
+        String mapperSimpleName = (packageName.length() == 0 ? binaryName : binaryName.substring(packageName.length() + 1)) + GENERATED_CLASS_NAME_SUFFIX;
+        String mapperName = packageName.length() == 0 ? mapperSimpleName : packageName + "." + mapperSimpleName;
+        String rowClassName = rowClass.getQualifiedName().toString();
+
+        String tableName = null;
+        AnnotationMirror tableRowAnnotation = getAnnotation(rowClass, TABLE_ROW);
+        if (tableRowAnnotation != null && !"<Guessed>".equals(getAnnotationValue(tableRowAnnotation, "tableName"))) {
+            tableName = (String) getAnnotationValue(tableRowAnnotation, "tableName");
+        }
+
+        JavaFileObject sourceFile = processingEnv.getFiler().createSourceFile(mapperName, rowClass);
+        PrintWriter out = new PrintWriter(sourceFile.openWriter());
+        try {
+            if (packageName.length() > 0) {
+                out.printf("package %s;%n%n", packageName);
+            }
+            out.printf("/**%n");
+            out.printf(" * jidbc row mapper for %s (generated by %s, do not edit).%n", rowClassName, getClass().getName());
+            out.printf(" */%n");
+            out.printf("public final class %s extends %s<%s> {%n%n", mapperSimpleName, GENERATED_ROW_MAPPER, rowClassName);
+
+            // Constructor
+            out.printf("    public %s() {%n", mapperSimpleName);
+            out.printf("        super(%s,%n", toJavaLiteral(tableName));
+            if (generatorIdAnnotation != null) {
+                out.printf("              %s,%n", toJavaLiteral((String) getAnnotationValue(generatorIdAnnotation, "generatorSequence")));
+                out.printf("              %s,%n", getAnnotationValue(generatorIdAnnotation, "ifSQLiteUseAutoincrement"));
+                out.printf("              new %s[]{", DATABASE_TYPE);
+                List<?> ignoreSequenceForDBs = (List<?>) getAnnotationValue(generatorIdAnnotation, "ignoreSequenceForDBs");
+                for (int i = 0; i < ignoreSequenceForDBs.size(); i++) {
+                    out.printf("%s%s.%s", i == 0 ? "" : ", ", DATABASE_TYPE, ((AnnotationValue) ignoreSequenceForDBs.get(i)).getValue());
+                }
+                out.printf("}");
+            } else {
+                out.printf("              null,%n");
+                out.printf("              false,%n");
+                out.printf("              null");
+            }
+            for (Attribute attribute : attributes) {
+                out.printf(",%n              new Column(%s, %s.class, %s, %s, %s, %s)",
+                           toJavaLiteral(attribute.name),
+                           processingEnv.getTypeUtils().erasure(attribute.type),
+                           attribute.storeAsTimestamp,
+                           attribute.idAnnotation != null,
+                           attribute.nullAsDefault,
+                           attribute.hasDatabaseDefault);
+            }
+            out.printf(");%n");
+            out.printf("    }%n%n");
+
+            // newRow
+            out.printf("    public %s newRow() {%n", rowClassName);
+            out.printf("        return new %s();%n", rowClassName);
+            out.printf("    }%n%n");
+
+            // getValue
+            out.printf("    public Object getValue(%s row, int columnIndex) {%n", rowClassName);
+            out.printf("        switch (columnIndex) {%n");
+            for (int i = 0; i < attributes.size(); i++) {
+                Attribute attribute = attributes.get(i);
+                if (attribute.getter != null) {
+                    out.printf("            case %d:%n                return row.%s();%n", i, attribute.getter.getSimpleName());
+                } else {
+                    out.printf("            case %d:%n                return row.%s;%n", i, attribute.field.getSimpleName());
+                }
+            }
+            out.printf("            default:%n                throw new IndexOutOfBoundsException(String.format(\"Column index %%d is out of range\", columnIndex));%n");
+            out.printf("        }%n");
+            out.printf("    }%n%n");
+
+            // setValue
+            out.printf("    public void setValue(%s row, int columnIndex, Object value) {%n", rowClassName);
+            out.printf("        switch (columnIndex) {%n");
+            for (int i = 0; i < attributes.size(); i++) {
+                Attribute attribute = attributes.get(i);
+                String castType = attribute.type.getKind().isPrimitive()
+                                  ? processingEnv.getTypeUtils().boxedClass((PrimitiveType) attribute.type).getQualifiedName().toString()
+                                  : processingEnv.getTypeUtils().erasure(attribute.type).toString();
+                if (attribute.field != null) {
+                    out.printf("            case %d:%n                row.%s = (%s) value;%n                return;%n", i, attribute.field.getSimpleName(), castType);
+                } else {
+                    out.printf("            case %d:%n                row.%s((%s) value);%n                return;%n", i, attribute.setter.getSimpleName(), castType);
+                }
+            }
+            out.printf("            default:%n                throw new IndexOutOfBoundsException(String.format(\"Column index %%d is out of range\", columnIndex));%n");
+            out.printf("        }%n");
+            out.printf("    }%n%n");
+
+            // Typed accessors for primitive attributes (so they are extracted and bound without boxing)
+            writeTypedAccessors(out, rowClassName, attributes, TypeKind.INT, "int", "Int");
+            writeTypedAccessors(out, rowClassName, attributes, TypeKind.LONG, "long", "Long");
+            writeTypedAccessors(out, rowClassName, attributes, TypeKind.DOUBLE, "double", "Double");
+            writeTypedAccessors(out, rowClassName, attributes, TypeKind.BOOLEAN, "boolean", "Boolean");
+
+            out.printf("}%n");
+        } finally {
+            out.close();
+        }
+
+    }
+
+    /**
+     * Writes overrides of the typed get&lt;TypeName&gt; and set&lt;TypeName&gt; accessors
+     * for the row class's attributes of the given primitive type (if it has any).  Other
+     * column indexes are passed on to the (boxing) default implementations.
+     */
+    private void writeTypedAccessors(PrintWriter out, String rowClassName, List<Attribute> attributes, TypeKind typeKind, String typeName, String accessorTypeName) {
+        boolean hasAttributesOfType = false;
+        for (Attribute attribute : attributes) {
+            if (attribute.type.getKind() == typeKind) {
+                hasAttributesOfType = true;
+            }
+        }
+        if (!hasAttributesOfType) {
+            return;
+        }
+
+        // get<TypeName>
+        out.printf("    public %s get%s(%s row, int columnIndex) {%n", typeName, accessorTypeName, rowClassName);
+        out.printf("        switch (columnIndex) {%n");
+        for (int i = 0; i < attributes.size(); i++) {
+            Attribute attribute = attributes.get(i);
+            if (attribute.type.getKind() != typeKind) {
+                continue;
+            }
+            if (attribute.getter != null) {
+                out.printf("            case %d:%n                return row.%s();%n", i, attribute.getter.getSimpleName());
+            } else {
+                out.printf("            case %d:%n                return row.%s;%n", i, attribute.field.getSimpleName());
+            }
+        }
+        out.printf("            default:%n                return super.get%s(row, columnIndex);%n", accessorTypeName);
+        out.printf("        }%n");
+        out.printf("    }%n%n");
+
+        // set<TypeName>
+        out.printf("    public void set%s(%s row, int columnIndex, %s value) {%n", accessorTypeName, rowClassName, typeName);
+        out.printf("        switch (columnIndex) {%n");
+        for (int i = 0; i < attributes.size(); i++) {
+            Attribute attribute = attributes.get(i);
+            if (attribute.type.getKind() != typeKind) {
+                continue;
+            }
+            if (attribute.field != null) {
+                out.printf("            case %d:%n                row.%s = value;%n                return;%n", i, attribute.field.getSimpleName());
+            } else {
+                out.printf("            case %d:%n                row.%s(value);%n                return;%n", i, attribute.setter.getSimpleName());
+            }
+        }
+        out.printf("            default:%n                super.set%s(row, columnIndex, value);%n", accessorTypeName);
+        out.printf("        }%n");
+        out.printf("    }%n%n");
+
+    }
+
+    private String getReasonRowClassIsNotSupported(TypeElement rowClass) {
+        if (rowClass.getModifiers().contains(Modifier.ABSTRACT)) {
+            return "it is abstract";
+        }
+        if (!rowClass.getTypeParameters().isEmpty()) {
+            return "it is generic";
+        }
+        for (Element element = rowClass; element instanceof TypeElement; element = element.getEnclosingElement()) {
+            if (element.getModifiers().contains(Modifier.PRIVATE)) {
+                return "it is (or is nested in) a private class";
+            }
+            if (((TypeElement) element).getNestingKind() == NestingKind.MEMBER && !element.getModifiers().contains(Modifier.STATIC)) {
+                return "it is (or is nested in) an inner (non static) class";
+            }
+            if (((TypeElement) element).getNestingKind() == NestingKind.LOCAL || ((TypeElement) element).getNestingKind() == NestingKind.ANONYMOUS) {
+                return "it is a local or anonymous class";
+            }
+        }
+        for (ExecutableElement constructor : ElementFilter.constructorsIn(rowClass.getEnclosedElements())) {
+            if (getAnnotation(constructor, JIDBC_CONSTRUCTOR) != null) {
+                return "its rows are created via its @JidbcConstructor constructor";
+            }
+        }
+        for (ExecutableElement constructor : ElementFilter.constructorsIn(rowClass.getEnclosedElements())) {
+            if (constructor.getParameters().isEmpty() && !constructor.getModifiers().contains(Modifier.PRIVATE)) {
+                return null;
+            }
+        }
+        return "it does not have an accessible no-arg constructor";
+    }
+
+    private boolean isSupportedType(TypeMirror type) {
+        if (type.getKind() == TypeKind.INT || type.getKind() == TypeKind.LONG || type.getKind() == TypeKind.DOUBLE || type.getKind() == TypeKind.BOOLEAN) {
+            return true;
+        } else if (type.getKind() == TypeKind.ARRAY) {
+            return ((ArrayType) type).getComponentType().getKind() == TypeKind.BYTE;
+        } else if (type.getKind() == TypeKind.DECLARED) {
+            Element element = ((DeclaredType) type).asElement();
+            return element.getKind() == ElementKind.ENUM
+                   || SUPPORTED_DECLARED_TYPES.contains(((TypeElement) element).getQualifiedName().toString());
+        } else {
+            return false;
+        }
+    }
+
+    private boolean isCollection(TypeMirror type) {
+        TypeElement collectionElement = processingEnv.getElementUtils().getTypeElement("java.util.Collection");
+        return type.getKind() == TypeKind.DECLARED
+               && processingEnv.getTypeUtils().isAssignable(processingEnv.getTypeUtils().erasure(type),
+                                                            processingEnv.getTypeUtils().erasure(collectionElement.asType()));
+    }
+
+    private ExecutableElement findSetter(List<ExecutableElement> methods, String setterName, TypeMirror type) {
+        for (ExecutableElement method : methods) {
+            if (method.getSimpleName().contentEquals(setterName)
+                && method.getParameters().size() == 1
+                && method.getModifiers().contains(Modifier.PUBLIC)
+                && !method.getModifiers().contains(Modifier.STATIC)
+                && processingEnv.getTypeUtils().isSameType(method.getParameters().get(0).asType(), type)) {
+                return method;
+            }
+        }
+        return null;
+    }
+
+    private static AnnotationMirror getAnnotation(Element element, String annotationName) {
+        for (AnnotationMirror annotationMirror : element.getAnnotationMirrors()) {
+            if (((TypeElement) annotationMirror.getAnnotationType().asElement()).getQualifiedName().contentEquals(annotationName)) {
+                return annotationMirror;
+            }
+        }
+        return null;
+    }
+
+    private Object getAnnotationValue(AnnotationMirror annotationMirror, String name) {
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : processingEnv.getElementUtils().getElementValuesWithDefaults(annotationMirror).entrySet()) {
+            if (entry.getKey().getSimpleName().contentEquals(name)) {
+                return entry.getValue().getValue();
+            }
+        }
+        return null;
+    }
+
+    private static String toJavaLiteral(String string) {
+        if (string == null) {
+            return "null";
+        }
+        StringBuilder buf = new StringBuilder("\"");
+        for (char c : string.toCharArray()) {
+            if (c == '"' || c == '\\') {
+                buf.append('\\');
+            }
+            buf.append(c);
+        }
+        return buf.append('"').toString();
+    }
+
+    private void warnNotGenerating(TypeElement rowClass, String reason) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING,
+                                                 String.format("Not generating a jidbc row mapper for %s as %s (it will be handled reflectively)", rowClass.getQualifiedName(), reason),
+                                                 rowClass);
+    }
+
+    private void error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+
+}
@@ -0,0 +1,224 @@
+/*
+
+Copyright (c) 2013, Jirvan Pty Ltd
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+
+    * Redistributions of source code must retain the above copyright notice,
+      this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above copyright notice,
+      this list of conditions and the following disclaimer in the documentation
+      and/or other materials provided with the distribution.
+    * Neither the name of Jirvan Pty Ltd nor the names of its contributors
+      may be used to endorse or promote products derived from this software
+      without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+(INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+*/
+
+package com.jirvan.jidbc.processor;
+
+import com.jirvan.jidbc.GeneratedRowMapper;
+import com.jirvan.jidbc.internal.TableDef;
+import com.jirvan.util.DatabaseType;
+import org.testng.annotations.*;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.testng.AssertJUnit.*;
+
+public class JidbcRowMapperProcessorTests {
+
+    private static final String ROW_CLASS_PACKAGE = "com.jirvan.jidbc.processortest";
+
+    private static final String WIDGET_SOURCE = "package com.jirvan.jidbc.processortest;\n" +
+                                                "\n" +
+                                                "import com.jirvan.jidbc.*;\n" +
+                                                "import java.math.BigDecimal;\n" +
+                                                "\n" +
+                                                "@TableRow(tableName = \"widgets\")\n" +
+                                                "public class Widget {\n" +
+                                                "\n" +
+                                                "    @Id(generatorSequence = \"widget_id_sequence\")\n" +
+                                                "    public Long widgetId;\n" +
+                                                "\n" +
+                                                "    public String widgetName;\n" +
+                                                "\n" +
+                                                "    @NullAsDefault\n" +
+                                                "    public int quantity;\n" +
+                                                "\n" +
+                                                "    private BigDecimal price;\n" +
+                                                "\n" +
+                                                "    public BigDecimal getPrice() {\n" +
+                                                "        return price;\n" +
+                                                "    }\n" +
+                                                "\n" +
+                                                "    public void setPrice(BigDecimal price) {\n" +
+                                                "        this.price = price;\n" +
+                                                "    }\n" +
+                                                "\n" +
+                                                "}\n";
+
+    private static final String IMMUTABLE_WIDGET_SOURCE = "package com.jirvan.jidbc.processortest;\n" +
+                                                          "\n" +
+                                                          "import com.jirvan.jidbc.*;\n" +
+                                                          "\n" +
+                                                          "@TableRow(tableName = \"widgets\")\n" +
+                                                          "public class ImmutableWidget {\n" +
+                                                          "\n" +
+                                                          "    @Id\n" +
+                                                          "    public final Long widgetId;\n" +
+                                                          "\n" +
+                                                          "    public final String widgetName;\n" +
+                                                          "\n" +
+                                                          "    @JidbcConstructor({\"widgetId\", \"widgetName\"})\n" +
+                                                          "    public ImmutableWidget(Long widgetId, String widgetName) {\n" +
+                                                          "        this.widgetId = widgetId;\n" +
+                                                          "        this.widgetName = widgetName;\n" +
+                                                          "    }\n" +
+                                                          "\n" +
+                                                          "}\n";
+
+    @Test
+    public void generatesRowMapper() throws Exception {
+
+        // Compile the row class with the processor and check the generated mapper
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<JavaFileObject>();
+        ClassLoader classLoader = compileWithProcessor("Widget", WIDGET_SOURCE, diagnostics);
+        Class rowClass = classLoader.loadClass(ROW_CLASS_PACKAGE + ".Widget");
+        Class mapperClass = classLoader.loadClass(ROW_CLASS_PACKAGE + ".Widget" + GeneratedRowMapper.GENERATED_CLASS_NAME_SUFFIX);
+        assertTrue("mapper is a GeneratedRowMapper", GeneratedRowMapper.class.isAssignableFrom(mapperClass));
+        GeneratedRowMapper mapper = (GeneratedRowMapper) mapperClass.newInstance();
+        assertEquals("table name", "widgets", mapper.getTableName());
+        assertEquals("generator sequence", "widget_id_sequence", mapper.getGeneratorSequence());
+
+        // Check the columns
+        Map<String, Integer> columnIndexes = new HashMap<String, Integer>();
+        Map<String, GeneratedRowMapper.Column> columns = new HashMap<String, GeneratedRowMapper.Column>();
+        for (int i = 0; i < mapper.getColumns().length; i++) {
+            columnIndexes.put(mapper.getColumns()[i].attributeName, i);
+            columns.put(mapper.getColumns()[i].attributeName, mapper.getColumns()[i]);
+        }
+        assertEquals("number of columns", 4, columns.size());
+        assertTrue("widgetId is in the pk", columns.get("widgetId").isInPk);
+        assertFalse("widgetName is in the pk", columns.get("widgetName").isInPk);
+        assertSame("quantity attribute type", int.class, columns.get("quantity").attributeType);
+        assertTrue("quantity null as default", columns.get("quantity").nullAsDefault);
+        assertTrue("price column", columns.containsKey("price"));
+
+        // Check the generated accessors
+        Object row = mapper.newRow();
+        assertSame("row class", rowClass, row.getClass());
+        mapper.setValue(row, columnIndexes.get("widgetName"), "Sprocket");
+        mapper.setValue(row, columnIndexes.get("quantity"), 7);
+        assertEquals("widgetName field", "Sprocket", rowClass.getField("widgetName").get(row));
+        assertEquals("quantity", 7, mapper.getValue(row, columnIndexes.get("quantity")));
+
+        // Check the typed accessors are generated for the primitive attribute (and only its type)
+        assertNotNull("getInt generated", mapperClass.getDeclaredMethod("getInt", rowClass, int.class));
+        assertNotNull("setInt generated", mapperClass.getDeclaredMethod("setInt", rowClass, int.class, int.class));
+        try {
+            mapperClass.getDeclaredMethod("getLong", rowClass, int.class);
+            fail("Did not expect getLong to be generated");
+        } catch (NoSuchMethodException e) {
+        }
+        mapper.setInt(row, columnIndexes.get("quantity"), 9);
+        assertEquals("quantity", 9, mapper.getInt(row, columnIndexes.get("quantity")));
+        assertEquals("quantity field", 9, rowClass.getField("quantity").get(row));
+
+        // Check jidbc picks up the generated mapper
+        assertTrue("table def uses the generated row mapper", TableDef.getTableDefForRowClass(rowClass).usesGeneratedRowMapper());
+
+    }
+
+    @Test
+    public void skipsUnsupportedRowClass() throws Exception {
+
+        // Compile a row class the generated code can't handle (it has a @JidbcConstructor)
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<JavaFileObject>();
+        ClassLoader classLoader = compileWithProcessor("ImmutableWidget", IMMUTABLE_WIDGET_SOURCE, diagnostics);
+        Class rowClass = classLoader.loadClass(ROW_CLASS_PACKAGE + ".ImmutableWidget");
+
+        // Check no mapper was generated (with a warning) and jidbc falls back to reflection
+        try {
+            classLoader.loadClass(ROW_CLASS_PACKAGE + ".ImmutableWidget" + GeneratedRowMapper.GENERATED_CLASS_NAME_SUFFIX);
+            fail("Did not expect a row mapper to be generated");
+        } catch (ClassNotFoundException e) {
+        }
+        boolean warned = false;
+        for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+            if (diagnostic.getKind() == Diagnostic.Kind.WARNING && diagnostic.getMessage(null).contains("ImmutableWidget")) {
+                warned = true;
+            }
+        }
+        assertTrue("warned about the row class", warned);
+        assertFalse("table def uses a generated row mapper", TableDef.getTableDefForRowClass(rowClass).usesGeneratedRowMapper());
+
+    }
+
+    /**
+     * Compiles the row class source (in the ROW_CLASS_PACKAGE package) with the processor
+     * against jidbc and returns a class loader for the compiled (and generated) classes.
+     */
+    private ClassLoader compileWithProcessor(String className, String source, DiagnosticCollector<JavaFileObject> diagnostics) throws Exception {
+        Path baseDir = Files.createTempDirectory("jidbc-processor-test");
+        Path sourceFile = baseDir.resolve("src").resolve(ROW_CLASS_PACKAGE.replace('.', File.separatorChar)).resolve(className + ".java");
+        Path classesDir = baseDir.resolve("classes");
+        Path generatedSourcesDir = baseDir.resolve("generated-sources");
+        Files.createDirectories(sourceFile.getParent());
+        Files.createDirectories(classesDir);
+        Files.createDirectories(generatedSourcesDir);
+        Files.write(sourceFile, source.getBytes(StandardCharsets.UTF_8));
+
+        // Compile against jidbc and ji-utils (the processor itself is given explicitly)
+        String classpath = codeSourceLocation(GeneratedRowMapper.class) + File.pathSeparator
+                           + codeSourceLocation(DatabaseType.class) + File.pathSeparator
+                           + codeSourceLocation(JidbcRowMapperProcessor.class);
+        List<String> options = Arrays.asList("-classpath", classpath,
+                                             "-processor", JidbcRowMapperProcessor.class.getName(),
+                                             "-d", classesDir.toString(),
+                                             "-s", generatedSourcesDir.toString());
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, null, StandardCharsets.UTF_8);
+        try {
+            boolean succeeded = compiler.getTask(null, fileManager, diagnostics, options, null, fileManager.getJavaFileObjects(sourceFile.toFile())).call();
+            assertTrue(String.format("Compilation failed: %s", diagnostics.getDiagnostics()), succeeded);
+        } finally {
+            fileManager.close();
+        }
+
+        return new URLClassLoader(new URL[]{classesDir.toUri().toURL()}, getClass().getClassLoader());
+    }
+
+    private static String codeSourceLocation(Class aClass) throws Exception {
+        return new File(aClass.getProtectionDomain().getCodeSource().getLocation().toURI()).getPath();
+    }
+
+}
@@ -0,0 +1,158 @@
+/*
+
+Copyright (c) 2013, Jirvan Pty Ltd
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+
+    * Redistributions of source code must retain the above copyright notice,
+      this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above copyright notice,
+      this list of conditions and the following disclaimer in the documentation
+      and/or other materials provided with the distribution.
+    * Neither the name of Jirvan Pty Ltd nor the names of its contributors
+      may be used to endorse or promote products derived from this software
+      without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+(INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+*/
+
+package com.jirvan.jidbc;
+
+import com.jirvan.util.DatabaseType;
+
+/**
+ * The base class of the row mappers generated at compile time by the jidbc-processor
+ * annotation processor (for row classes annotated with @TableRow or @Id).  A generated
+ * mapper for a row class is named &lt;row class name&gt;_JidbcMapper, lives in the row
+ * class's package and is picked up automatically when the row class is first used, in
+ * which case the row class is not introspected and its attributes are accessed via the
+ * generated (reflection free) getValue and setValue methods.  Generated mappers also
+ * override the typed accessors (getInt, setInt etc) for their primitive attributes so
+ * that those are extracted and bound without boxing.
+ */
+public abstract class GeneratedRowMapper<T> {
+
+    public static final String GENERATED_CLASS_NAME_SUFFIX = "_JidbcMapper";
+
+    public static class Column {
+
+        public final String attributeName;
+        public final Class<?> attributeType;
+        public final boolean storeAsTimestamp;
+        public final boolean isInPk;
+        public final boolean nullAsDefault;
+        public final boolean hasDatabaseDefault;
+
+        public Column(String attributeName, Class<?> attributeType, boolean storeAsTimestamp, boolean isInPk, boolean nullAsDefault, boolean hasDatabaseDefault) {
+            this.attributeName = attributeName;
+            this.attributeType = attributeType;
+            this.storeAsTimestamp = storeAsTimestamp;
+            this.isInPk = isInPk;
+            this.nullAsDefault = nullAsDefault;
+            this.hasDatabaseDefault = hasDatabaseDefault;
+        }
+
+    }
+
+    private final String tableName;
+    private final String generatorSequence;
+    private final boolean ifSQLiteUseAutoincrement;
+    private final DatabaseType[] ignoreSequenceForDBs;
+    private final Column[] columns;
+
+    /**
+     * @param tableName                The table name from the row class's @TableRow annotation or
+     *                                 null if the table name is to be guessed from the row class name
+     * @param generatorSequence        The generatorSequence of the row class's @Id annotation (or null)
+     * @param ifSQLiteUseAutoincrement The ifSQLiteUseAutoincrement of the row class's @Id annotation
+     * @param ignoreSequenceForDBs     The ignoreSequenceForDBs of the row class's @Id annotation
+     * @param columns                  The row class's attributes in the order used by getValue and setValue
+     */
+    protected GeneratedRowMapper(String tableName,
+                                 String generatorSequence,
+                                 boolean ifSQLiteUseAutoincrement,
+                                 DatabaseType[] ignoreSequenceForDBs,
+                                 Column... columns) {
+        this.tableName = tableName;
+        this.generatorSequence = generatorSequence;
+        this.ifSQLiteUseAutoincrement = ifSQLiteUseAutoincrement;
+        this.ignoreSequenceForDBs = ignoreSequenceForDBs;
+        this.columns = columns;
+    }
+
+    public String getTableName() {
+        return tableName;
+    }
+
+    public String getGeneratorSequence() {
+        return generatorSequence;
+    }
+
+    public boolean getIfSQLiteUseAutoincrement() {
+        return ifSQLiteUseAutoincrement;
+    }
+
+    public DatabaseType[] getIgnoreSequenceForDBs() {
+        return ignoreSequenceForDBs;
+    }
+
+    public Column[] getColumns() {
+        return columns;
+    }
+
+    public abstract T newRow();
+
+    public abstract Object getValue(T row, int columnIndex);
+
+    public abstract void setValue(T row, int columnIndex, Object value);
+
+    /**
+     * Returns the value of a primitive int attribute.  This and the other typed accessors
+     * box via getValue and setValue unless overridden, which generated mappers do for the
+     * columns of the corresponding type.
+     */
+    public int getInt(T row, int columnIndex) {
+        return (Integer) getValue(row, columnIndex);
+    }
+
+    public void setInt(T row, int columnIndex, int value) {
+        setValue(row, columnIndex, value);
+    }
+
+    public long getLong(T row, int columnIndex) {
+        return (Long) getValue(row, columnIndex);
+    }
+
+    public void setLong(T row, int columnIndex, long value) {
+        setValue(row, columnIndex, value);
+    }
+
+    public double getDouble(T row, int columnIndex) {
+        return (Double) getValue(row, columnIndex);
+    }
+
+    public void setDouble(T row, int columnIndex, double value) {
+        setValue(row, columnIndex, value);
+    }
+
+    public boolean getBoolean(T row, int columnIndex) {
+        return (Boolean) getValue(row, columnIndex);
+    }
+
+    public void setBoolean(T row, int columnIndex, boolean value) {
+        setValue(row, columnIndex, value);
+    }
+
+}
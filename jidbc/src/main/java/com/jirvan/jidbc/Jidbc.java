@@ -31,6 +31,8 @@ SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
 package com.jirvan.jidbc;
 
 import com.jirvan.dates.Day;
+import com.jirvan.jidbc.internal.ObjectRowExtractor;
+import com.jirvan.jidbc.internal.SequenceHandler;
 import com.jirvan.jidbc.internal.TableDef;
 import com.jirvan.lang.SQLRuntimeException;
 import com.jirvan.util.DatabaseType;
@@ -44,7 +46,9 @@ import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 public class Jidbc {
 
@@ -55,6 +59,35 @@ public class Jidbc {
         sqlAndParameterValuesExceptionLogger = logger;
     }
 
+    /**
+     * Determines whether rows are extracted from result sets using row mappers (built
+     * once per row class, see RowMapper) or reflectively.  Row mappers are used by default,
+     * this is really only here so that the original reflective extraction can be switched
+     * back on if a problem is suspected with the row mapper for a particular row class.
+     */
+    public static void setUseRowMappers(boolean useRowMappers) {
+        ObjectRowExtractor.setUseRowMappers(useRowMappers);
+    }
+
+    /**
+     * Determines whether inserts into all tables are fixed shape (see
+     * TableRow.fixedShapeInserts), not just inserts into tables whose row class has
+     * fixedShapeInserts set.  The default is false.
+     */
+    public static void setUseFixedShapeInserts(boolean useFixedShapeInserts) {
+        TableDef.setUseFixedShapeInsertsForAllTables(useFixedShapeInserts);
+    }
+
+    /**
+     * Sets the allocator used for the generated ids of inserted rows whose table has a
+     * generator sequence (e.g. a SequenceBlockIdAllocator to take ids from the sequence in
+     * blocks rather than one round trip per row).  The default (null) takes each id directly
+     * from the sequence.
+     */
+    public static void setIdAllocator(IdAllocator idAllocator) {
+        SequenceHandler.setIdAllocator(idAllocator);
+    }
+
     public static void logSqlException(SQLException sqlException, String sql, Object[] parameterValues) {
         Jidbc.sqlAndParameterValuesExceptionLogger.error(formatSqlAndParameterValues(sql, parameterValues), sqlException);
 
@@ -98,6 +131,23 @@ public class Jidbc {
         }
     }
 
+    public static int[] insertAll(DataSource dataSource, Iterable<?> rows) {
+        return insertAll(dataSource, rows, BulkInsertStrategy.jdbcBatch);
+    }
+
+    public static int[] insertAll(DataSource dataSource, Iterable<?> rows, BulkInsertStrategy bulkInsertStrategy) {
+        JidbcConnection jidbc = JidbcConnection.from(dataSource);
+        try {
+
+            int[] batchCounts = jidbc.insertAll(rows, bulkInsertStrategy);
+
+            jidbc.commitAndClose();
+            return batchCounts;
+        } catch (Throwable t) {
+            throw jidbc.rollbackCloseAndWrap(t);
+        }
+    }
+
     public static <T> T get(DataSource dataSource, Class rowClass, Object pkValue) {
         JidbcConnection jidbc = JidbcConnection.from(dataSource);
         try {
@@ -111,6 +161,19 @@ public class Jidbc {
         }
     }
 
+    public static <K, T> Map<K, T> getAll(DataSource dataSource, Class rowClass, Collection<K> pkValues) {
+        JidbcConnection jidbc = JidbcConnection.from(dataSource);
+        try {
+
+            Map<K, T> rows = jidbc.getAll(rowClass, pkValues);
+
+            jidbc.commitAndClose();
+            return rows;
+        } catch (Throwable t) {
+            throw jidbc.rollbackCloseAndWrap(t);
+        }
+    }
+
     public static <T> T getIfExists(DataSource dataSource, Class rowClass, Object pkValue) {
         JidbcConnection jidbc = JidbcConnection.from(dataSource);
         try {
@@ -136,6 +199,18 @@ public class Jidbc {
         }
     }
 
+    public static void updateAll(DataSource dataSource, Iterable<?> rows) {
+        JidbcConnection jidbc = JidbcConnection.from(dataSource);
+        try {
+
+            jidbc.updateAll(rows);
+
+            jidbc.commitAndClose();
+        } catch (Throwable t) {
+            throw jidbc.rollbackCloseAndWrap(t);
+        }
+    }
+
     public static void save(DataSource dataSource, Object row) {
         JidbcConnection jidbc = JidbcConnection.from(dataSource);
         try {
@@ -148,6 +223,18 @@ public class Jidbc {
         }
     }
 
+    public static void saveAll(DataSource dataSource, Iterable<?> rows) {
+        JidbcConnection jidbc = JidbcConnection.from(dataSource);
+        try {
+
+            jidbc.saveAll(rows);
+
+            jidbc.commitAndClose();
+        } catch (Throwable t) {
+            throw jidbc.rollbackCloseAndWrap(t);
+        }
+    }
+
     public static void delete(DataSource dataSource, Object row) {
         JidbcConnection jidbc = JidbcConnection.from(dataSource);
         try {
@@ -160,6 +247,18 @@ public class Jidbc {
         }
     }
 
+    public static void deleteAll(DataSource dataSource, Iterable<?> rows) {
+        JidbcConnection jidbc = JidbcConnection.from(dataSource);
+        try {
+
+            jidbc.deleteAll(rows);
+
+            jidbc.commitAndClose();
+        } catch (Throwable t) {
+            throw jidbc.rollbackCloseAndWrap(t);
+        }
+    }
+
 
 //============================== Single returned object row/value methods ==============================
 
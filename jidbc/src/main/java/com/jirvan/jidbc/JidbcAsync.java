@@ -0,0 +1,366 @@
+/*
+
+Copyright (c) 2013, Jirvan Pty Ltd
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+
+    * Redistributions of source code must retain the above copyright notice,
+      this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above copyright notice,
+      this list of conditions and the following disclaimer in the documentation
+      and/or other materials provided with the distribution.
+    * Neither the name of Jirvan Pty Ltd nor the names of its contributors
+      may be used to endorse or promote products derived from this software
+      without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+(INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+*/
+
+package com.jirvan.jidbc;
+
+import com.jirvan.jidbc.internal.JidbcInternalUtils;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Asynchronous versions of the Jidbc DataSource methods.  Each method runs the equivalent
+ * Jidbc method (in its own connection and transaction) on the async executor and returns a
+ * CompletableFuture of its result, so that independent queries can run concurrently rather
+ * than one after the other.  The default executor runs each call in a new virtual thread
+ * where the JVM supports them, otherwise in a cached pool of daemon threads.  The number of
+ * calls running (and so holding a connection) at any one time is limited (by default to 10)
+ * so that a burst of calls cannot exhaust the DataSource's connection pool.  Calls over the
+ * limit are queued, without a thread, and handed to the executor as running calls finish.
+ */
+public class JidbcAsync {
+
+    public static final int DEFAULT_MAX_CONCURRENT_CONNECTIONS = 10;
+
+    private static volatile Executor executor = createDefaultExecutor();
+    private static volatile ConnectionPermits connectionPermits = new ConnectionPermits(DEFAULT_MAX_CONCURRENT_CONNECTIONS);
+
+    /**
+     * Sets the executor that async calls are run on (null restores the default executor).
+     */
+    public static void setExecutor(Executor executor) {
+        JidbcAsync.executor = executor != null ? executor : createDefaultExecutor();
+    }
+
+    /**
+     * Sets the maximum number of async calls that can run (and so hold a connection) at any
+     * one time.  Calls already queued or running are not affected.
+     */
+    public static void setMaxConcurrentConnections(int maxConcurrentConnections) {
+        if (maxConcurrentConnections < 1) {
+            throw new RuntimeException(String.format("Invalid max concurrent connections %d (must be at least 1)", maxConcurrentConnections));
+        }
+        JidbcAsync.connectionPermits = new ConnectionPermits(maxConcurrentConnections);
+    }
+
+//============================== Scatter-gather methods ==============================
+
+    /**
+     * Returns a future that completes when all of the given futures have completed (as for
+     * CompletableFuture.allOf).
+     */
+    public static CompletableFuture<Void> allOf(CompletableFuture<?>... futures) {
+        return CompletableFuture.allOf(futures);
+    }
+
+    /**
+     * Returns a future of the results of all of the given futures (in the same order),
+     * which completes exceptionally if any of them does.
+     */
+    public static <T> CompletableFuture<List<T>> allOf(final List<CompletableFuture<T>> futures) {
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[futures.size()]))
+                                .thenApply(new Function<Void, List<T>>() {
+                                    public List<T> apply(Void ignored) {
+                                        List<T> results = new ArrayList<T>(futures.size());
+                                        for (CompletableFuture<T> future : futures) {
+                                            results.add(future.join());
+                                        }
+                                        return results;
+                                    }
+                                });
+    }
+
+//============================== "CRUD" (create, retrieve, update, delete) methods ==============================
+
+    public static <T> CompletableFuture<T> insert(final DataSource dataSource, final T row) {
+        return supplyAsync(new Callable<T>() {
+            public T call() {
+                return Jidbc.insert(dataSource, row);
+            }
+        });
+    }
+
+    public static CompletableFuture<int[]> insertAll(final DataSource dataSource, final Iterable<?> rows) {
+        return supplyAsync(new Callable<int[]>() {
+            public int[] call() {
+                return Jidbc.insertAll(dataSource, rows);
+            }
+        });
+    }
+
+    public static <T> CompletableFuture<T> get(final DataSource dataSource, final Class rowClass, final Object pkValue) {
+        return supplyAsync(new Callable<T>() {
+            public T call() {
+                return Jidbc.get(dataSource, rowClass, pkValue);
+            }
+        });
+    }
+
+    public static <T> CompletableFuture<T> getIfExists(final DataSource dataSource, final Class rowClass, final Object pkValue) {
+        return supplyAsync(new Callable<T>() {
+            public T call() {
+                return Jidbc.getIfExists(dataSource, rowClass, pkValue);
+            }
+        });
+    }
+
+    public static CompletableFuture<Void> update(final DataSource dataSource, final Object row) {
+        return supplyAsync(new Callable<Void>() {
+            public Void call() {
+                Jidbc.update(dataSource, row);
+                return null;
+            }
+        });
+    }
+
+    public static CompletableFuture<Void> save(final DataSource dataSource, final Object row) {
+        return supplyAsync(new Callable<Void>() {
+            public Void call() {
+                Jidbc.save(dataSource, row);
+                return null;
+            }
+        });
+    }
+
+    public static CompletableFuture<Void> delete(final DataSource dataSource, final Object row) {
+        return supplyAsync(new Callable<Void>() {
+            public Void call() {
+                Jidbc.delete(dataSource, row);
+                return null;
+            }
+        });
+    }
+
+//============================== Single returned object row/value methods ==============================
+
+    public static <T> CompletableFuture<T> queryFor(final DataSource dataSource, final Class rowClass, final String sql, final Object... parameterValues) {
+        return supplyAsync(new Callable<T>() {
+            public T call() {
+                return Jidbc.queryFor(dataSource, rowClass, sql, parameterValues);
+            }
+        });
+    }
+
+    public static <T> CompletableFuture<T> queryForOptional(final DataSource dataSource, final Class rowClass, final String sql, final Object... parameterValues) {
+        return supplyAsync(new Callable<T>() {
+            public T call() {
+                return Jidbc.queryForOptional(dataSource, rowClass, sql, parameterValues);
+            }
+        });
+    }
+
+    public static CompletableFuture<String> queryFor_String(final DataSource dataSource, final String sql, final Object... parameterValues) {
+        return supplyAsync(new Callable<String>() {
+            public String call() {
+                return Jidbc.queryFor_String(dataSource, sql, parameterValues);
+            }
+        });
+    }
+
+    public static CompletableFuture<Integer> queryFor_Integer(final DataSource dataSource, final String sql, final Object... parameterValues) {
+        return supplyAsync(new Callable<Integer>() {
+            public Integer call() {
+                return Jidbc.queryFor_Integer(dataSource, sql, parameterValues);
+            }
+        });
+    }
+
+    public static CompletableFuture<Long> queryFor_Long(final DataSource dataSource, final String sql, final Object... parameterValues) {
+        return supplyAsync(new Callable<Long>() {
+            public Long call() {
+                return Jidbc.queryFor_Long(dataSource, sql, parameterValues);
+            }
+        });
+    }
+
+    public static CompletableFuture<Long> queryForOptional_Long(final DataSource dataSource, final String sql, final Object... parameterValues) {
+        return supplyAsync(new Callable<Long>() {
+            public Long call() {
+                return Jidbc.queryForOptional_Long(dataSource, sql, parameterValues);
+            }
+        });
+    }
+
+    public static CompletableFuture<Boolean> queryFor_Boolean(final DataSource dataSource, final String sql, final Object... parameterValues) {
+        return supplyAsync(new Callable<Boolean>() {
+            public Boolean call() {
+                return Jidbc.queryFor_Boolean(dataSource, sql, parameterValues);
+            }
+        });
+    }
+
+    public static CompletableFuture<BigDecimal> queryFor_BigDecimal(final DataSource dataSource, final String sql, final Object... parameterValues) {
+        return supplyAsync(new Callable<BigDecimal>() {
+            public BigDecimal call() {
+                return Jidbc.queryFor_BigDecimal(dataSource, sql, parameterValues);
+            }
+        });
+    }
+
+//============================== Multiple returned row/object methods ==============================
+
+    public static <T> CompletableFuture<List<T>> queryForList(final DataSource dataSource, final Class rowClass, final String sql, final Object... parameterValues) {
+        return supplyAsync(new Callable<List<T>>() {
+            public List<T> call() {
+                return Jidbc.queryForList(dataSource, rowClass, sql, parameterValues);
+            }
+        });
+    }
+
+//============================== Pass through methods to jdbc methods ==============================
+
+    public static CompletableFuture<Integer> executeUpdate(final DataSource dataSource, final String sql, final Object... parameters) {
+        return supplyAsync(new Callable<Integer>() {
+            public Integer call() {
+                return Jidbc.executeUpdate(dataSource, sql, parameters);
+            }
+        });
+    }
+
+//============================== Other methods ==============================
+
+    private static <T> CompletableFuture<T> supplyAsync(Callable<T> call) {
+        CompletableFuture<T> future = new CompletableFuture<T>();
+        connectionPermits.execute(new PendingCall<T>(call, future, executor));
+        return future;
+    }
+
+    private static Executor createDefaultExecutor() {
+        if (JidbcInternalUtils.supportsVirtualThreads()) {
+            return new Executor() {
+                public void execute(Runnable runnable) {
+                    JidbcInternalUtils.newThread(runnable, "JidbcAsync").start();
+                }
+            };
+        } else {
+            final AtomicInteger threadNumber = new AtomicInteger();
+            return Executors.newCachedThreadPool(new ThreadFactory() {
+                public Thread newThread(Runnable runnable) {
+                    Thread thread = new Thread(runnable, "JidbcAsync-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+        }
+    }
+
+    /**
+     * Limits the number of calls running at any one time.  A call is only handed to its
+     * executor once it has a permit, so calls waiting for a permit don't tie up threads.
+     * The permit is passed directly to the next waiting call when a call finishes.
+     */
+    private static class ConnectionPermits {
+
+        private final int maxPermits;
+        private final Queue<PendingCall> waitingCalls = new ArrayDeque<PendingCall>();
+        private int permitsInUse;
+
+        private ConnectionPermits(int maxPermits) {
+            this.maxPermits = maxPermits;
+        }
+
+        private void execute(PendingCall call) {
+            synchronized (this) {
+                if (permitsInUse == maxPermits) {
+                    waitingCalls.add(call);
+                    return;
+                }
+                permitsInUse++;
+            }
+            dispatch(call);
+        }
+
+        private void release() {
+            PendingCall nextCall;
+            synchronized (this) {
+                nextCall = waitingCalls.poll();
+                if (nextCall == null) {
+                    permitsInUse--;
+                }
+            }
+            if (nextCall != null) {
+                dispatch(nextCall);
+            }
+        }
+
+        private void dispatch(final PendingCall call) {
+            try {
+                call.executor.execute(new Runnable() {
+                    public void run() {
+                        try {
+                            call.run();
+                        } finally {
+                            release();
+                        }
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                call.future.completeExceptionally(e);
+                release();
+            }
+        }
+
+    }
+
+    private static class PendingCall<T> {
+
+        private final Callable<T> call;
+        private final CompletableFuture<T> future;
+        private final Executor executor;
+
+        private PendingCall(Callable<T> call, CompletableFuture<T> future, Executor executor) {
+            this.call = call;
+            this.future = future;
+            this.executor = executor;
+        }
+
+        private void run() {
+            try {
+                future.complete(call.call());
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+            }
+        }
+
+    }
+
+}
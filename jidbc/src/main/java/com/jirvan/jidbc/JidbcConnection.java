@@ -31,7 +31,10 @@ SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
 package com.jirvan.jidbc;
 
 import com.jirvan.dates.Day;
+import com.jirvan.jidbc.internal.ColumnarResults;
 import com.jirvan.jidbc.internal.DeleteHandler;
+import com.jirvan.jidbc.internal.ForEachHandler;
+import com.jirvan.jidbc.internal.GetAllHandler;
 import com.jirvan.jidbc.internal.InsertHandler;
 import com.jirvan.jidbc.internal.JidbcExporter;
 import com.jirvan.jidbc.internal.JidbcImporter;
@@ -39,6 +42,7 @@ import com.jirvan.jidbc.internal.QueryForHandler;
 import com.jirvan.jidbc.internal.Results;
 import com.jirvan.jidbc.internal.SaveHandler;
 import com.jirvan.jidbc.internal.SequenceHandler;
+import com.jirvan.jidbc.internal.StatementCache;
 import com.jirvan.jidbc.internal.UpdateHandler;
 import com.jirvan.jidbc.internal.UpdateStatementExecutor;
 import com.jirvan.jidbc.lang.MultipleRowsRuntimeException;
@@ -58,20 +62,28 @@ import java.sql.SQLException;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
 import static com.jirvan.util.Assertions.*;
 
 public class JidbcConnection {
 
+    public static final int DEFAULT_BATCH_SIZE = 1000;
+
     private Connection jdbcConnection;
     private boolean usingExternalConnection;
     private List<Results> openResultses = new ArrayList<Results>();
+    private StatementCache statementCache;
+    private int batchSize = DEFAULT_BATCH_SIZE;
 
     private JidbcConnection(Connection jdbcConnection, boolean usingExternalConnection) {
         try {
             this.jdbcConnection = jdbcConnection;
             this.usingExternalConnection = usingExternalConnection;
+            this.statementCache = new StatementCache(jdbcConnection, usingExternalConnection ? 0 : StatementCache.DEFAULT_MAX_SIZE);
             if ((!usingExternalConnection) && jdbcConnection.getAutoCommit()) {
                 jdbcConnection.setAutoCommit(false);
             }
@@ -115,6 +127,7 @@ public class JidbcConnection {
         try {
             boolean autoCommit = jdbcConnection.getAutoCommit();
             closeAnyOpenQueryIterables();
+            statementCache.clear();
             jdbcConnection.rollback();
             jdbcConnection.close();
             if (autoCommit) throw new RuntimeException("Expected autoCommit to be off");
@@ -127,6 +140,7 @@ public class JidbcConnection {
         try {
             boolean autoCommit = jdbcConnection.getAutoCommit();
             closeAnyOpenQueryIterables();
+            statementCache.clear();
             jdbcConnection.commit();
             jdbcConnection.close();
             if (autoCommit) throw new RuntimeException("Expected autoCommit to be off");
@@ -145,29 +159,130 @@ public class JidbcConnection {
         return jdbcConnection;
     }
 
+    /**
+     * Sets the maximum number of prepared statements (keyed by sql) that are kept open for
+     * reuse by this connection.  Zero disables statement caching (statements are closed as
+     * soon as they have been used).  The cached statements are closed when the connection
+     * is committed or rolled back and closed.
+     * <p>
+     * The default is StatementCache.DEFAULT_MAX_SIZE, except for connections obtained via
+     * using(connection), where it is zero as jidbc doesn't know when the caller is finished
+     * with the connection.  Callers that opt in to caching on such a connection must call
+     * clearStatementCache (or set the max size back to zero) before closing or returning the
+     * connection, otherwise the cached statements are left open on it.
+     */
+    public void setStatementCacheMaxSize(int maxSize) {
+        try {
+            statementCache.setMaxSize(maxSize);
+        } catch (SQLException e) {
+            throw new SQLRuntimeException(e);
+        }
+    }
+
+    /**
+     * Closes any cached prepared statements.  This is done automatically by commitAndClose
+     * and rollbackAndClose.  It is how callers that have enabled statement caching on a
+     * connection obtained via using(connection) release the cached statements before
+     * closing or returning the connection (see setStatementCacheMaxSize).
+     */
+    public void clearStatementCache() {
+        try {
+            statementCache.clear();
+        } catch (SQLException e) {
+            throw new SQLRuntimeException(e);
+        }
+    }
+
+    public int getStatementCacheSize() {
+        return statementCache.size();
+    }
+
+    public long getStatementCacheHits() {
+        return statementCache.getHits();
+    }
+
+    public long getStatementCacheMisses() {
+        return statementCache.getMisses();
+    }
+
+    /**
+     * Sets the maximum number of rows sent to the database in a single JDBC batch by the
+     * batched methods (insertAll etc).  The default is DEFAULT_BATCH_SIZE.
+     */
+    public void setBatchSize(int batchSize) {
+        if (batchSize < 1) {
+            throw new RuntimeException(String.format("Batch size must be at least 1 (it is %d)", batchSize));
+        }
+        this.batchSize = batchSize;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
 
 //============================== "CRUD" (create, retrieve, update, delete) methods ==============================
 
     public <T> T insert(T row) {
-        InsertHandler.insert(jdbcConnection, row, null);
+        InsertHandler.insert(jdbcConnection, statementCache, row, null);
         return row;
     }
 
+    /**
+     * Inserts the rows (which can be for different tables) using JDBC batches of up to
+     * getBatchSize() rows, setting any generated ids on the rows.  Consecutive rows for the
+     * same table are batched together, so rows for different tables should be grouped
+     * together (e.g. all of the parent rows followed by all of the child rows) to get the
+     * most out of batching.
+     *
+     * @return The number of rows inserted by each executed batch
+     */
+    public int[] insertAll(Iterable<?> rows) {
+        return insertAll(rows, BulkInsertStrategy.jdbcBatch);
+    }
+
+    /**
+     * As for insertAll(rows) but with the rows being sent to the database using the given
+     * bulk insert strategy (see BulkInsertStrategy).
+     *
+     * @return The number of rows inserted by each executed batch or statement
+     */
+    public int[] insertAll(Iterable<?> rows, BulkInsertStrategy bulkInsertStrategy) {
+        assertNotNull(rows, "Supplied rows are null");
+        assertNotNull(bulkInsertStrategy, "Supplied bulk insert strategy is null");
+        return InsertHandler.insertAll(jdbcConnection, statementCache, rows, batchSize, bulkInsertStrategy);
+    }
+
     public <T> T get(Class rowClass, Object pkValue) {
         assertNotNull(rowClass, "Supplied row class is null");
         assertNotNull(pkValue, "Supplied primary key value is null");
         try {
-            return QueryForHandler.queryFor(jdbcConnection, true, rowClass, null, new Object[]{pkValue}, true, false, false);
+            return QueryForHandler.queryFor(jdbcConnection, statementCache, true, rowClass, null, new Object[]{pkValue}, true, false, false);
         } catch (NotFoundRuntimeException e) {
             throw new NotFoundRuntimeException(String.format("%s:%s not found", rowClass.getSimpleName().replaceFirst("sRow$", ""), pkValue.toString()));
         }
     }
 
+    /**
+     * Gets the rows with the given pk values using as few round trips as possible (see
+     * GetAllHandler.getAll), rather than one per pk value.  Integral pk values are converted
+     * to the type of a Long or Integer pk attribute, other pk values must be of the pk
+     * attribute's type.
+     *
+     * @return The found rows keyed by pk value, in the order of the given pk values (pk
+     *         values with no row are left out)
+     */
+    public <K, T> Map<K, T> getAll(Class rowClass, Collection<K> pkValues) {
+        assertNotNull(rowClass, "Supplied row class is null");
+        assertNotNull(pkValues, "Supplied primary key values are null");
+        return GetAllHandler.getAll(jdbcConnection, statementCache, rowClass, pkValues, batchSize);
+    }
+
     public <T> T getForUpdate(Class rowClass, Object pkValue) {
         assertNotNull(rowClass, "Supplied row class is null");
         assertNotNull(pkValue, "Supplied primary key value is null");
         try {
-            return QueryForHandler.queryFor(jdbcConnection, true, rowClass, null, new Object[]{pkValue}, true, false, true);
+            return QueryForHandler.queryFor(jdbcConnection, statementCache, true, rowClass, null, new Object[]{pkValue}, true, false, true);
         } catch (NotFoundRuntimeException e) {
             throw new NotFoundRuntimeException(String.format("%s:%s not found", rowClass.getSimpleName().replaceFirst("sRow$", ""), pkValue.toString()));
         }
@@ -176,120 +291,184 @@ public class JidbcConnection {
     public <T> T getIfExists(Class rowClass, Object pkValue) {
         assertNotNull(rowClass, "Supplied row class is null");
         assertNotNull(pkValue, "Supplied primary key value is null");
-        return QueryForHandler.queryFor(jdbcConnection, false, rowClass, null, new Object[]{pkValue}, true, false, false);
+        return QueryForHandler.queryFor(jdbcConnection, statementCache, false, rowClass, null, new Object[]{pkValue}, true, false, false);
     }
 
     public <T> T getIfExistsForUpdate(Class rowClass, Object pkValue) {
         assertNotNull(rowClass, "Supplied row class is null");
         assertNotNull(pkValue, "Supplied primary key value is null");
-        return QueryForHandler.queryFor(jdbcConnection, false, rowClass, null, new Object[]{pkValue}, true, false, true);
+        return QueryForHandler.queryFor(jdbcConnection, statementCache, false, rowClass, null, new Object[]{pkValue}, true, false, true);
     }
 
     public void update(Object row) {
-        UpdateHandler.update(jdbcConnection, row);
+        UpdateHandler.update(jdbcConnection, statementCache, row);
+    }
+
+    /**
+     * Updates the rows by primary key using JDBC batches of up to getBatchSize() rows (rows
+     * for the same table should be grouped together to get the most out of batching).
+     *
+     * @throws com.jirvan.jidbc.lang.BatchRowCountRuntimeException if any of the rows was not found or matched more than one row
+     */
+    public void updateAll(Iterable<?> rows) {
+        assertNotNull(rows, "Supplied rows are null");
+        UpdateHandler.updateAll(statementCache, rows, batchSize);
     }
 
     public void save(Object row) {
-        SaveHandler.save(jdbcConnection, row);
+        SaveHandler.save(jdbcConnection, statementCache, row);
+    }
+
+    /**
+     * Saves the rows (inserting those that don't exist and updating those that do).  Where
+     * the database supports a native upsert the rows are sent in JDBC batches of up to
+     * getBatchSize() rows (rows for the same table should be grouped together to get the
+     * most out of batching), otherwise they are saved one at a time.  As rows are batched by
+     * shape, the same row should not be saved more than once in a single call.
+     */
+    public void saveAll(Iterable<?> rows) {
+        assertNotNull(rows, "Supplied rows are null");
+        SaveHandler.saveAll(jdbcConnection, statementCache, rows, batchSize);
     }
 
     public void delete(Object row) {
-        DeleteHandler.delete(jdbcConnection, row);
+        DeleteHandler.delete(jdbcConnection, statementCache, row);
+    }
+
+    /**
+     * Deletes the rows by primary key using JDBC batches of up to getBatchSize() rows (rows
+     * for the same table should be grouped together to get the most out of batching).
+     *
+     * @throws com.jirvan.jidbc.lang.BatchRowCountRuntimeException if any of the rows was not found or matched more than one row
+     */
+    public void deleteAll(Iterable<?> rows) {
+        assertNotNull(rows, "Supplied rows are null");
+        DeleteHandler.deleteAll(statementCache, rows, batchSize);
     }
 
 
 //============================== Single returned object row/value methods ==============================
 
     public <T> T queryFor(Class rowClass, String sql, Object... parameterValues) {
-        return QueryForHandler.queryFor(jdbcConnection, true, rowClass, sql, parameterValues, false, false, false);
+        return QueryForHandler.queryFor(jdbcConnection, statementCache, true, rowClass, sql, parameterValues, false, false, false);
     }
 
     public <T> T queryForForUpdate(Class rowClass, String sql, Object... parameterValues) {
-        return QueryForHandler.queryFor(jdbcConnection, true, rowClass, sql, parameterValues, false, false, true);
+        return QueryForHandler.queryFor(jdbcConnection, statementCache, true, rowClass, sql, parameterValues, false, false, true);
     }
 
     public <T> T queryForAndIgnoreMissingResultSetColumns(Class rowClass, String sql, Object... parameterValues) {
-        return QueryForHandler.queryFor(jdbcConnection, true, rowClass, sql, parameterValues, false, true, false);
+        return QueryForHandler.queryFor(jdbcConnection, statementCache, true, rowClass, sql, parameterValues, false, true, false);
     }
 
     public <T> T queryForForUpdateAndIgnoreMissingResultSetColumns(Class rowClass, String sql, Object... parameterValues) {
-        return QueryForHandler.queryFor(jdbcConnection, true, rowClass, sql, parameterValues, false, true, true);
+        return QueryForHandler.queryFor(jdbcConnection, statementCache, true, rowClass, sql, parameterValues, false, true, true);
     }
 
     public <T> T queryForOptional(Class rowClass, String sql, Object... parameterValues) {
-        return QueryForHandler.queryFor(jdbcConnection, false, rowClass, sql, parameterValues, false, false, false);
+        return QueryForHandler.queryFor(jdbcConnection, statementCache, false, rowClass, sql, parameterValues, false, false, false);
     }
 
     public <T> T queryForForUpdateOptional(Class rowClass, String sql, Object... parameterValues) {
-        return QueryForHandler.queryFor(jdbcConnection, false, rowClass, sql, parameterValues, false, false, true);
+        return QueryForHandler.queryFor(jdbcConnection, statementCache, false, rowClass, sql, parameterValues, false, false, true);
     }
 
     public <T> T queryForOptionalIgnoringMissingResultSetColumns(Class rowClass, String sql, Object... parameterValues) {
-        return QueryForHandler.queryFor(jdbcConnection, false, rowClass, sql, parameterValues, false, true, false);
+        return QueryForHandler.queryFor(jdbcConnection, statementCache, false, rowClass, sql, parameterValues, false, true, false);
     }
 
     public <T> T queryForForUpdateOptionalIgnoringMissingResultSetColumns(Class rowClass, String sql, Object... parameterValues) {
-        return QueryForHandler.queryFor(jdbcConnection, false, rowClass, sql, parameterValues, false, true, true);
+        return QueryForHandler.queryFor(jdbcConnection, statementCache, false, rowClass, sql, parameterValues, false, true, true);
     }
 
     public String queryFor_String(String sql, Object... parameterValues) {
-        return QueryForHandler.queryFor_String(jdbcConnection, true, sql, parameterValues);
+        return QueryForHandler.queryFor_String(jdbcConnection, statementCache, true, sql, parameterValues);
     }
 
     public String queryForOptional_String(String sql, Object... parameterValues) {
-        return QueryForHandler.queryFor_String(jdbcConnection, false, sql, parameterValues);
+        return QueryForHandler.queryFor_String(jdbcConnection, statementCache, false, sql, parameterValues);
     }
 
     public Integer queryFor_Integer(String sql, Object... parameterValues) {
-        return QueryForHandler.queryFor_Integer(jdbcConnection, true, sql, parameterValues);
+        return QueryForHandler.queryFor_Integer(jdbcConnection, statementCache, true, sql, parameterValues);
     }
 
     public Long queryFor_Long(String sql, Object... parameterValues) {
-        return QueryForHandler.queryFor_Long(jdbcConnection, true, sql, parameterValues);
+        return QueryForHandler.queryFor_Long(jdbcConnection, statementCache, true, sql, parameterValues);
     }
 
     public Long queryForOptional_Long(String sql, Object... parameterValues) {
-        return QueryForHandler.queryFor_Long(jdbcConnection, false, sql, parameterValues);
+        return QueryForHandler.queryFor_Long(jdbcConnection, statementCache, false, sql, parameterValues);
     }
 
     public Boolean queryFor_Boolean(String sql, Object... parameterValues) {
-        return QueryForHandler.queryFor_Boolean(jdbcConnection, true, sql, parameterValues);
+        return QueryForHandler.queryFor_Boolean(jdbcConnection, statementCache, true, sql, parameterValues);
     }
 
     public Boolean queryForOptional_Boolean(String sql, Object... parameterValues) {
-        return QueryForHandler.queryFor_Boolean(jdbcConnection, false, sql, parameterValues);
+        return QueryForHandler.queryFor_Boolean(jdbcConnection, statementCache, false, sql, parameterValues);
     }
 
     public BigDecimal queryFor_BigDecimal(String sql, Object... parameterValues) {
-        return QueryForHandler.queryFor_BigDecimal(jdbcConnection, true, sql, parameterValues);
+        return QueryForHandler.queryFor_BigDecimal(jdbcConnection, statementCache, true, sql, parameterValues);
     }
 
     public BigDecimal queryForOptional_BigDecimal(String sql, Object... parameterValues) {
-        return QueryForHandler.queryFor_BigDecimal(jdbcConnection, false, sql, parameterValues);
+        return QueryForHandler.queryFor_BigDecimal(jdbcConnection, statementCache, false, sql, parameterValues);
+    }
+
+    /**
+     * As for queryFor_Long but returning a primitive long, and defaultIfNull if the value
+     * is null, so that no boxed value is created (for hot counting and id lookups).
+     */
+    public long queryFor_long(String sql, long defaultIfNull, Object... parameterValues) {
+        return QueryForHandler.queryFor_long(statementCache, sql, defaultIfNull, parameterValues);
+    }
+
+    /**
+     * As for queryFor_Integer but returning a primitive int (defaultIfNull if the value is null).
+     */
+    public int queryFor_int(String sql, int defaultIfNull, Object... parameterValues) {
+        return QueryForHandler.queryFor_int(statementCache, sql, defaultIfNull, parameterValues);
+    }
+
+    /**
+     * Returns a primitive double (defaultIfNull if the value is null), read with getDouble
+     * rather than as a BigDecimal.
+     */
+    public double queryFor_double(String sql, double defaultIfNull, Object... parameterValues) {
+        return QueryForHandler.queryFor_double(statementCache, sql, defaultIfNull, parameterValues);
+    }
+
+    /**
+     * As for queryFor_Boolean but returning a primitive boolean (defaultIfNull if the value is null).
+     */
+    public boolean queryFor_boolean(String sql, boolean defaultIfNull, Object... parameterValues) {
+        return QueryForHandler.queryFor_boolean(statementCache, sql, defaultIfNull, parameterValues);
     }
 
     public Day queryFor_Day(String sql, Object... parameterValues) {
-        return QueryForHandler.queryFor_Day(jdbcConnection, true, sql, parameterValues);
+        return QueryForHandler.queryFor_Day(jdbcConnection, statementCache, true, sql, parameterValues);
     }
 
     public LocalDate queryFor_LocalDate(String sql, Object... parameterValues) {
-        return QueryForHandler.queryFor_LocalDate(jdbcConnection, true, sql, parameterValues);
+        return QueryForHandler.queryFor_LocalDate(jdbcConnection, statementCache, true, sql, parameterValues);
     }
 
     public LocalDateTime queryFor_LocalDateTime(String sql, Object... parameterValues) {
-        return QueryForHandler.queryFor_LocalDateTime(jdbcConnection, true, sql, parameterValues);
+        return QueryForHandler.queryFor_LocalDateTime(jdbcConnection, statementCache, true, sql, parameterValues);
     }
 
     public Day queryForOptional_Day(String sql, Object... parameterValues) {
-        return QueryForHandler.queryFor_Day(jdbcConnection, false, sql, parameterValues);
+        return QueryForHandler.queryFor_Day(jdbcConnection, statementCache, false, sql, parameterValues);
     }
 
     public LocalDate queryForOptional_LocalDate(String sql, Object... parameterValues) {
-        return QueryForHandler.queryFor_LocalDate(jdbcConnection, false, sql, parameterValues);
+        return QueryForHandler.queryFor_LocalDate(jdbcConnection, statementCache, false, sql, parameterValues);
     }
 
     public LocalDateTime queryForOptional_LocalDateTime(String sql, Object... parameterValues) {
-        return QueryForHandler.queryFor_LocalDateTime(jdbcConnection, false, sql, parameterValues);
+        return QueryForHandler.queryFor_LocalDateTime(jdbcConnection, statementCache, false, sql, parameterValues);
     }
 
 
@@ -316,7 +495,92 @@ public class JidbcConnection {
      * @see #queryIgnoringMissingResultSetColumns(Class, String, Object...) query
      */
     public <T> Results<? extends T> query(Class rowClass, String sql, Object... parameterValues) {
-        return new Results<T>(jdbcConnection, openResultses, rowClass, sql, false, false, parameterValues);
+        return new Results<T>(statementCache, openResultses, rowClass, sql, false, false, parameterValues);
+    }
+
+    /**
+     * As for query(Class, String, Object...) but with the query statement using the given
+     * query options.  In particular a fetch size (e.g. QueryOptions.withFetchSize(1000))
+     * keeps memory use bounded when iterating through large results by streaming the rows
+     * from the database rather than having the driver read them all into memory first.
+     *
+     * @param rowClass        The class of the rows to be returned
+     * @param queryOptions    The statement settings to use (see QueryOptions)
+     * @param sql             The sql for selecting the rows from the database (see query)
+     * @param parameterValues Any parameter values associated with the sql
+     * @return A Results iterable that can be used to process the results
+     * of the query.
+     */
+    public <T> Results<? extends T> query(Class rowClass, QueryOptions queryOptions, String sql, Object... parameterValues) {
+        assertNotNull(queryOptions, "Supplied query options are null");
+        return new Results<T>(statementCache, openResultses, rowClass, queryOptions, sql, false, false, parameterValues);
+    }
+
+    /**
+     * Runs the query passing each row to the row visitor.  Rather than creating a new row
+     * object for each row, a single row instance is repopulated for every row, so scanning
+     * allocates nothing per row beyond what the driver does (which makes it suited to
+     * scanning and aggregating very large numbers of rows).  The row passed to the visitor
+     * must therefore not be kept (or escape the visit call in any other way), as it will
+     * have been overwritten by the next row.  Rows of records and @JidbcConstructor row
+     * classes cannot be repopulated, so a new row is still created for each of their rows.
+     *
+     * @param rowClass        The class of the rows (see query for the supported row classes
+     *                        other than the single value ones)
+     * @param sql             The sql for selecting the rows from the database (see query)
+     * @param rowVisitor      The visitor to pass each row to
+     * @param parameterValues Any parameter values associated with the sql
+     */
+    public <T> void forEach(Class rowClass, String sql, RowVisitor<T> rowVisitor, Object... parameterValues) {
+        assertNotNull(rowVisitor, "Supplied row visitor is null");
+        ForEachHandler.forEach(statementCache, rowClass, null, null, sql, rowVisitor, parameterValues);
+    }
+
+    /**
+     * As for forEach(Class, String, RowVisitor, Object...) but with the query statement using
+     * the given query options (e.g. a fetch size so that large scans are streamed).
+     */
+    public <T> void forEach(Class rowClass, QueryOptions queryOptions, String sql, RowVisitor<T> rowVisitor, Object... parameterValues) {
+        assertNotNull(queryOptions, "Supplied query options are null");
+        assertNotNull(rowVisitor, "Supplied row visitor is null");
+        ForEachHandler.forEach(statementCache, rowClass, null, queryOptions, sql, rowVisitor, parameterValues);
+    }
+
+    /**
+     * As for forEach(Class, String, RowVisitor, Object...) but repopulating the given row
+     * (which determines the row class) for every row.
+     */
+    public <T> void forEachInto(T row, String sql, RowVisitor<T> rowVisitor, Object... parameterValues) {
+        assertNotNull(row, "Supplied row is null");
+        assertNotNull(rowVisitor, "Supplied row visitor is null");
+        ForEachHandler.forEach(statementCache, row.getClass(), row, null, sql, rowVisitor, parameterValues);
+    }
+
+    /**
+     * Returns a lazy stream of the rows returned by the query (see query(Class, String,
+     * Object...) for the sql).  The query is executed when the stream's terminal operation
+     * starts and rows are read from the database as the stream needs them, so short
+     * circuiting operations such as limit and findFirst don't read the remaining rows.
+     * Closing the stream releases the query resources.  A stream that is read to the end is
+     * closed automatically, otherwise it should be closed (e.g. with try-with-resources) or
+     * it will be closed when the JidbcConnection is released.
+     *
+     * @param rowClass        The class of the rows to be returned
+     * @param sql             The sql for selecting the rows from the database (see query)
+     * @param parameterValues Any parameter values associated with the sql
+     * @return A lazy stream of the rows
+     */
+    public <T> Stream<T> stream(Class rowClass, String sql, Object... parameterValues) {
+        return Results.stream(statementCache, openResultses, rowClass, null, sql, false, false, parameterValues);
+    }
+
+    /**
+     * As for stream(Class, String, Object...) but with the query statement using the given
+     * query options (e.g. a fetch size to stream large results in bounded memory).
+     */
+    public <T> Stream<T> stream(Class rowClass, QueryOptions queryOptions, String sql, Object... parameterValues) {
+        assertNotNull(queryOptions, "Supplied query options are null");
+        return Results.stream(statementCache, openResultses, rowClass, queryOptions, sql, false, false, parameterValues);
     }
 
     /**
@@ -341,7 +605,7 @@ public class JidbcConnection {
      * @see #queryIgnoringMissingResultSetColumns(Class, String, Object...) query
      */
     public <T> Results<? extends T> queryForUpdate(Class rowClass, String sql, Object... parameterValues) {
-        return new Results<T>(jdbcConnection, openResultses, rowClass, sql, false, true, parameterValues);
+        return new Results<T>(statementCache, openResultses, rowClass, sql, false, true, parameterValues);
     }
 
     /**
@@ -368,7 +632,7 @@ public class JidbcConnection {
      * @see #query(Class, String, Object...) query
      */
     public <T> Results<? extends T> queryIgnoringMissingResultSetColumns(Class rowClass, String sql, Object... parameterValues) {
-        return new Results<T>(jdbcConnection, openResultses, rowClass, sql, true, false, parameterValues);
+        return new Results<T>(statementCache, openResultses, rowClass, sql, true, false, parameterValues);
     }
 
     /**
@@ -396,7 +660,85 @@ public class JidbcConnection {
      * @see #query(Class, String, Object...) query
      */
     public <T> Results<? extends T> queryForUpdateIgnoringMissingResultSetColumns(Class rowClass, String sql, Object... parameterValues) {
-        return new Results<T>(jdbcConnection, openResultses, rowClass, sql, true, true, parameterValues);
+        return new Results<T>(statementCache, openResultses, rowClass, sql, true, true, parameterValues);
+    }
+
+    /**
+     * Runs the query and returns its rows held by column rather than as row objects (see
+     * ColumnarResults).  Numeric columns are read with the primitive ResultSet getters into
+     * primitive arrays (with null bitmaps) and string columns are dictionary encoded, which
+     * takes a fraction of the memory and time of queryForList(Object[].class, ...) when
+     * reading a few columns from a large number of rows.
+     *
+     * @param sql             The sql for selecting the rows from the database
+     * @param parameterValues Any parameter values associated with the sql
+     * @return The rows held by column
+     */
+    public ColumnarResults queryForColumns(String sql, Object... parameterValues) {
+        return QueryForHandler.queryForColumns(statementCache, null, sql, parameterValues);
+    }
+
+    /**
+     * As for queryForColumns(String, Object...) but with the query statement using the given
+     * query options (e.g. a fetch size so that the driver doesn't hold the whole result set
+     * in row form while the columns are filled).  The pipeline queue size is ignored.
+     */
+    public ColumnarResults queryForColumns(QueryOptions queryOptions, String sql, Object... parameterValues) {
+        assertNotNull(queryOptions, "Supplied query options are null");
+        return QueryForHandler.queryForColumns(statementCache, queryOptions, sql, parameterValues);
+    }
+
+    /**
+     * This method executes a query against the database and returns the values of the first
+     * column of the result as a long array.  The values are read with getLong into a growable
+     * primitive array, so no boxed values or intermediate list are created (unlike
+     * queryForList(Long.class, ...)).  A null value causes a RuntimeException.
+     *
+     * @param sql             The sql for selecting the values from the database
+     * @param parameterValues Any parameter values associated with the sql
+     * @return The values
+     */
+    public long[] queryForLongArray(String sql, Object... parameterValues) {
+        return (long[]) QueryForHandler.queryForPrimitiveArray(statementCache, null, long.class, sql, parameterValues);
+    }
+
+    /**
+     * As for queryForLongArray(String, Object...) but with the query statement using the given
+     * query options.  The pipeline queue size is ignored.
+     */
+    public long[] queryForLongArray(QueryOptions queryOptions, String sql, Object... parameterValues) {
+        assertNotNull(queryOptions, "Supplied query options are null");
+        return (long[]) QueryForHandler.queryForPrimitiveArray(statementCache, queryOptions, long.class, sql, parameterValues);
+    }
+
+    /**
+     * As for queryForLongArray(String, Object...) but returning an int array.
+     */
+    public int[] queryForIntArray(String sql, Object... parameterValues) {
+        return (int[]) QueryForHandler.queryForPrimitiveArray(statementCache, null, int.class, sql, parameterValues);
+    }
+
+    /**
+     * As for queryForLongArray(QueryOptions, String, Object...) but returning an int array.
+     */
+    public int[] queryForIntArray(QueryOptions queryOptions, String sql, Object... parameterValues) {
+        assertNotNull(queryOptions, "Supplied query options are null");
+        return (int[]) QueryForHandler.queryForPrimitiveArray(statementCache, queryOptions, int.class, sql, parameterValues);
+    }
+
+    /**
+     * As for queryForLongArray(String, Object...) but returning a double array.
+     */
+    public double[] queryForDoubleArray(String sql, Object... parameterValues) {
+        return (double[]) QueryForHandler.queryForPrimitiveArray(statementCache, null, double.class, sql, parameterValues);
+    }
+
+    /**
+     * As for queryForLongArray(QueryOptions, String, Object...) but returning a double array.
+     */
+    public double[] queryForDoubleArray(QueryOptions queryOptions, String sql, Object... parameterValues) {
+        assertNotNull(queryOptions, "Supplied query options are null");
+        return (double[]) QueryForHandler.queryForPrimitiveArray(statementCache, queryOptions, double.class, sql, parameterValues);
     }
 
     /**
@@ -497,7 +839,7 @@ public class JidbcConnection {
 //============================== Pass through methods to jdbc methods ==============================
 
     public int executeUpdate(String sql, Object... parameters) {
-        return UpdateStatementExecutor.executeUpdate(jdbcConnection, sql, parameters);
+        return UpdateStatementExecutor.executeUpdate(jdbcConnection, statementCache, sql, parameters);
     }
 
 //============================== "Extensions to pass through methods to jdbc methods ==============================
@@ -507,7 +849,7 @@ public class JidbcConnection {
      * one row is updated.
      */
     public void updateOneRow(String sql, Object... parameters) {
-        int count = UpdateStatementExecutor.executeUpdate(jdbcConnection, sql, parameters);
+        int count = UpdateStatementExecutor.executeUpdate(jdbcConnection, statementCache, sql, parameters);
         if (count < 0) {
             throw new NotFoundRuntimeException("Weird error - update returned a negative count of rows updated");
         } else if (count == 0) {
@@ -595,7 +937,7 @@ public class JidbcConnection {
 //============================== Other methods ==============================
 
     public Long takeSequenceNextVal(String sequenceName) {
-        return SequenceHandler.takeSequenceNextVal(jdbcConnection, sequenceName);
+        return SequenceHandler.takeSequenceNextVal(jdbcConnection, statementCache, sequenceName);
     }
 
 
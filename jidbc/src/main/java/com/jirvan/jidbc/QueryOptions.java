@@ -0,0 +1,119 @@
+/*
+
+Copyright (c) 2013, Jirvan Pty Ltd
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+
+    * Redistributions of source code must retain the above copyright notice,
+      this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above copyright notice,
+      this list of conditions and the following disclaimer in the documentation
+      and/or other materials provided with the distribution.
+    * Neither the name of Jirvan Pty Ltd nor the names of its contributors
+      may be used to endorse or promote products derived from this software
+      without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+(INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+*/
+
+package com.jirvan.jidbc;
+
+/**
+ * Statement settings for a query (see JidbcConnection.query(Class, QueryOptions, String,
+ * Object...)).  Settings left at 0 use the driver's defaults.
+ * <p>
+ * A fetch size is what makes a large query stream its rows from the database rather than
+ * having the driver read the whole result set into memory before returning the first
+ * row.  Query statements are always forward only and read only, as streaming requires.
+ * On PostgreSQL rows are only streamed if autocommit is off (which it is for
+ * JidbcConnections that were not created with JidbcConnection.using) and on MySQL a
+ * positive fetch size is passed to the driver as Integer.MIN_VALUE (its row by row
+ * streaming mode).
+ */
+public class QueryOptions {
+
+    private int fetchSize;
+    private int maxRows;
+    private int queryTimeoutSeconds;
+    private int pipelineQueueSize;
+
+    public static QueryOptions withFetchSize(int fetchSize) {
+        return new QueryOptions().fetchSize(fetchSize);
+    }
+
+    /**
+     * Sets the number of rows fetched from the database at a time.
+     */
+    public QueryOptions fetchSize(int fetchSize) {
+        if (fetchSize < 0) {
+            throw new RuntimeException(String.format("Fetch size cannot be negative (it is %d)", fetchSize));
+        }
+        this.fetchSize = fetchSize;
+        return this;
+    }
+
+    /**
+     * Sets the maximum number of rows returned (further rows are silently dropped).
+     */
+    public QueryOptions maxRows(int maxRows) {
+        if (maxRows < 0) {
+            throw new RuntimeException(String.format("Max rows cannot be negative (it is %d)", maxRows));
+        }
+        this.maxRows = maxRows;
+        return this;
+    }
+
+    public QueryOptions queryTimeoutSeconds(int queryTimeoutSeconds) {
+        if (queryTimeoutSeconds < 0) {
+            throw new RuntimeException(String.format("Query timeout cannot be negative (it is %d)", queryTimeoutSeconds));
+        }
+        this.queryTimeoutSeconds = queryTimeoutSeconds;
+        return this;
+    }
+
+    /**
+     * Turns on pipelined results: rows are read from the result set and extracted on a
+     * background thread (a virtual thread where available) into a queue of up to
+     * pipelineQueueSize rows while the caller processes earlier rows, so that database I/O
+     * and row processing overlap.  The background thread blocks while the queue is full.
+     * Any exception it hits is thrown to the caller when it reaches the row concerned.  The
+     * JidbcConnection must not be used for anything else while a pipelined Results is open.
+     * 0 (the default) means rows are read on the caller's thread as they are needed.
+     */
+    public QueryOptions pipelineQueueSize(int pipelineQueueSize) {
+        if (pipelineQueueSize < 0) {
+            throw new RuntimeException(String.format("Pipeline queue size cannot be negative (it is %d)", pipelineQueueSize));
+        }
+        this.pipelineQueueSize = pipelineQueueSize;
+        return this;
+    }
+
+    public int getFetchSize() {
+        return fetchSize;
+    }
+
+    public int getMaxRows() {
+        return maxRows;
+    }
+
+    public int getQueryTimeoutSeconds() {
+        return queryTimeoutSeconds;
+    }
+
+    public int getPipelineQueueSize() {
+        return pipelineQueueSize;
+    }
+
+}
@@ -0,0 +1,204 @@
+/*
+
+Copyright (c) 2013, Jirvan Pty Ltd
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+
+    * Redistributions of source code must retain the above copyright notice,
+      this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above copyright notice,
+      this list of conditions and the following disclaimer in the documentation
+      and/or other materials provided with the distribution.
+    * Neither the name of Jirvan Pty Ltd nor the names of its contributors
+      may be used to endorse or promote products derived from this software
+      without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+(INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+*/
+
+package com.jirvan.jidbc;
+
+import com.jirvan.lang.SQLRuntimeException;
+
+import java.lang.ref.WeakReference;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * An id allocator that takes blocks of ids from a (PostgreSQL) sequence in a single round
+ * trip (select nextval(...) from generate_series(1, blockSize)) and hands them out from
+ * memory.  Blocks are shared by all threads and connections allocating ids from the same
+ * sequence in the same database (identified by the connection's url and user name).
+ * <p>
+ * Ids are handed out in the order they were taken from the sequence, but ids left in a
+ * block when the application stops are never used, and ids may be used out of sequence
+ * order across threads.
+ */
+public class SequenceBlockIdAllocator implements IdAllocator {
+
+    public static final int DEFAULT_BLOCK_SIZE = 50;
+
+    private final int blockSize;
+    private final ConcurrentMap<String, SequenceIdBlocks> idBlocks = new ConcurrentHashMap<String, SequenceIdBlocks>();
+    private final ThreadLocal<SequenceIdBlocksLookup> lastLookup = new ThreadLocal<SequenceIdBlocksLookup>();
+
+    public SequenceBlockIdAllocator() {
+        this(DEFAULT_BLOCK_SIZE);
+    }
+
+    public SequenceBlockIdAllocator(int blockSize) {
+        if (blockSize < 1) {
+            throw new RuntimeException(String.format("Block size must be at least 1 (it is %d)", blockSize));
+        }
+        this.blockSize = blockSize;
+    }
+
+    public int getBlockSize() {
+        return blockSize;
+    }
+
+    public long allocateId(Connection connection, String sequenceName) {
+        SequenceIdBlocks sequenceIdBlocks = getSequenceIdBlocks(connection, sequenceName);
+        while (true) {
+
+            // Take the next id from the current block if there is one left (lock free)
+            IdBlock idBlock = sequenceIdBlocks.currentBlock.get();
+            if (idBlock != null) {
+                int index = idBlock.nextIndex.getAndIncrement();
+                if (index < idBlock.ids.length) {
+                    return idBlock.ids[index];
+                }
+            }
+
+            // Otherwise replace the block (unless another thread already has).  A ReentrantLock
+            // rather than synchronized is used as the refill is a database round trip and a
+            // virtual thread blocked in a synchronized block pins its carrier thread
+            sequenceIdBlocks.refillLock.lock();
+            try {
+                if (sequenceIdBlocks.currentBlock.get() == idBlock) {
+                    sequenceIdBlocks.currentBlock.set(new IdBlock(takeIds(connection, sequenceName)));
+                }
+            } finally {
+                sequenceIdBlocks.refillLock.unlock();
+            }
+
+        }
+    }
+
+    /**
+     * Returns the id blocks for the connection's database and the sequence.  The last ones
+     * found by each thread are remembered (with the connection they were found for), so
+     * consecutive allocations via the same connection and sequence (e.g. for the rows of an
+     * insertAll) don't look up the database's url and user name or build a key each time.
+     */
+    private SequenceIdBlocks getSequenceIdBlocks(Connection connection, String sequenceName) {
+        SequenceIdBlocksLookup lookup = lastLookup.get();
+        if (lookup != null && lookup.connection.get() == connection && lookup.sequenceName.equals(sequenceName)) {
+            return lookup.sequenceIdBlocks;
+        }
+        SequenceIdBlocks sequenceIdBlocks = findSequenceIdBlocks(connection, sequenceName);
+        lastLookup.set(new SequenceIdBlocksLookup(connection, sequenceName, sequenceIdBlocks));
+        return sequenceIdBlocks;
+    }
+
+    private SequenceIdBlocks findSequenceIdBlocks(Connection connection, String sequenceName) {
+        String key;
+        try {
+            DatabaseMetaData metaData = connection.getMetaData();
+            key = String.format("%s|%s|%s", metaData.getURL(), metaData.getUserName(), sequenceName);
+        } catch (SQLException e) {
+            throw new SQLRuntimeException(e);
+        }
+        SequenceIdBlocks sequenceIdBlocks = idBlocks.get(key);
+        if (sequenceIdBlocks == null) {
+            SequenceIdBlocks existingSequenceIdBlocks = idBlocks.putIfAbsent(key, sequenceIdBlocks = new SequenceIdBlocks());
+            if (existingSequenceIdBlocks != null) {
+                sequenceIdBlocks = existingSequenceIdBlocks;
+            }
+        }
+        return sequenceIdBlocks;
+    }
+
+    private long[] takeIds(Connection connection, String sequenceName) {
+        String sql = String.format("select nextval('%s') from generate_series(1, ?)", sequenceName);
+        try {
+            PreparedStatement statement = connection.prepareStatement(sql);
+            try {
+                statement.setInt(1, blockSize);
+                ResultSet resultSet = statement.executeQuery();
+                try {
+                    long[] ids = new long[blockSize];
+                    int count = 0;
+                    while (resultSet.next() && count < blockSize) {
+                        ids[count++] = resultSet.getLong(1);
+                    }
+                    if (count != blockSize) {
+                        throw new RuntimeException(String.format("Unexpected error - only got %d of %d %s ids", count, blockSize, sequenceName));
+                    }
+                    return ids;
+                } finally {
+                    resultSet.close();
+                }
+            } finally {
+                statement.close();
+            }
+        } catch (SQLException e) {
+            Jidbc.logSqlException(e, sql, new Object[]{blockSize});
+            throw new SQLRuntimeException(e);
+        }
+    }
+
+    private static class SequenceIdBlocks {
+
+        private final AtomicReference<IdBlock> currentBlock = new AtomicReference<IdBlock>();
+        private final ReentrantLock refillLock = new ReentrantLock();
+
+    }
+
+    private static class SequenceIdBlocksLookup {
+
+        // Weakly referenced so a thread doesn't keep its last connection reachable
+        private final WeakReference<Connection> connection;
+        private final String sequenceName;
+        private final SequenceIdBlocks sequenceIdBlocks;
+
+        private SequenceIdBlocksLookup(Connection connection, String sequenceName, SequenceIdBlocks sequenceIdBlocks) {
+            this.connection = new WeakReference<Connection>(connection);
+            this.sequenceName = sequenceName;
+            this.sequenceIdBlocks = sequenceIdBlocks;
+        }
+
+    }
+
+    private static class IdBlock {
+
+        private final long[] ids;
+        private final AtomicInteger nextIndex = new AtomicInteger();
+
+        private IdBlock(long[] ids) {
+            this.ids = ids;
+        }
+
+    }
+
+}
@@ -37,4 +37,13 @@ import java.lang.annotation.*;
 
 public @interface TableRow {
     public String tableName() default "<Guessed>";
+
+    /**
+     * If true then inserts always include all of the table's columns (binding nulls for
+     * null attributes) rather than just the columns of non null attributes, so that every
+     * insert into the table uses the same sql.  Columns of attributes annotated with
+     * {@link DatabaseDefault} are still left out when the attribute is null.  Fixed shape
+     * inserts can also be switched on for all tables via Jidbc.setUseFixedShapeInserts.
+     */
+    public boolean fixedShapeInserts() default false;
 }
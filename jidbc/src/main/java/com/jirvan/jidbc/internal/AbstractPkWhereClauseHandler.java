@@ -0,0 +1,157 @@
+/*
+
+Copyright (c) 2013, Jirvan Pty Ltd
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+
+    * Redistributions of source code must retain the above copyright notice,
+      this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above copyright notice,
+      this list of conditions and the following disclaimer in the documentation
+      and/or other materials provided with the distribution.
+    * Neither the name of Jirvan Pty Ltd nor the names of its contributors
+      may be used to endorse or promote products derived from this software
+      without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+(INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+*/
+
+package com.jirvan.jidbc.internal;
+
+import com.jirvan.jidbc.Jidbc;
+import com.jirvan.jidbc.lang.BatchRowCountRuntimeException;
+import com.jirvan.lang.SQLRuntimeException;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+public class AbstractPkWhereClauseHandler {
+
+    protected static void checkHasPkColumns(TableDef tableDef, Object row) {
+        if (tableDef.pkColumnDefs.size() == 0) {
+            throw new RuntimeException(String.format("%s has no Id columns", row.getClass().getName()));
+        }
+    }
+
+    /**
+     * Binds the row's attribute values for the given (cached) parameter column defs to the
+     * statement's parameters (in order).
+     */
+    protected static void bindParameters(PreparedStatement statement, ColumnDef[] parameterColumnDefs, Object row) throws SQLException {
+        for (int i = 0; i < parameterColumnDefs.length; i++) {
+            parameterColumnDefs[i].bindParameter(statement, i + 1, row);
+        }
+    }
+
+    /**
+     * Returns the row's parameter values for the given parameter column defs (only used for
+     * logging failed statements).
+     */
+    protected static Object[] getParameterValues(ColumnDef[] parameterColumnDefs, Object row) {
+        Object[] parameterValues = new Object[parameterColumnDefs.length];
+        for (int i = 0; i < parameterColumnDefs.length; i++) {
+            parameterValues[i] = parameterColumnDefs[i].getParameterValue(row);
+        }
+        return parameterValues;
+    }
+
+    /**
+     * Updates or deletes the rows by primary key using JDBC batches (of up to batchSize
+     * rows).  Consecutive rows for the same table share a batch (and prepared statement).
+     * The update counts of each row are checked once all of the batches have been executed
+     * and if any row was not found or matched more than one row then a
+     * BatchRowCountRuntimeException listing the failed rows is thrown.  Rows reported as
+     * successful without a count (Statement.SUCCESS_NO_INFO) cannot be checked and are
+     * assumed to have succeeded.
+     */
+    protected static void executeBatched(StatementCache statementCache, Iterable<?> rows, int batchSize, boolean isUpdate) {
+        if (batchSize < 1) {
+            throw new RuntimeException(String.format("Batch size must be at least 1 (it is %d)", batchSize));
+        }
+        List<Object> notFoundRows = new ArrayList<Object>();
+        List<Object> multipleRowsRows = new ArrayList<Object>();
+        List<Object> batchRows = new ArrayList<Object>();
+        int rowCount = 0;
+        TableDef batchTableDef = null;
+        String sql = null;
+        PreparedStatement statement = null;
+        try {
+            try {
+                for (Object row : rows) {
+                    rowCount++;
+
+                    // Switch to the statement for the row's table if necessary
+                    TableDef tableDef = TableDef.getTableDefForRowClass(row.getClass());
+                    if (tableDef != batchTableDef) {
+                        if (statement != null) {
+                            executeBatch(statement, batchRows, notFoundRows, multipleRowsRows);
+                            PreparedStatement statementToCheckin = statement;
+                            statement = null;
+                            statementCache.checkin(sql, statementToCheckin);
+                        }
+                        checkHasPkColumns(tableDef, row);
+                        batchTableDef = tableDef;
+                        sql = isUpdate ? tableDef.updateSql : tableDef.deleteSql;
+                        statement = statementCache.checkout(sql);
+                    }
+
+                    // Add the row to the batch, executing the batch if it is full
+                    bindParameters(statement, isUpdate ? tableDef.updateParameterColumnDefs : tableDef.pkParameterColumnDefs, row);
+                    statement.addBatch();
+                    batchRows.add(row);
+                    if (batchRows.size() >= batchSize) {
+                        executeBatch(statement, batchRows, notFoundRows, multipleRowsRows);
+                    }
+
+                }
+                if (statement != null) {
+                    executeBatch(statement, batchRows, notFoundRows, multipleRowsRows);
+                    PreparedStatement statementToCheckin = statement;
+                    statement = null;
+                    statementCache.checkin(sql, statementToCheckin);
+                }
+            } finally {
+                if (statement != null) {
+                    statement.clearBatch();
+                    statementCache.checkin(sql, statement);
+                }
+            }
+        } catch (SQLException e) {
+            Jidbc.logSqlException(e, sql, null);
+            throw new SQLRuntimeException(e);
+        }
+
+        // Report any rows that were not found or matched more than one row
+        if (notFoundRows.size() != 0 || multipleRowsRows.size() != 0) {
+            throw new BatchRowCountRuntimeException(isUpdate ? "Update" : "Delete", rowCount, notFoundRows, multipleRowsRows);
+        }
+
+    }
+
+    private static void executeBatch(PreparedStatement statement, List<Object> batchRows, List<Object> notFoundRows, List<Object> multipleRowsRows) throws SQLException {
+        int[] counts = statement.executeBatch();
+        for (int i = 0; i < counts.length && i < batchRows.size(); i++) {
+            if (counts[i] == 0) {
+                notFoundRows.add(batchRows.get(i));
+            } else if (counts[i] > 1) {
+                multipleRowsRows.add(batchRows.get(i));
+            }
+        }
+        batchRows.clear();
+    }
+
+}
@@ -34,12 +34,20 @@ import java.sql.*;
 
 public class ArrayRowExtractor<T> implements RowExtractor<T> {
 
+    private ResultSet columnCountResultSet;
+    private int columnCount;
+
     public T extractRowFromResultSet(Class rowClass, RowDef tableDef, ResultSet resultSet, final boolean ignoreMissingResultSetColumns) {
         if (ignoreMissingResultSetColumns) throw new RuntimeException("ignoreMissingResultSetColumns is inappropriate for ArrayRowExtractor");
         try {
+
+            // Get the column count once per result set
+            if (resultSet != columnCountResultSet) {
+                columnCount = resultSet.getMetaData().getColumnCount();
+                columnCountResultSet = resultSet;
+            }
+
             // Create and return the row
-            ResultSetMetaData metaData = resultSet.getMetaData();
-            int columnCount = metaData.getColumnCount();
             Object[] row = new Object[columnCount];
             for (int i = 0; i < columnCount; i++) {
                 row[i] = resultSet.getObject(i + 1);
@@ -0,0 +1,360 @@
+/*
+
+Copyright (c) 2013, Jirvan Pty Ltd
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+
+    * Redistributions of source code must retain the above copyright notice,
+      this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above copyright notice,
+      this list of conditions and the following disclaimer in the documentation
+      and/or other materials provided with the distribution.
+    * Neither the name of Jirvan Pty Ltd nor the names of its contributors
+      may be used to endorse or promote products derived from this software
+      without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+(INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+*/
+
+package com.jirvan.jidbc.internal;
+
+import com.jirvan.jidbc.GeneratedRowMapper;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.*;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+
+public class ColumnDef {
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+    private static final MethodHandle GENERATED_GET_VALUE;
+    private static final MethodHandle GENERATED_SET_VALUE;
+    private static final Map<Class<?>, MethodHandle> GENERATED_PRIMITIVE_GETTERS = new HashMap<Class<?>, MethodHandle>();
+    private static final Map<Class<?>, MethodHandle> GENERATED_PRIMITIVE_SETTERS = new HashMap<Class<?>, MethodHandle>();
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            GENERATED_GET_VALUE = lookup.findVirtual(GeneratedRowMapper.class, "getValue", MethodType.methodType(Object.class, Object.class, int.class));
+            GENERATED_SET_VALUE = lookup.findVirtual(GeneratedRowMapper.class, "setValue", MethodType.methodType(void.class, Object.class, int.class, Object.class));
+            for (Class<?> primitiveType : new Class<?>[]{int.class, long.class, double.class, boolean.class}) {
+                String typeName = Character.toUpperCase(primitiveType.getName().charAt(0)) + primitiveType.getName().substring(1);
+                GENERATED_PRIMITIVE_GETTERS.put(primitiveType, lookup.findVirtual(GeneratedRowMapper.class, "get" + typeName, MethodType.methodType(primitiveType, Object.class, int.class)));
+                GENERATED_PRIMITIVE_SETTERS.put(primitiveType, lookup.findVirtual(GeneratedRowMapper.class, "set" + typeName, MethodType.methodType(void.class, Object.class, int.class, primitiveType)));
+            }
+        } catch (NoSuchMethodException e) {
+            throw new ExceptionInInitializerError(e);
+        } catch (IllegalAccessException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    public String attributeName;
+    public Field field;
+    public Class<?> attributeType;
+    public boolean storeAsTimestamp;
+    public Method getterMethod;
+    public Method setterMethod;
+    public String columnName;
+    public boolean isInPk;
+    public boolean nullAsDefault; // only applicable to primitive attributes
+    public boolean hasDatabaseDefault; // only applicable to fixed shape inserts
+
+    // Resolved once (when the row def is built) from the attribute type and storeAsTimestamp
+    ColumnType columnType;
+
+    // Resolved once (when the row def is built) from the getter/setter methods or field
+    private MethodHandle getter;
+    private MethodHandle setter;
+    private MethodHandle primitiveGetter; // (Object)int, (Object)long etc for primitive attributes
+    private MethodHandle primitiveSetter; // (Object,int)void, (Object,long)void etc for primitive attributes
+
+    /**
+     * Resolves the getter and setter method handles used by getValue and setValue.  This
+     * must be called once the getterMethod, setterMethod and field have been finalized.  If
+     * a handle cannot be created (static or final fields, inaccessible members etc) then
+     * the corresponding reflective path is used instead, so behaviour (including any
+     * access errors) is the same as it would have been without the handles.
+     */
+    void resolveAccessors() {
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        try {
+            if (getterMethod != null) {
+                getter = lookup.unreflect(getterMethod);
+            } else if (field != null && !Modifier.isStatic(field.getModifiers())) {
+                getter = lookup.unreflectGetter(field);
+            }
+        } catch (IllegalAccessException e) {
+            getter = null;
+        }
+        try {
+            if (setterMethod != null) {
+                setter = lookup.unreflect(setterMethod);
+            } else if (field != null && !Modifier.isStatic(field.getModifiers()) && !Modifier.isFinal(field.getModifiers())) {
+                setter = lookup.unreflectSetter(field);
+            }
+        } catch (IllegalAccessException e) {
+            setter = null;
+        }
+        adaptAccessors();
+    }
+
+    /**
+     * Resolves the getter and setter method handles to the getValue and setValue methods of
+     * a generated row mapper (for the given column index) and, for primitive attributes, the
+     * primitive getter and setter to its typed accessors (getInt, setInt etc).
+     */
+    void resolveAccessors(GeneratedRowMapper generatedRowMapper, int columnIndex) {
+        getter = MethodHandles.insertArguments(GENERATED_GET_VALUE.bindTo(generatedRowMapper), 1, columnIndex);
+        setter = MethodHandles.insertArguments(GENERATED_SET_VALUE.bindTo(generatedRowMapper), 1, columnIndex);
+        if (GENERATED_PRIMITIVE_GETTERS.containsKey(attributeType)) {
+            primitiveGetter = MethodHandles.insertArguments(GENERATED_PRIMITIVE_GETTERS.get(attributeType).bindTo(generatedRowMapper), 1, columnIndex);
+            primitiveSetter = MethodHandles.insertArguments(GENERATED_PRIMITIVE_SETTERS.get(attributeType).bindTo(generatedRowMapper), 1, columnIndex);
+        }
+        adaptAccessors();
+    }
+
+    /**
+     * Adapts the resolved getter and setter to the generic (boxed) types used by getValue and
+     * setValue and, for primitive attributes (unless the primitive getter and setter have
+     * already been resolved), to the primitive types used by getInt, setInt etc (which for
+     * field and getter/setter based attributes involve no boxing at all).
+     */
+    private void adaptAccessors() {
+        if (getter != null) {
+            if (attributeType.isPrimitive() && primitiveGetter == null) {
+                primitiveGetter = getter.asType(MethodType.methodType(attributeType, Object.class));
+            }
+            getter = getter.asType(GETTER_TYPE);
+        }
+        if (setter != null) {
+            if (attributeType.isPrimitive() && primitiveSetter == null) {
+                primitiveSetter = setter.asType(MethodType.methodType(void.class, Object.class, attributeType));
+            }
+            setter = setter.asType(SETTER_TYPE);
+        }
+    }
+
+    public Object getValue(Object object) {
+        if (getter != null) {
+            try {
+                return (Object) getter.invokeExact(object);
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Error e) {
+                throw e;
+            } catch (Throwable t) {
+                throw new RuntimeException(t);
+            }
+        }
+        try {
+            if (getterMethod != null) {
+                return getterMethod.invoke(object);
+            } else {
+                return field.get(object);
+            }
+        } catch (InvocationTargetException e) {
+            throw new RuntimeException(e);
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Returns the attribute value of the row converted to the value to be set as a statement
+     * parameter (e.g. a Timestamp for a @StoreAsTimestamp LocalDate).
+     */
+    public Object getParameterValue(Object row) {
+        Object value = getValue(row);
+        return value == null ? null : columnType.toParameterValue(value);
+    }
+
+    public void setValue(Object object, Object value) {
+        if (setter != null) {
+            try {
+                setter.invokeExact(object, value);
+                return;
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Error e) {
+                throw e;
+            } catch (Throwable t) {
+                throw new RuntimeException(t);
+            }
+        }
+        if (setterMethod == null && field == null) {
+            throw new RuntimeException(String.format("Attribute %s of %s cannot be set as it has no setter or public field (rows of the class are created via its constructor)", attributeName, object.getClass().getName()));
+        }
+        try {
+            if (setterMethod != null) {
+                setterMethod.invoke(object, value);
+            } else {
+                field.set(object, value);
+            }
+        } catch (InvocationTargetException e) {
+            throw new RuntimeException(e);
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException(e);
+        }
+
+    }
+
+    /**
+     * Returns true if the row's attribute value is null (which it never is for primitive
+     * attributes, in which case the value is not boxed to find out).
+     */
+    public boolean isNull(Object row) {
+        return !attributeType.isPrimitive() && getValue(row) == null;
+    }
+
+    /**
+     * Binds the row's attribute value to a statement parameter.  Primitive attributes are
+     * bound with the corresponding primitive setter (setInt, setLong etc) without boxing.
+     */
+    public void bindParameter(PreparedStatement statement, int parameterIndex, Object row) throws SQLException {
+        columnType.bind(statement, parameterIndex, this, row);
+    }
+
+    public int getInt(Object row) {
+        if (primitiveGetter != null) {
+            try {
+                return (int) primitiveGetter.invokeExact(row);
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Error e) {
+                throw e;
+            } catch (Throwable t) {
+                throw new RuntimeException(t);
+            }
+        }
+        return (Integer) getValue(row);
+    }
+
+    public void setInt(Object row, int value) {
+        if (primitiveSetter != null) {
+            try {
+                primitiveSetter.invokeExact(row, value);
+                return;
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Error e) {
+                throw e;
+            } catch (Throwable t) {
+                throw new RuntimeException(t);
+            }
+        }
+        setValue(row, value);
+    }
+
+    public long getLong(Object row) {
+        if (primitiveGetter != null) {
+            try {
+                return (long) primitiveGetter.invokeExact(row);
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Error e) {
+                throw e;
+            } catch (Throwable t) {
+                throw new RuntimeException(t);
+            }
+        }
+        return (Long) getValue(row);
+    }
+
+    public void setLong(Object row, long value) {
+        if (primitiveSetter != null) {
+            try {
+                primitiveSetter.invokeExact(row, value);
+                return;
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Error e) {
+                throw e;
+            } catch (Throwable t) {
+                throw new RuntimeException(t);
+            }
+        }
+        setValue(row, value);
+    }
+
+    public double getDouble(Object row) {
+        if (primitiveGetter != null) {
+            try {
+                return (double) primitiveGetter.invokeExact(row);
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Error e) {
+                throw e;
+            } catch (Throwable t) {
+                throw new RuntimeException(t);
+            }
+        }
+        return (Double) getValue(row);
+    }
+
+    public void setDouble(Object row, double value) {
+        if (primitiveSetter != null) {
+            try {
+                primitiveSetter.invokeExact(row, value);
+                return;
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Error e) {
+                throw e;
+            } catch (Throwable t) {
+                throw new RuntimeException(t);
+            }
+        }
+        setValue(row, value);
+    }
+
+    public boolean getBoolean(Object row) {
+        if (primitiveGetter != null) {
+            try {
+                return (boolean) primitiveGetter.invokeExact(row);
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Error e) {
+                throw e;
+            } catch (Throwable t) {
+                throw new RuntimeException(t);
+            }
+        }
+        return (Boolean) getValue(row);
+    }
+
+    public void setBoolean(Object row, boolean value) {
+        if (primitiveSetter != null) {
+            try {
+                primitiveSetter.invokeExact(row, value);
+                return;
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Error e) {
+                throw e;
+            } catch (Throwable t) {
+                throw new RuntimeException(t);
+            }
+        }
+        setValue(row, value);
+    }
+
+}
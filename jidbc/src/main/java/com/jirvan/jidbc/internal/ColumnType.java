@@ -0,0 +1,523 @@
+/*
+
+Copyright (c) 2013, Jirvan Pty Ltd
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+
+    * Redistributions of source code must retain the above copyright notice,
+      this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above copyright notice,
+      this list of conditions and the following disclaimer in the documentation
+      and/or other materials provided with the distribution.
+    * Neither the name of Jirvan Pty Ltd nor the names of its contributors
+      may be used to endorse or promote products derived from this software
+      without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+(INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+*/
+
+package com.jirvan.jidbc.internal;
+
+import com.jirvan.dates.Day;
+import com.jirvan.dates.Hour;
+import com.jirvan.dates.Millisecond;
+import com.jirvan.dates.Minute;
+import com.jirvan.dates.Month;
+import com.jirvan.dates.Second;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Date;
+
+import static com.jirvan.jidbc.internal.JidbcInternalUtils.*;
+
+/**
+ * The handling of a particular attribute type: how its column value is read from a result
+ * set (by column index) and how its value is converted to a statement parameter value.
+ * The column type of a column def is resolved once (when its row def is built) so reading
+ * and binding a value involves no per value type dispatch or allocation other than for any
+ * converted value itself.
+ */
+enum ColumnType {
+
+    STRING(Types.VARCHAR) {
+        Object read(ResultSet resultSet, int columnIndex, ColumnDef columnDef) throws SQLException {
+            return resultSet.getString(columnIndex);
+        }
+    },
+
+    INTEGER(Types.INTEGER) {
+        Object read(ResultSet resultSet, int columnIndex, ColumnDef columnDef) throws SQLException {
+            int value = resultSet.getInt(columnIndex);
+            return resultSet.wasNull() ? null : value;
+        }
+    },
+
+    LONG(Types.BIGINT) {
+        Object read(ResultSet resultSet, int columnIndex, ColumnDef columnDef) throws SQLException {
+            long value = resultSet.getLong(columnIndex);
+            return resultSet.wasNull() ? null : value;
+        }
+    },
+
+    DOUBLE(Types.DOUBLE) {
+        Object read(ResultSet resultSet, int columnIndex, ColumnDef columnDef) throws SQLException {
+            double value = resultSet.getDouble(columnIndex);
+            return resultSet.wasNull() ? null : value;
+        }
+    },
+
+    BOOLEAN(Types.BOOLEAN) {
+        Object read(ResultSet resultSet, int columnIndex, ColumnDef columnDef) throws SQLException {
+            boolean value = resultSet.getBoolean(columnIndex);
+            return resultSet.wasNull() ? null : value;
+        }
+    },
+
+    PRIMITIVE_INT(Types.INTEGER) {
+        Object read(ResultSet resultSet, int columnIndex, ColumnDef columnDef) throws SQLException {
+            int value = resultSet.getInt(columnIndex);
+            if (resultSet.wasNull()) checkNullAllowed(columnDef);
+            return value;
+        }
+
+        void readInto(ResultSet resultSet, int columnIndex, ColumnDef columnDef, Object row) throws SQLException {
+            int value = resultSet.getInt(columnIndex);
+            if (resultSet.wasNull()) checkNullAllowed(columnDef);
+            columnDef.setInt(row, value);
+        }
+
+        void bind(PreparedStatement statement, int parameterIndex, ColumnDef columnDef, Object row) throws SQLException {
+            statement.setInt(parameterIndex, columnDef.getInt(row));
+        }
+
+        Object defaultValue() {
+            return 0;
+        }
+    },
+
+    PRIMITIVE_LONG(Types.BIGINT) {
+        Object read(ResultSet resultSet, int columnIndex, ColumnDef columnDef) throws SQLException {
+            long value = resultSet.getLong(columnIndex);
+            if (resultSet.wasNull()) checkNullAllowed(columnDef);
+            return value;
+        }
+
+        void readInto(ResultSet resultSet, int columnIndex, ColumnDef columnDef, Object row) throws SQLException {
+            long value = resultSet.getLong(columnIndex);
+            if (resultSet.wasNull()) checkNullAllowed(columnDef);
+            columnDef.setLong(row, value);
+        }
+
+        void bind(PreparedStatement statement, int parameterIndex, ColumnDef columnDef, Object row) throws SQLException {
+            statement.setLong(parameterIndex, columnDef.getLong(row));
+        }
+
+        Object defaultValue() {
+            return 0L;
+        }
+    },
+
+    PRIMITIVE_DOUBLE(Types.DOUBLE) {
+        Object read(ResultSet resultSet, int columnIndex, ColumnDef columnDef) throws SQLException {
+            double value = resultSet.getDouble(columnIndex);
+            if (resultSet.wasNull()) checkNullAllowed(columnDef);
+            return value;
+        }
+
+        void readInto(ResultSet resultSet, int columnIndex, ColumnDef columnDef, Object row) throws SQLException {
+            double value = resultSet.getDouble(columnIndex);
+            if (resultSet.wasNull()) checkNullAllowed(columnDef);
+            columnDef.setDouble(row, value);
+        }
+
+        void bind(PreparedStatement statement, int parameterIndex, ColumnDef columnDef, Object row) throws SQLException {
+            statement.setDouble(parameterIndex, columnDef.getDouble(row));
+        }
+
+        Object defaultValue() {
+            return 0d;
+        }
+    },
+
+    PRIMITIVE_BOOLEAN(Types.BOOLEAN) {
+        Object read(ResultSet resultSet, int columnIndex, ColumnDef columnDef) throws SQLException {
+            boolean value = resultSet.getBoolean(columnIndex);
+            if (resultSet.wasNull()) checkNullAllowed(columnDef);
+            return value;
+        }
+
+        void readInto(ResultSet resultSet, int columnIndex, ColumnDef columnDef, Object row) throws SQLException {
+            boolean value = resultSet.getBoolean(columnIndex);
+            if (resultSet.wasNull()) checkNullAllowed(columnDef);
+            columnDef.setBoolean(row, value);
+        }
+
+        void bind(PreparedStatement statement, int parameterIndex, ColumnDef columnDef, Object row) throws SQLException {
+            statement.setBoolean(parameterIndex, columnDef.getBoolean(row));
+        }
+
+        Object defaultValue() {
+            return false;
+        }
+    },
+
+    BIG_DECIMAL(Types.NUMERIC) {
+        Object read(ResultSet resultSet, int columnIndex, ColumnDef columnDef) throws SQLException {
+            return resultSet.getBigDecimal(columnIndex);
+        }
+    },
+
+    DATE(Types.TIMESTAMP) {
+        Object read(ResultSet resultSet, int columnIndex, ColumnDef columnDef) throws SQLException {
+            Timestamp value = resultSet.getTimestamp(columnIndex);
+            return value == null ? null : new Date(value.getTime());
+        }
+
+        Object toParameterValue(Object value) {
+            return new Timestamp(((Date) value).getTime());
+        }
+    },
+
+    MONTH(Types.VARCHAR) {
+        Object read(ResultSet resultSet, int columnIndex, ColumnDef columnDef) throws SQLException {
+            String value = resultSet.getString(columnIndex);
+            return value == null ? null : Month.fromString(value);
+        }
+
+        Object toParameterValue(Object value) {
+            return value.toString();
+        }
+    },
+
+    DAY(Types.VARCHAR) {
+        Object read(ResultSet resultSet, int columnIndex, ColumnDef columnDef) throws SQLException {
+            String value = resultSet.getString(columnIndex);
+            return value == null ? null : Day.fromString(value);
+        }
+
+        Object toParameterValue(Object value) {
+            return value.toString();
+        }
+    },
+
+    DAY_FROM_TIMESTAMP(Types.TIMESTAMP) {
+        Object read(ResultSet resultSet, int columnIndex, ColumnDef columnDef) throws SQLException {
+            Timestamp value = resultSet.getTimestamp(columnIndex);
+            return value == null ? null : Day.from(new Date(value.getTime()));
+        }
+
+        Object toParameterValue(Object value) {
+            return new Timestamp(((Day) value).getDate().getTime());
+        }
+    },
+
+    LOCAL_DATE(Types.VARCHAR) {
+        Object read(ResultSet resultSet, int columnIndex, ColumnDef columnDef) throws SQLException {
+            String value = resultSet.getString(columnIndex);
+            return value == null ? null : LocalDate.parse(value);
+        }
+
+        Object toParameterValue(Object value) {
+            return value.toString();
+        }
+    },
+
+    LOCAL_DATE_FROM_TIMESTAMP(Types.TIMESTAMP) {
+        Object read(ResultSet resultSet, int columnIndex, ColumnDef columnDef) throws SQLException {
+            Timestamp value = resultSet.getTimestamp(columnIndex);
+            return value == null ? null : value.toLocalDateTime().toLocalDate();
+        }
+
+        Object toParameterValue(Object value) {
+            return Timestamp.valueOf(((LocalDate) value).atStartOfDay());
+        }
+    },
+
+    LOCAL_DATE_TIME(Types.VARCHAR) {
+        Object read(ResultSet resultSet, int columnIndex, ColumnDef columnDef) throws SQLException {
+            String value = resultSet.getString(columnIndex);
+            return value == null ? null : LocalDateTime.parse(value);
+        }
+
+        Object toParameterValue(Object value) {
+            return value.toString();
+        }
+    },
+
+    LOCAL_DATE_TIME_FROM_TIMESTAMP(Types.TIMESTAMP) {
+        Object read(ResultSet resultSet, int columnIndex, ColumnDef columnDef) throws SQLException {
+            Timestamp value = resultSet.getTimestamp(columnIndex);
+            return value == null ? null : value.toLocalDateTime();
+        }
+
+        Object toParameterValue(Object value) {
+            return Timestamp.valueOf((LocalDateTime) value);
+        }
+    },
+
+    HOUR(Types.VARCHAR) {
+        Object read(ResultSet resultSet, int columnIndex, ColumnDef columnDef) throws SQLException {
+            String value = resultSet.getString(columnIndex);
+            return value == null ? null : Hour.fromString(value);
+        }
+
+        Object toParameterValue(Object value) {
+            return value.toString();
+        }
+    },
+
+    HOUR_FROM_TIMESTAMP(Types.TIMESTAMP) {
+        Object read(ResultSet resultSet, int columnIndex, ColumnDef columnDef) throws SQLException {
+            Timestamp value = resultSet.getTimestamp(columnIndex);
+            return value == null ? null : Hour.from(new Date(value.getTime()));
+        }
+
+        Object toParameterValue(Object value) {
+            return new Timestamp(((Hour) value).getDate().getTime());
+        }
+    },
+
+    MINUTE(Types.VARCHAR) {
+        Object read(ResultSet resultSet, int columnIndex, ColumnDef columnDef) throws SQLException {
+            String value = resultSet.getString(columnIndex);
+            return value == null ? null : Minute.fromString(value);
+        }
+
+        Object toParameterValue(Object value) {
+            return value.toString();
+        }
+    },
+
+    MINUTE_FROM_TIMESTAMP(Types.TIMESTAMP) {
+        Object read(ResultSet resultSet, int columnIndex, ColumnDef columnDef) throws SQLException {
+            Timestamp value = resultSet.getTimestamp(columnIndex);
+            return value == null ? null : Minute.from(new Date(value.getTime()));
+        }
+
+        Object toParameterValue(Object value) {
+            return new Timestamp(((Minute) value).getDate().getTime());
+        }
+    },
+
+    SECOND(Types.VARCHAR) {
+        Object read(ResultSet resultSet, int columnIndex, ColumnDef columnDef) throws SQLException {
+            String value = resultSet.getString(columnIndex);
+            return value == null ? null : Second.fromString(value);
+        }
+
+        Object toParameterValue(Object value) {
+            return value.toString();
+        }
+    },
+
+    SECOND_FROM_TIMESTAMP(Types.TIMESTAMP) {
+        Object read(ResultSet resultSet, int columnIndex, ColumnDef columnDef) throws SQLException {
+            Timestamp value = resultSet.getTimestamp(columnIndex);
+            return value == null ? null : Second.from(new Date(value.getTime()));
+        }
+
+        Object toParameterValue(Object value) {
+            return new Timestamp(((Second) value).getDate().getTime());
+        }
+    },
+
+    MILLISECOND(Types.VARCHAR) {
+        Object read(ResultSet resultSet, int columnIndex, ColumnDef columnDef) throws SQLException {
+            String value = resultSet.getString(columnIndex);
+            return value == null ? null : Millisecond.fromString(value);
+        }
+
+        Object toParameterValue(Object value) {
+            return value.toString();
+        }
+    },
+
+    MILLISECOND_FROM_TIMESTAMP(Types.TIMESTAMP) {
+        Object read(ResultSet resultSet, int columnIndex, ColumnDef columnDef) throws SQLException {
+            Timestamp value = resultSet.getTimestamp(columnIndex);
+            return value == null ? null : Millisecond.from(new Date(value.getTime()));
+        }
+
+        Object toParameterValue(Object value) {
+            return new Timestamp(((Millisecond) value).getDate().getTime());
+        }
+    },
+
+    ZONED_DATE_TIME(Types.VARCHAR) {
+        Object read(ResultSet resultSet, int columnIndex, ColumnDef columnDef) throws SQLException {
+            String value = resultSet.getString(columnIndex);
+            return value == null ? null : ZonedDateTime.parse(value);
+        }
+
+        Object toParameterValue(Object value) {
+            return value.toString();
+        }
+    },
+
+    ZONED_DATE_TIME_FROM_TIMESTAMP(Types.TIMESTAMP) {
+        Object read(ResultSet resultSet, int columnIndex, ColumnDef columnDef) throws SQLException {
+            Timestamp value = resultSet.getTimestamp(columnIndex);
+            return value == null ? null : ZonedDateTime.ofInstant(value.toInstant(), ZoneId.systemDefault());
+        }
+
+        Object toParameterValue(Object value) {
+            return new Timestamp(((ZonedDateTime) value).toInstant().getEpochSecond() * 1000L);
+        }
+    },
+
+    ENUM(Types.VARCHAR) {
+        Object read(ResultSet resultSet, int columnIndex, ColumnDef columnDef) throws SQLException {
+            String value = resultSet.getString(columnIndex);
+            return value == null ? null : Enum.valueOf((Class) columnDef.attributeType, value);
+        }
+
+        Object toParameterValue(Object value) {
+            return ((Enum) value).name();
+        }
+    },
+
+    BYTE_ARRAY(Types.VARBINARY) {
+        Object read(ResultSet resultSet, int columnIndex, ColumnDef columnDef) throws SQLException {
+            return resultSet.getBytes(columnIndex);
+        }
+    };
+
+    final int sqlType; // the java.sql.Types type of the bound parameter value (used when binding nulls)
+
+    ColumnType(int sqlType) {
+        this.sqlType = sqlType;
+    }
+
+    abstract Object read(ResultSet resultSet, int columnIndex, ColumnDef columnDef) throws SQLException;
+
+    /**
+     * Reads the column value into the row's attribute.  Primitive column types override this
+     * to read and set the value without boxing it.
+     */
+    void readInto(ResultSet resultSet, int columnIndex, ColumnDef columnDef, Object row) throws SQLException {
+        columnDef.setValue(row, read(resultSet, columnIndex, columnDef));
+    }
+
+    /**
+     * Returns the value given to a constructor parameter of this type for which there is no
+     * column (null except for primitives).
+     */
+    Object defaultValue() {
+        return null;
+    }
+
+    /**
+     * Converts a (non null) attribute value to the value to be set as a statement parameter.
+     */
+    Object toParameterValue(Object value) {
+        return value;
+    }
+
+    /**
+     * Binds the row's attribute value to a statement parameter (nulls are bound as typed
+     * nulls of the column type's sqlType).  Primitive column types override this to get and
+     * bind the value without boxing it.
+     */
+    void bind(PreparedStatement statement, int parameterIndex, ColumnDef columnDef, Object row) throws SQLException {
+        Object value = columnDef.getValue(row);
+        if (value == null) {
+            statement.setNull(parameterIndex, sqlType);
+        } else {
+            setObject(statement, parameterIndex, toParameterValue(value));
+        }
+    }
+
+    private static void checkNullAllowed(ColumnDef columnDef) {
+        if (!columnDef.nullAsDefault) {
+            throw new RuntimeException(String.format("Column %s is null but attribute %s is a primitive %s (annotate it with @NullAsDefault if nulls are to be read as the %s default value)",
+                                                     columnDef.columnName,
+                                                     columnDef.attributeName,
+                                                     columnDef.attributeType.getName(),
+                                                     columnDef.attributeType.getName()));
+        }
+    }
+
+    /**
+     * Returns the column type for the column def or null if the column def's attribute type
+     * is not supported.
+     */
+    static ColumnType forColumnDef(ColumnDef columnDef) {
+        return forAttributeType(columnDef.attributeType, columnDef.storeAsTimestamp);
+    }
+
+    /**
+     * Returns the column type for the attribute type or null if the attribute type is not
+     * supported.
+     */
+    static ColumnType forAttributeType(Class type, boolean fromTimestamp) {
+        if (type == String.class) {
+            return STRING;
+        } else if (type == Integer.class) {
+            return INTEGER;
+        } else if (type == int.class) {
+            return PRIMITIVE_INT;
+        } else if (type == Long.class) {
+            return LONG;
+        } else if (type == long.class) {
+            return PRIMITIVE_LONG;
+        } else if (type == Double.class) {
+            return DOUBLE;
+        } else if (type == double.class) {
+            return PRIMITIVE_DOUBLE;
+        } else if (type == BigDecimal.class) {
+            return BIG_DECIMAL;
+        } else if (type == Boolean.class) {
+            return BOOLEAN;
+        } else if (type == boolean.class) {
+            return PRIMITIVE_BOOLEAN;
+        } else if (type == Date.class) {
+            return DATE;
+        } else if (type == ZonedDateTime.class) {
+            return fromTimestamp ? ZONED_DATE_TIME_FROM_TIMESTAMP : ZONED_DATE_TIME;
+        } else if (type == Month.class) {
+            return MONTH;
+        } else if (type == Day.class) {
+            return fromTimestamp ? DAY_FROM_TIMESTAMP : DAY;
+        } else if (type == LocalDate.class) {
+            return fromTimestamp ? LOCAL_DATE_FROM_TIMESTAMP : LOCAL_DATE;
+        } else if (type == LocalDateTime.class) {
+            return fromTimestamp ? LOCAL_DATE_TIME_FROM_TIMESTAMP : LOCAL_DATE_TIME;
+        } else if (type == Hour.class) {
+            return fromTimestamp ? HOUR_FROM_TIMESTAMP : HOUR;
+        } else if (type == Minute.class) {
+            return fromTimestamp ? MINUTE_FROM_TIMESTAMP : MINUTE;
+        } else if (type == Second.class) {
+            return fromTimestamp ? SECOND_FROM_TIMESTAMP : SECOND;
+        } else if (type == Millisecond.class) {
+            return fromTimestamp ? MILLISECOND_FROM_TIMESTAMP : MILLISECOND;
+        } else if (type.isEnum()) {
+            return ENUM;
+        } else if (type == byte[].class) {
+            return BYTE_ARRAY;
+        } else {
+            return null;
+        }
+    }
+
+}
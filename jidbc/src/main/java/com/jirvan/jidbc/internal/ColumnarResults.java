@@ -0,0 +1,452 @@
+/*
+
+Copyright (c) 2013, Jirvan Pty Ltd
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+
+    * Redistributions of source code must retain the above copyright notice,
+      this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above copyright notice,
+      this list of conditions and the following disclaimer in the documentation
+      and/or other materials provided with the distribution.
+    * Neither the name of Jirvan Pty Ltd nor the names of its contributors
+      may be used to endorse or promote products derived from this software
+      without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+(INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+*/
+
+package com.jirvan.jidbc.internal;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Query results held by column rather than by row.  Each column is typed from the result
+ * set metadata and filled using the matching primitive ResultSet getter, so numeric cells
+ * are not boxed:
+ * <ul>
+ * <li>BIGINT columns are held in a long[] (LongColumn)</li>
+ * <li>INTEGER, SMALLINT and TINYINT columns in an int[] (IntColumn)</li>
+ * <li>DOUBLE, FLOAT and REAL columns in a double[] (DoubleColumn)</li>
+ * <li>NUMERIC and DECIMAL columns in a BigDecimal[] (BigDecimalColumn)</li>
+ * <li>CHAR and VARCHAR columns as dictionary codes in an int[] (StringColumn)</li>
+ * <li>anything else in an Object[] (ObjectColumn)</li>
+ * </ul>
+ * Nulls in primitive columns are recorded in a null bitmap (their array value is 0).
+ */
+public class ColumnarResults {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final Column[] columns;
+    private int rowCount;
+
+    private ColumnarResults(Column[] columns) {
+        this.columns = columns;
+    }
+
+    /**
+     * Reads all of the result set's (remaining) rows.
+     */
+    static ColumnarResults read(ResultSet resultSet) throws SQLException {
+        ResultSetMetaData metaData = resultSet.getMetaData();
+        Column[] columns = new Column[metaData.getColumnCount()];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = createColumn(metaData.getColumnLabel(i + 1), metaData.getColumnType(i + 1));
+        }
+        ColumnarResults columnarResults = new ColumnarResults(columns);
+        while (resultSet.next()) {
+            int row = columnarResults.rowCount++;
+            for (int i = 0; i < columns.length; i++) {
+                columns[i].read(resultSet, i + 1, row);
+            }
+        }
+        for (Column column : columns) {
+            column.trimToSize(columnarResults.rowCount);
+        }
+        return columnarResults;
+    }
+
+    private static Column createColumn(String name, int sqlType) {
+        switch (sqlType) {
+            case Types.BIGINT:
+                return new LongColumn(name);
+            case Types.INTEGER:
+            case Types.SMALLINT:
+            case Types.TINYINT:
+                return new IntColumn(name);
+            case Types.DOUBLE:
+            case Types.FLOAT:
+            case Types.REAL:
+                return new DoubleColumn(name);
+            case Types.NUMERIC:
+            case Types.DECIMAL:
+                return new BigDecimalColumn(name);
+            case Types.CHAR:
+            case Types.VARCHAR:
+            case Types.LONGVARCHAR:
+            case Types.NCHAR:
+            case Types.NVARCHAR:
+            case Types.LONGNVARCHAR:
+                return new StringColumn(name);
+            default:
+                return new ObjectColumn(name);
+        }
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    public int getColumnCount() {
+        return columns.length;
+    }
+
+    public String[] getColumnNames() {
+        String[] columnNames = new String[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            columnNames[i] = columns[i].name;
+        }
+        return columnNames;
+    }
+
+    /**
+     * Returns the column at the given (zero based) index.
+     */
+    public Column getColumn(int index) {
+        return columns[index];
+    }
+
+    /**
+     * Returns the column with the given name (case insensitive).
+     */
+    public Column getColumn(String name) {
+        for (Column column : columns) {
+            if (column.name.equals(name)) return column;
+        }
+        for (Column column : columns) {
+            if (column.name.equalsIgnoreCase(name)) return column;
+        }
+        throw new RuntimeException(String.format("There is no %s column", name));
+    }
+
+    public LongColumn getLongColumn(String name) {
+        return getColumn(name, LongColumn.class);
+    }
+
+    public IntColumn getIntColumn(String name) {
+        return getColumn(name, IntColumn.class);
+    }
+
+    public DoubleColumn getDoubleColumn(String name) {
+        return getColumn(name, DoubleColumn.class);
+    }
+
+    public BigDecimalColumn getBigDecimalColumn(String name) {
+        return getColumn(name, BigDecimalColumn.class);
+    }
+
+    public StringColumn getStringColumn(String name) {
+        return getColumn(name, StringColumn.class);
+    }
+
+    public ObjectColumn getObjectColumn(String name) {
+        return getColumn(name, ObjectColumn.class);
+    }
+
+    private <C extends Column> C getColumn(String name, Class<C> columnClass) {
+        Column column = getColumn(name);
+        if (!columnClass.isInstance(column)) {
+            throw new RuntimeException(String.format("Column %s is a %s not a %s", name, column.getClass().getSimpleName(), columnClass.getSimpleName()));
+        }
+        return (C) column;
+    }
+
+    public static abstract class Column {
+
+        final String name;
+        final BitSet nulls = new BitSet();
+
+        Column(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public boolean isNull(int row) {
+            return nulls.get(row);
+        }
+
+        /**
+         * Returns the (boxed) value of the given row, or null if it is null.
+         */
+        public abstract Object getValue(int row);
+
+        abstract void read(ResultSet resultSet, int columnIndex, int row) throws SQLException;
+
+        abstract void trimToSize(int rowCount);
+
+    }
+
+    public static class LongColumn extends Column {
+
+        private long[] values = new long[INITIAL_CAPACITY];
+
+        LongColumn(String name) {
+            super(name);
+        }
+
+        public long get(int row) {
+            return values[row];
+        }
+
+        /**
+         * Returns the column's values (with nulls as 0).  The array is not copied.
+         */
+        public long[] getValues() {
+            return values;
+        }
+
+        public Object getValue(int row) {
+            return nulls.get(row) ? null : values[row];
+        }
+
+        void read(ResultSet resultSet, int columnIndex, int row) throws SQLException {
+            if (row >= values.length) values = Arrays.copyOf(values, values.length * 2);
+            values[row] = resultSet.getLong(columnIndex);
+            if (resultSet.wasNull()) nulls.set(row);
+        }
+
+        void trimToSize(int rowCount) {
+            values = Arrays.copyOf(values, rowCount);
+        }
+
+    }
+
+    public static class IntColumn extends Column {
+
+        private int[] values = new int[INITIAL_CAPACITY];
+
+        IntColumn(String name) {
+            super(name);
+        }
+
+        public int get(int row) {
+            return values[row];
+        }
+
+        /**
+         * Returns the column's values (with nulls as 0).  The array is not copied.
+         */
+        public int[] getValues() {
+            return values;
+        }
+
+        public Object getValue(int row) {
+            return nulls.get(row) ? null : values[row];
+        }
+
+        void read(ResultSet resultSet, int columnIndex, int row) throws SQLException {
+            if (row >= values.length) values = Arrays.copyOf(values, values.length * 2);
+            values[row] = resultSet.getInt(columnIndex);
+            if (resultSet.wasNull()) nulls.set(row);
+        }
+
+        void trimToSize(int rowCount) {
+            values = Arrays.copyOf(values, rowCount);
+        }
+
+    }
+
+    public static class DoubleColumn extends Column {
+
+        private double[] values = new double[INITIAL_CAPACITY];
+
+        DoubleColumn(String name) {
+            super(name);
+        }
+
+        public double get(int row) {
+            return values[row];
+        }
+
+        /**
+         * Returns the column's values (with nulls as 0).  The array is not copied.
+         */
+        public double[] getValues() {
+            return values;
+        }
+
+        public Object getValue(int row) {
+            return nulls.get(row) ? null : values[row];
+        }
+
+        void read(ResultSet resultSet, int columnIndex, int row) throws SQLException {
+            if (row >= values.length) values = Arrays.copyOf(values, values.length * 2);
+            values[row] = resultSet.getDouble(columnIndex);
+            if (resultSet.wasNull()) nulls.set(row);
+        }
+
+        void trimToSize(int rowCount) {
+            values = Arrays.copyOf(values, rowCount);
+        }
+
+    }
+
+    public static class BigDecimalColumn extends Column {
+
+        private BigDecimal[] values = new BigDecimal[INITIAL_CAPACITY];
+
+        BigDecimalColumn(String name) {
+            super(name);
+        }
+
+        public BigDecimal get(int row) {
+            return values[row];
+        }
+
+        /**
+         * Returns the column's values.  The array is not copied.
+         */
+        public BigDecimal[] getValues() {
+            return values;
+        }
+
+        public Object getValue(int row) {
+            return values[row];
+        }
+
+        void read(ResultSet resultSet, int columnIndex, int row) throws SQLException {
+            if (row >= values.length) values = Arrays.copyOf(values, values.length * 2);
+            values[row] = resultSet.getBigDecimal(columnIndex);
+            if (values[row] == null) nulls.set(row);
+        }
+
+        void trimToSize(int rowCount) {
+            values = Arrays.copyOf(values, rowCount);
+        }
+
+    }
+
+    /**
+     * A dictionary encoded string column: each row holds the code (index) of its value in
+     * the column's dictionary of distinct values (-1 for null).
+     */
+    public static class StringColumn extends Column {
+
+        private int[] codes = new int[INITIAL_CAPACITY];
+        private final List<String> dictionary = new ArrayList<String>();
+        private final Map<String, Integer> dictionaryCodes = new HashMap<String, Integer>();
+
+        StringColumn(String name) {
+            super(name);
+        }
+
+        public String get(int row) {
+            int code = codes[row];
+            return code < 0 ? null : dictionary.get(code);
+        }
+
+        public int getCode(int row) {
+            return codes[row];
+        }
+
+        /**
+         * Returns the column's codes.  The array is not copied.
+         */
+        public int[] getCodes() {
+            return codes;
+        }
+
+        public List<String> getDictionary() {
+            return Collections.unmodifiableList(dictionary);
+        }
+
+        public Object getValue(int row) {
+            return get(row);
+        }
+
+        void read(ResultSet resultSet, int columnIndex, int row) throws SQLException {
+            if (row >= codes.length) codes = Arrays.copyOf(codes, codes.length * 2);
+            String value = resultSet.getString(columnIndex);
+            if (value == null) {
+                nulls.set(row);
+                codes[row] = -1;
+            } else {
+                Integer code = dictionaryCodes.get(value);
+                if (code == null) {
+                    code = dictionary.size();
+                    dictionary.add(value);
+                    dictionaryCodes.put(value, code);
+                }
+                codes[row] = code;
+            }
+        }
+
+        void trimToSize(int rowCount) {
+            codes = Arrays.copyOf(codes, rowCount);
+        }
+
+    }
+
+    public static class ObjectColumn extends Column {
+
+        private Object[] values = new Object[INITIAL_CAPACITY];
+
+        ObjectColumn(String name) {
+            super(name);
+        }
+
+        public Object get(int row) {
+            return values[row];
+        }
+
+        /**
+         * Returns the column's values.  The array is not copied.
+         */
+        public Object[] getValues() {
+            return values;
+        }
+
+        public Object getValue(int row) {
+            return values[row];
+        }
+
+        void read(ResultSet resultSet, int columnIndex, int row) throws SQLException {
+            if (row >= values.length) values = Arrays.copyOf(values, values.length * 2);
+            values[row] = resultSet.getObject(columnIndex);
+            if (values[row] == null) nulls.set(row);
+        }
+
+        void trimToSize(int rowCount) {
+            values = Arrays.copyOf(values, rowCount);
+        }
+
+    }
+
+}
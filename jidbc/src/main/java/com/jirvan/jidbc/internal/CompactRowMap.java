@@ -0,0 +1,263 @@
+/*
+
+Copyright (c) 2013, Jirvan Pty Ltd
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+
+    * Redistributions of source code must retain the above copyright notice,
+      this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above copyright notice,
+      this list of conditions and the following disclaimer in the documentation
+      and/or other materials provided with the distribution.
+    * Neither the name of Jirvan Pty Ltd nor the names of its contributors
+      may be used to endorse or promote products derived from this software
+      without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+(INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+*/
+
+package com.jirvan.jidbc.internal;
+
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * A compact map row for query(Map.class, ...) etc.  The column name to value index table
+ * (Keys) is built once per result set and shared by all of its rows, so each row holds
+ * little more than an Object[] of its values.  The map is fully modifiable: replacing the
+ * value of a column is done in place, removed columns are marked as absent and any keys
+ * that are not column names are held in a separate (lazily created) map.  Entries are
+ * iterated in column order followed by any added keys.
+ */
+class CompactRowMap extends AbstractMap<String, Object> implements Serializable {
+
+    private static final Object ABSENT = new Absent();
+
+    private final Keys keys;
+    private final Object[] values;
+    private int absentCount;
+    private Map<String, Object> addedEntries; // null until a key that is not a column name is added
+
+    CompactRowMap(Keys keys, Object[] values) {
+        this.keys = keys;
+        this.values = values;
+    }
+
+    public int size() {
+        return values.length - absentCount + (addedEntries == null ? 0 : addedEntries.size());
+    }
+
+    public boolean containsKey(Object key) {
+        Integer index = keys.indexes.get(key);
+        if (index != null) {
+            return values[index] != ABSENT;
+        }
+        return addedEntries != null && addedEntries.containsKey(key);
+    }
+
+    public Object get(Object key) {
+        Integer index = keys.indexes.get(key);
+        if (index != null) {
+            Object value = values[index];
+            return value == ABSENT ? null : value;
+        }
+        return addedEntries == null ? null : addedEntries.get(key);
+    }
+
+    public Object put(String key, Object value) {
+        Integer index = keys.indexes.get(key);
+        if (index != null) {
+            Object previousValue = values[index];
+            values[index] = value;
+            if (previousValue == ABSENT) {
+                absentCount--;
+                return null;
+            }
+            return previousValue;
+        }
+        if (addedEntries == null) {
+            addedEntries = new LinkedHashMap<String, Object>();
+        }
+        return addedEntries.put(key, value);
+    }
+
+    public Object remove(Object key) {
+        Integer index = keys.indexes.get(key);
+        if (index != null) {
+            return removeAt(index);
+        }
+        return addedEntries == null ? null : addedEntries.remove(key);
+    }
+
+    public void clear() {
+        for (int i = 0; i < values.length; i++) {
+            values[i] = ABSENT;
+        }
+        absentCount = values.length;
+        addedEntries = null;
+    }
+
+    public Set<Entry<String, Object>> entrySet() {
+        return new AbstractSet<Entry<String, Object>>() {
+
+            public int size() {
+                return CompactRowMap.this.size();
+            }
+
+            public Iterator<Entry<String, Object>> iterator() {
+                return new EntryIterator();
+            }
+
+        };
+    }
+
+    private Object removeAt(int index) {
+        Object previousValue = values[index];
+        if (previousValue == ABSENT) {
+            return null;
+        }
+        values[index] = ABSENT;
+        absentCount++;
+        return previousValue;
+    }
+
+    private class EntryIterator implements Iterator<Entry<String, Object>> {
+
+        private int nextIndex = nextPresentIndex(0);
+        private int lastIndex = -1;
+        private Iterator<Entry<String, Object>> addedEntriesIterator;
+
+        private int nextPresentIndex(int fromIndex) {
+            int index = fromIndex;
+            while (index < values.length && values[index] == ABSENT) {
+                index++;
+            }
+            return index;
+        }
+
+        public boolean hasNext() {
+            if (nextIndex < values.length) {
+                return true;
+            }
+            if (addedEntriesIterator == null && addedEntries != null) {
+                addedEntriesIterator = addedEntries.entrySet().iterator();
+            }
+            return addedEntriesIterator != null && addedEntriesIterator.hasNext();
+        }
+
+        public Entry<String, Object> next() {
+            if (nextIndex < values.length) {
+                lastIndex = nextIndex;
+                nextIndex = nextPresentIndex(nextIndex + 1);
+                return new ColumnEntry(lastIndex);
+            }
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            lastIndex = -1;
+            return addedEntriesIterator.next();
+        }
+
+        public void remove() {
+            if (addedEntriesIterator != null && lastIndex == -1) {
+                addedEntriesIterator.remove();
+            } else if (lastIndex != -1 && values[lastIndex] != ABSENT) {
+                removeAt(lastIndex);
+                lastIndex = -1;
+            } else {
+                throw new IllegalStateException();
+            }
+        }
+
+    }
+
+    private class ColumnEntry implements Entry<String, Object> {
+
+        private final int index;
+
+        private ColumnEntry(int index) {
+            this.index = index;
+        }
+
+        public String getKey() {
+            return keys.names[index];
+        }
+
+        public Object getValue() {
+            Object value = values[index];
+            return value == ABSENT ? null : value;
+        }
+
+        public Object setValue(Object value) {
+            Object previousValue = values[index];
+            if (previousValue == ABSENT) {
+                throw new IllegalStateException(String.format("The %s entry has been removed from the map", getKey()));
+            }
+            values[index] = value;
+            return previousValue;
+        }
+
+        public boolean equals(Object object) {
+            if (!(object instanceof Entry)) return false;
+            Entry entry = (Entry) object;
+            Object value = getValue();
+            return getKey().equals(entry.getKey()) && (value == null ? entry.getValue() == null : value.equals(entry.getValue()));
+        }
+
+        public int hashCode() {
+            Object value = getValue();
+            return getKey().hashCode() ^ (value == null ? 0 : value.hashCode());
+        }
+
+        public String toString() {
+            return getKey() + "=" + getValue();
+        }
+
+    }
+
+    /**
+     * The distinct column names of a result set (in column order) and their value indexes.
+     */
+    static class Keys implements Serializable {
+
+        final String[] names;
+        final Map<String, Integer> indexes;
+
+        Keys(String[] names) {
+            this.names = names;
+            this.indexes = new HashMap<String, Integer>();
+            for (int i = 0; i < names.length; i++) {
+                indexes.put(names[i], i);
+            }
+        }
+
+    }
+
+    private static class Absent implements Serializable {
+
+        private Object readResolve() {
+            return ABSENT;
+        }
+
+    }
+
+}
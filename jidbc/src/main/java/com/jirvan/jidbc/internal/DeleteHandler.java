@@ -36,29 +36,21 @@ import com.jirvan.lang.*;
 
 import java.sql.*;
 
-import static com.jirvan.jidbc.internal.JidbcInternalUtils.*;
-
 public class DeleteHandler extends AbstractPkWhereClauseHandler {
 
-    public static void delete(Connection connection, Object row) {
+    public static void delete(Connection connection, StatementCache statementCache, Object row) {
 
         TableDef tableDef = TableDef.getTableDefForRowClass(row.getClass());
 
-        WhereClause whereClause = new WhereClause(tableDef, row);
-
-        String sql = String.format("delete from %s\n%s",
-                                   tableDef.tableName,
-                                   whereClause.sql);
+        checkHasPkColumns(tableDef, row);
+        String sql = tableDef.deleteSql;
 
         try {
 
             // Delete the object
-            PreparedStatement statement = connection.prepareStatement(sql);
+            PreparedStatement statement = statementCache.checkout(sql);
             try {
-                int paramIndex = 0;
-                for (int i = 0; i < whereClause.parameterValues.size(); i++) {
-                    setObject(statement, ++paramIndex, whereClause.parameterValues.get(i));
-                }
+                bindParameters(statement, tableDef.pkParameterColumnDefs, row);
                 int count = statement.executeUpdate();
                 if (count == 0) {
                     throw new NotFoundRuntimeException("Delete failed - row not found");
@@ -67,13 +59,17 @@ public class DeleteHandler extends AbstractPkWhereClauseHandler {
                     throw new MultipleRowsRuntimeException("Delete failed - more than one row deleted");
                 }
             } finally {
-                statement.close();
+                statementCache.checkin(sql, statement);
             }
 
         } catch (SQLException e) {
-            Jidbc.logSqlException(e, sql, whereClause.parameterValues.toArray());
+            Jidbc.logSqlException(e, sql, getParameterValues(tableDef.pkParameterColumnDefs, row));
             throw new SQLRuntimeException(e);
         }
     }
 
+    public static void deleteAll(StatementCache statementCache, Iterable<?> rows, int batchSize) {
+        executeBatched(statementCache, rows, batchSize, false);
+    }
+
 }
@@ -0,0 +1,114 @@
+/*
+
+Copyright (c) 2013, Jirvan Pty Ltd
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+
+    * Redistributions of source code must retain the above copyright notice,
+      this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above copyright notice,
+      this list of conditions and the following disclaimer in the documentation
+      and/or other materials provided with the distribution.
+    * Neither the name of Jirvan Pty Ltd nor the names of its contributors
+      may be used to endorse or promote products derived from this software
+      without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+(INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+*/
+
+package com.jirvan.jidbc.internal;
+
+import com.jirvan.jidbc.Jidbc;
+import com.jirvan.jidbc.QueryOptions;
+import com.jirvan.jidbc.RowVisitor;
+import com.jirvan.lang.SQLRuntimeException;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import static com.jirvan.jidbc.internal.JidbcInternalUtils.*;
+
+public class ForEachHandler {
+
+    /**
+     * Runs the query and passes each row to the row visitor, repopulating a single row
+     * instance (the given row, or a new instance of the row class if row is null) for every
+     * row rather than creating a new row per row.  Rows of row classes that are created via
+     * a constructor (records and @JidbcConstructor row classes) cannot be repopulated and
+     * are created per row.  The query options' pipeline queue size is ignored.
+     */
+    public static <T> void forEach(StatementCache statementCache, Class rowClass, T row, QueryOptions queryOptions, String sql, RowVisitor<T> rowVisitor, Object... parameterValues) {
+
+        // Get the row def and sql to use
+        RowDef rowDef;
+        String sqlToUse;
+        if (sql.equalsIgnoreCase("all")) {
+            rowDef = TableDef.getTableDefForRowClass(rowClass);
+            sqlToUse = String.format("select * from %s", ((TableDef) rowDef).tableName);
+        } else if (sql.matches("(?si)\\s*where\\s+.*")) {
+            rowDef = TableDef.getTableDefForRowClass(rowClass);
+            sqlToUse = String.format("select * from %s %s", ((TableDef) rowDef).tableName, sql);
+        } else {
+            rowDef = RowDef.getRowDefForRowClass(rowClass);
+            sqlToUse = sql;
+        }
+
+        // Create the row to be reused if one was not given
+        T rowToPopulate = row != null || rowDef.rowConstructor != null ? row : (T) newRow(rowClass);
+
+        // Run the query visiting each row
+        try {
+            PreparedStatement statement = statementCache.checkout(sqlToUse);
+            try {
+                if (queryOptions != null) {
+                    applyQueryOptions(statement, queryOptions);
+                }
+                for (int i = 0; i < parameterValues.length; i++) {
+                    setObject(statement, i + 1, parameterValues[i]);
+                }
+                ObjectRowExtractor<T> rowExtractor = new ObjectRowExtractor<T>();
+                ResultSet resultSet = statement.executeQuery();
+                try {
+                    while (resultSet.next()) {
+                        rowVisitor.visit(rowExtractor.extractRowIntoRow(rowClass, rowDef, resultSet, false, rowToPopulate));
+                    }
+                } finally {
+                    resultSet.close();
+                }
+            } finally {
+                if (queryOptions != null) {
+                    resetQueryOptions(statement);
+                }
+                statementCache.checkin(sqlToUse, statement);
+            }
+        } catch (SQLException e) {
+            Jidbc.logSqlException(e, sqlToUse, parameterValues);
+            throw new SQLRuntimeException(e);
+        }
+
+    }
+
+    private static Object newRow(Class rowClass) {
+        try {
+            return rowClass.newInstance();
+        } catch (InstantiationException e) {
+            throw new RuntimeException(e);
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+}
@@ -0,0 +1,216 @@
+/*
+
+Copyright (c) 2013, Jirvan Pty Ltd
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+
+    * Redistributions of source code must retain the above copyright notice,
+      this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above copyright notice,
+      this list of conditions and the following disclaimer in the documentation
+      and/or other materials provided with the distribution.
+    * Neither the name of Jirvan Pty Ltd nor the names of its contributors
+      may be used to endorse or promote products derived from this software
+      without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+(INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+*/
+
+package com.jirvan.jidbc.internal;
+
+import com.jirvan.jidbc.Jidbc;
+import com.jirvan.lang.SQLRuntimeException;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+import static com.jirvan.jidbc.internal.JidbcInternalUtils.*;
+
+public class GetAllHandler {
+
+    /**
+     * Gets the rows with the given pk values in as few round trips as possible.  On
+     * PostgreSQL, where the pk column's type allows it, the pk values are sent as arrays
+     * (... where pk = any(?)) of up to batchSize values.  Otherwise they are sent as in
+     * lists of up to batchSize values (and no more than the database's parameter limit),
+     * with the last in list padded (by repeating its last pk value) to a power of two size
+     * so that the number of distinct statements stays small.
+     *
+     * @return The found rows keyed by pk value, in the order of the given pk values (pk
+     *         values with no row are left out)
+     */
+    public static <K, T> Map<K, T> getAll(Connection connection, StatementCache statementCache, Class rowClass, Collection<K> pkValues, int batchSize) {
+        if (batchSize < 1) {
+            throw new RuntimeException(String.format("Batch size must be at least 1 (it is %d)", batchSize));
+        }
+        TableDef tableDef = TableDef.getTableDefForRowClass(rowClass);
+        if (tableDef.pkColumnDefs.size() != 1) {
+            throw new RuntimeException(String.format("Cannot perform a get for row class %s as it does not have exactly one id field (it has %d)", tableDef.rowClass.getName(), tableDef.pkColumnDefs.size()));
+        }
+        ColumnDef pkColumnDef = tableDef.pkColumnDefs.get(0);
+
+        // Convert the pk values to the pk attribute's type (so that rows can be matched up with
+        // them) and remove any duplicate or null pk values
+        Map<K, Object> convertedPkValues = new LinkedHashMap<K, Object>();
+        for (K pkValue : pkValues) {
+            if (pkValue != null && !convertedPkValues.containsKey(pkValue)) {
+                convertedPkValues.put(pkValue, toPkAttributeType(tableDef, pkColumnDef, pkValue));
+            }
+        }
+        List<Object> distinctPkValues = new ArrayList<Object>(new LinkedHashSet<Object>(convertedPkValues.values()));
+
+        // Fetch the rows in chunks
+        Map<Object, T> rowsByPk = new HashMap<Object, T>();
+        ObjectRowExtractor<T> rowExtractor = new ObjectRowExtractor<T>();
+        String arrayTypeName = isPostgreSQL(connection) ? getArrayTypeName(pkColumnDef.columnType) : null;
+        if (arrayTypeName != null) {
+            for (int fromIndex = 0; fromIndex < distinctPkValues.size(); fromIndex += batchSize) {
+                List<Object> chunk = distinctPkValues.subList(fromIndex, Math.min(fromIndex + batchSize, distinctPkValues.size()));
+                fetchRows(connection, statementCache, rowClass, tableDef, rowExtractor, tableDef.getAllArraySql, chunk, arrayTypeName, 1, rowsByPk);
+            }
+        } else {
+            int maxStatementParameters = getMaxStatementParameters(connection);
+            int maxChunkSize = Integer.highestOneBit(maxStatementParameters != 0 ? Math.min(batchSize, maxStatementParameters) : batchSize);
+            for (int fromIndex = 0; fromIndex < distinctPkValues.size(); fromIndex += maxChunkSize) {
+                List<Object> chunk = distinctPkValues.subList(fromIndex, Math.min(fromIndex + maxChunkSize, distinctPkValues.size()));
+                int bucketSize = Math.min(Integer.highestOneBit(chunk.size() * 2 - 1), maxChunkSize);
+                fetchRows(connection, statementCache, rowClass, tableDef, rowExtractor, tableDef.getGetAllInListSql(bucketSize), chunk, null, bucketSize, rowsByPk);
+            }
+        }
+
+        // Return the rows in pk value order (keyed by the given pk values)
+        Map<K, T> rows = new LinkedHashMap<K, T>();
+        for (Map.Entry<K, Object> entry : convertedPkValues.entrySet()) {
+            T row = rowsByPk.get(entry.getValue());
+            if (row != null) {
+                rows.put(entry.getKey(), row);
+            }
+        }
+        return rows;
+
+    }
+
+    /**
+     * Returns the pk value as an instance of the pk attribute's type.  Integral numbers are
+     * converted to a Long or Integer pk attribute's type (as long as the value fits) so that,
+     * as for get, an Integer can be given for a Long pk.  Any other mismatch is an error
+     * (rather than silently finding no rows).
+     */
+    private static Object toPkAttributeType(TableDef tableDef, ColumnDef pkColumnDef, Object pkValue) {
+        Class attributeType = pkColumnDef.attributeType;
+        if (attributeType.isInstance(pkValue)) {
+            return pkValue;
+        }
+        if (isIntegralNumber(pkValue)) {
+            long longValue = ((Number) pkValue).longValue();
+            if (attributeType == Long.class || attributeType == long.class) {
+                return longValue;
+            } else if ((attributeType == Integer.class || attributeType == int.class)
+                       && longValue >= Integer.MIN_VALUE && longValue <= Integer.MAX_VALUE) {
+                return (int) longValue;
+            }
+        }
+        throw new RuntimeException(String.format("Pk value %s (a %s) cannot be used as a pk value for row class %s (its pk attribute %s is a %s)",
+                                                 pkValue,
+                                                 pkValue.getClass().getName(),
+                                                 tableDef.rowClass.getName(),
+                                                 pkColumnDef.attributeName,
+                                                 attributeType.getName()));
+    }
+
+    private static boolean isIntegralNumber(Object value) {
+        return value instanceof Long
+               || value instanceof Integer
+               || value instanceof Short
+               || value instanceof Byte;
+    }
+
+    private static <T> void fetchRows(Connection connection, StatementCache statementCache, Class rowClass, TableDef tableDef, ObjectRowExtractor<T> rowExtractor, String sql, List<?> pkValues, String arrayTypeName, int parameterCount, Map<Object, T> rowsByPk) {
+        ColumnDef pkColumnDef = tableDef.pkColumnDefs.get(0);
+        try {
+            PreparedStatement statement = statementCache.checkout(sql);
+            try {
+
+                // Set the pk values (as an array or padded in list)
+                Array array = null;
+                if (arrayTypeName != null) {
+                    array = connection.createArrayOf(arrayTypeName, pkValues.toArray());
+                    statement.setArray(1, array);
+                } else {
+                    for (int i = 0; i < parameterCount; i++) {
+                        setObject(statement, i + 1, pkValues.get(Math.min(i, pkValues.size() - 1)));
+                    }
+                }
+
+                // Extract the rows
+                try {
+                    ResultSet resultSet = statement.executeQuery();
+                    try {
+                        while (resultSet.next()) {
+                            T row = rowExtractor.extractRowFromResultSet(rowClass, tableDef, resultSet, false);
+                            rowsByPk.put(pkColumnDef.getValue(row), row);
+                        }
+                    } finally {
+                        resultSet.close();
+                    }
+                } finally {
+                    if (array != null) {
+                        array.free();
+                    }
+                }
+
+            } finally {
+                statementCache.checkin(sql, statement);
+            }
+        } catch (SQLException e) {
+            Jidbc.logSqlException(e, sql, pkValues.toArray());
+            throw new SQLRuntimeException(e);
+        }
+    }
+
+    private static String getArrayTypeName(ColumnType columnType) {
+        switch (columnType) {
+            case LONG:
+            case PRIMITIVE_LONG:
+                return "bigint";
+            case INTEGER:
+            case PRIMITIVE_INT:
+                return "integer";
+            case STRING:
+                return "varchar";
+            default:
+                return null;
+        }
+    }
+
+    private static boolean isPostgreSQL(Connection connection) {
+        try {
+            return "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName());
+        } catch (SQLException e) {
+            throw new SQLRuntimeException(e);
+        }
+    }
+
+}
@@ -0,0 +1,436 @@
+/*
+
+Copyright (c) 2013, Jirvan Pty Ltd
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+
+    * Redistributions of source code must retain the above copyright notice,
+      this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above copyright notice,
+      this list of conditions and the following disclaimer in the documentation
+      and/or other materials provided with the distribution.
+    * Neither the name of Jirvan Pty Ltd nor the names of its contributors
+      may be used to endorse or promote products derived from this software
+      without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+(INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+*/
+
+package com.jirvan.jidbc.internal;
+
+import com.jirvan.jidbc.BulkInsertStrategy;
+import com.jirvan.jidbc.Jidbc;
+import com.jirvan.jidbc.lang.MultipleRowsRuntimeException;
+import com.jirvan.lang.SQLRuntimeException;
+import com.jirvan.util.DatabaseType;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.jirvan.jidbc.internal.JidbcInternalUtils.*;
+
+public class InsertHandler {
+
+    public static Long insert(Connection connection, StatementCache statementCache, Object row, String columnToReturn) {
+
+        // Get table def and get auto generated id if appropriate
+        TableDef tableDef = TableDef.getTableDefForRowClass(row.getClass());
+        DatabaseType databaseType = DatabaseType.get(connection);
+        generateIdIfAppropriate(connection, statementCache, databaseType, tableDef, row);
+
+        // Get the insert sql for the row's shape (null attributes are left out)
+        TableDef.InsertSql insertSql = tableDef.getInsertSql(row);
+        String sql = columnToReturn == null
+                     ? insertSql.sql
+                     : insertSql.sql + " returning " + columnToReturn;
+        ColumnDef[] parameterColumnDefs = insertSql.parameterColumnDefs;
+
+        // Insert the object
+        try {
+            PreparedStatement statement = statementCache.checkout(sql);
+            try {
+                for (int i = 0; i < parameterColumnDefs.length; i++) {
+                    parameterColumnDefs[i].bindParameter(statement, i + 1, row);
+                }
+
+                if (columnToReturn == null) {
+                    if (tableDef.pkColumnDefs.size() == 1 && databaseType == DatabaseType.sqlite && tableDef.ifSQLiteUseAutoincrement) {
+                        long returnValue = (long) statement.executeUpdate();
+                        long lastId = QueryForHandler.queryFor_Long(connection, statementCache, true, "select last_insert_rowid()");
+                        tableDef.pkColumnDefs.get(0).setValue(row, lastId);
+                        return returnValue;
+                    } else {
+                        return (long) statement.executeUpdate();
+                    }
+                } else {
+                    ResultSet rset = statement.executeQuery();
+                    try {
+                        Long primaryKeyValue;
+                        if (rset.next()) {
+                            primaryKeyValue = columnToReturn == null ? null : rset.getLong(columnToReturn);
+                            if (rset.next()) {
+                                throw new MultipleRowsRuntimeException(String.format("Error inserting row into %s", tableDef.tableName));
+                            }
+                        } else {
+                            throw new RuntimeException(String.format("Error inserting row into %s", tableDef.tableName));
+                        }
+                        return primaryKeyValue;
+                    } finally {
+                        rset.close();
+                    }
+                }
+
+
+            } finally {
+                statementCache.checkin(sql, statement);
+            }
+        } catch (Throwable t) {
+            throw new RuntimeException(String.format("Insert into %s table failed (%s)", tableDef.tableName, t.getMessage()), t);
+        }
+    }
+
+    /**
+     * Inserts the rows in bulk.  Consecutive rows for the same table are grouped by insert sql
+     * (i.e. by row shape) and each group is sent to the database in JDBC batches or multi-row
+     * insert statements (depending on the bulk insert strategy) of up to batchSize rows.  All
+     * pending rows are inserted before moving on to rows for a different table, so rows for
+     * different tables are inserted in the order given (e.g. parent rows before the child
+     * rows that follow them).  Generated ids are set on the rows as they are grouped.  Rows
+     * whose id is to be obtained via SQLite autoincrement are inserted individually.
+     * <p>
+     * Multi-row insert statements are limited by the database's statement parameter limit as
+     * well as the batch size.  Left over rows are inserted in chunks of power of two sizes so
+     * that the number of distinct statements stays small.  Databases with no known parameter
+     * limit use JDBC batches instead.
+     *
+     * @return The number of rows inserted by each executed batch or statement (in execution order)
+     */
+    public static int[] insertAll(Connection connection, StatementCache statementCache, Iterable<?> rows, int batchSize, BulkInsertStrategy bulkInsertStrategy) {
+        return insertAll(connection, statementCache, rows, batchSize, bulkInsertStrategy, null);
+    }
+
+    /**
+     * Inserts the row, or updates it if a row with the same pk already exists, with a single
+     * native upsert statement.  Rows with a null pk attribute (once any generated id has been
+     * set) cannot already exist and are simply inserted.
+     */
+    static void upsert(Connection connection, StatementCache statementCache, Object row, UpsertDialect upsertDialect) {
+
+        // Get table def and get auto generated id if appropriate
+        TableDef tableDef = TableDef.getTableDefForRowClass(row.getClass());
+        AbstractPkWhereClauseHandler.checkHasPkColumns(tableDef, row);
+        generateIdIfAppropriate(connection, statementCache, DatabaseType.get(connection), tableDef, row);
+        if (hasNullPkAttribute(tableDef, row)) {
+            insert(connection, statementCache, row, null);
+            return;
+        }
+
+        // Get the upsert sql for the row's shape
+        TableDef.InsertSql insertSql = tableDef.getInsertSql(row);
+        String sql = tableDef.getUpsertSql(insertSql, upsertDialect);
+
+        // Upsert the object
+        try {
+            PreparedStatement statement = statementCache.checkout(sql);
+            try {
+                AbstractPkWhereClauseHandler.bindParameters(statement, insertSql.parameterColumnDefs, row);
+                statement.executeUpdate();
+            } finally {
+                statementCache.checkin(sql, statement);
+            }
+        } catch (SQLException e) {
+            Jidbc.logSqlException(e, sql, AbstractPkWhereClauseHandler.getParameterValues(insertSql.parameterColumnDefs, row));
+            throw new RuntimeException(String.format("Save into %s table failed (%s)", tableDef.tableName, e.getMessage()), e);
+        }
+    }
+
+    /**
+     * As for insertAll but with each row being upserted (see upsert) in JDBC batches.
+     */
+    static int[] upsertAll(Connection connection, StatementCache statementCache, Iterable<?> rows, int batchSize, UpsertDialect upsertDialect) {
+        return insertAll(connection, statementCache, rows, batchSize, BulkInsertStrategy.jdbcBatch, upsertDialect);
+    }
+
+    private static int[] insertAll(Connection connection, StatementCache statementCache, Iterable<?> rows, int batchSize, BulkInsertStrategy bulkInsertStrategy, UpsertDialect upsertDialect) {
+        if (batchSize < 1) {
+            throw new RuntimeException(String.format("Batch size must be at least 1 (it is %d)", batchSize));
+        }
+        DatabaseType databaseType = DatabaseType.get(connection);
+        int maxStatementParameters = bulkInsertStrategy == BulkInsertStrategy.multiRowValues ? getMaxStatementParameters(connection) : 0;
+        int maxInsertValuesRows = maxStatementParameters != 0 ? getMaxInsertValuesRows(connection) : 0;
+        List<Integer> counts = new ArrayList<Integer>();
+        Map<String, PendingInserts> pendingInsertsMap = new LinkedHashMap<String, PendingInserts>();
+        TableDef pendingInsertsTableDef = null;
+        try {
+            try {
+                for (Object row : rows) {
+                    TableDef tableDef = TableDef.getTableDefForRowClass(row.getClass());
+
+                    // Execute the pending inserts if moving on to a different table
+                    if (tableDef != pendingInsertsTableDef) {
+                        if (upsertDialect != null) {
+                            AbstractPkWhereClauseHandler.checkHasPkColumns(tableDef, row);
+                        }
+                        executePendingInserts(statementCache, pendingInsertsMap, counts);
+                        pendingInsertsTableDef = tableDef;
+                    }
+
+                    // Insert rows that need their SQLite autoincrement id read back (or, when
+                    // upserting, that still have a null pk attribute) individually
+                    generateIdIfAppropriate(connection, statementCache, databaseType, tableDef, row);
+                    if (upsertDialect != null
+                        ? hasNullPkAttribute(tableDef, row)
+                        : tableDef.pkColumnDefs.size() == 1 && databaseType == DatabaseType.sqlite && tableDef.ifSQLiteUseAutoincrement) {
+                        executePendingInserts(statementCache, pendingInsertsMap, counts);
+                        counts.add(insert(connection, statementCache, row, null).intValue());
+                        continue;
+                    }
+
+                    // Add the row to the pending inserts for its shape
+                    TableDef.InsertSql insertSql = tableDef.getInsertSql(row);
+                    String sql = upsertDialect != null ? tableDef.getUpsertSql(insertSql, upsertDialect) : insertSql.sql;
+                    PendingInserts pendingInserts = pendingInsertsMap.get(sql);
+                    if (pendingInserts == null) {
+                        if (upsertDialect != null) {
+                            pendingInserts = new BatchedInserts(tableDef, insertSql, sql, "save", batchSize, statementCache.checkout(sql));
+                        } else if (maxStatementParameters != 0) {
+                            int maxRows = Math.min(batchSize, maxInsertValuesRows);
+                            if (insertSql.parameterColumnDefs.length != 0) {
+                                maxRows = Math.min(maxRows, maxStatementParameters / insertSql.parameterColumnDefs.length);
+                            }
+                            pendingInserts = new MultiRowInserts(tableDef, insertSql, Math.max(maxRows, 1));
+                        } else {
+                            pendingInserts = new BatchedInserts(tableDef, insertSql, sql, "insert", batchSize, statementCache.checkout(sql));
+                        }
+                        pendingInsertsMap.put(sql, pendingInserts);
+                    }
+                    pendingInserts.add(statementCache, row, counts);
+
+                }
+                executePendingInserts(statementCache, pendingInsertsMap, counts);
+            } finally {
+                for (PendingInserts pendingInserts : pendingInsertsMap.values()) {
+                    pendingInserts.discard(statementCache);
+                }
+            }
+        } catch (SQLException e) {
+            throw new SQLRuntimeException(e);
+        }
+
+        // Return the counts
+        int[] countsArray = new int[counts.size()];
+        for (int i = 0; i < countsArray.length; i++) {
+            countsArray[i] = counts.get(i);
+        }
+        return countsArray;
+
+    }
+
+    private static void generateIdIfAppropriate(Connection connection, StatementCache statementCache, DatabaseType databaseType, TableDef tableDef, Object row) {
+        if (tableDef.generatorSequence != null
+            && databaseType != DatabaseType.sqlite
+            && (tableDef.databasesToIgnoreGeneratorSequenceFor == null
+                || databaseType.isNotOneOf(tableDef.databasesToIgnoreGeneratorSequenceFor))) {
+            if (tableDef.pkColumnDefs.size() != 1) {
+                throw new RuntimeException(String.format("Cannot generate id for row class %s as it does not have exactly one id field (it has %d)", tableDef.rowClass.getName(), tableDef.pkColumnDefs.size()));
+            } else if (tableDef.pkColumnDefs.get(0).isNull(row)) {
+                tableDef.pkColumnDefs.get(0).setValue(row, SequenceHandler.takeGeneratedId(connection, statementCache, tableDef.generatorSequence));
+            }
+        }
+    }
+
+    private static boolean hasNullPkAttribute(TableDef tableDef, Object row) {
+        for (ColumnDef columnDef : tableDef.pkColumnDefs) {
+            if (columnDef.isNull(row)) return true;
+        }
+        return false;
+    }
+
+    private static void executePendingInserts(StatementCache statementCache, Map<String, PendingInserts> pendingInsertsMap, List<Integer> counts) throws SQLException {
+        Iterator<PendingInserts> iterator = pendingInsertsMap.values().iterator();
+        while (iterator.hasNext()) {
+            iterator.next().execute(statementCache, counts);
+            iterator.remove();
+        }
+    }
+
+    /**
+     * The rows waiting to be inserted with a particular insert sql.
+     */
+    private static abstract class PendingInserts {
+
+        final TableDef tableDef;
+        final TableDef.InsertSql insertSql;
+        final String operation;
+
+        PendingInserts(TableDef tableDef, TableDef.InsertSql insertSql, String operation) {
+            this.tableDef = tableDef;
+            this.insertSql = insertSql;
+            this.operation = operation;
+        }
+
+        /**
+         * Adds a row, inserting the pending rows (and adding their counts to counts) if a
+         * batch or chunk has been filled.
+         */
+        abstract void add(StatementCache statementCache, Object row, List<Integer> counts);
+
+        /**
+         * Inserts any remaining rows and releases any resources.
+         */
+        abstract void execute(StatementCache statementCache, List<Integer> counts) throws SQLException;
+
+        /**
+         * Releases any resources without inserting any remaining rows (after a failure).
+         */
+        abstract void discard(StatementCache statementCache) throws SQLException;
+
+        RuntimeException insertFailedException(SQLException e) {
+            return new RuntimeException(String.format("Bulk %s into %s table failed (%s)", operation, tableDef.tableName, e.getMessage()), e);
+        }
+
+    }
+
+    private static class BatchedInserts extends PendingInserts {
+
+        private final String sql;
+        private final int batchSize;
+        private PreparedStatement statement;
+        private int rowCount;
+
+        private BatchedInserts(TableDef tableDef, TableDef.InsertSql insertSql, String sql, String operation, int batchSize, PreparedStatement statement) {
+            super(tableDef, insertSql, operation);
+            this.sql = sql;
+            this.batchSize = batchSize;
+            this.statement = statement;
+        }
+
+        void add(StatementCache statementCache, Object row, List<Integer> counts) {
+            try {
+                AbstractPkWhereClauseHandler.bindParameters(statement, insertSql.parameterColumnDefs, row);
+                statement.addBatch();
+            } catch (SQLException e) {
+                throw insertFailedException(e);
+            }
+            if (++rowCount >= batchSize) {
+                counts.add(executeBatch());
+            }
+        }
+
+        void execute(StatementCache statementCache, List<Integer> counts) throws SQLException {
+            if (rowCount > 0) {
+                counts.add(executeBatch());
+            }
+            PreparedStatement statementToCheckin = statement;
+            statement = null;
+            statementCache.checkin(sql, statementToCheckin);
+        }
+
+        void discard(StatementCache statementCache) throws SQLException {
+            if (statement != null) {
+                PreparedStatement statementToCheckin = statement;
+                statement = null;
+                statementToCheckin.clearBatch();
+                statementCache.checkin(sql, statementToCheckin);
+            }
+        }
+
+        /**
+         * Executes the batch and returns the number of rows inserted (statements reported as
+         * successful without a count are counted as one row).
+         */
+        private int executeBatch() {
+            try {
+                int[] counts = statement.executeBatch();
+                rowCount = 0;
+                int insertedRowCount = 0;
+                for (int count : counts) {
+                    insertedRowCount += count == Statement.SUCCESS_NO_INFO ? 1 : count;
+                }
+                return insertedRowCount;
+            } catch (SQLException e) {
+                Jidbc.logSqlException(e, sql, null);
+                throw insertFailedException(e);
+            }
+        }
+
+    }
+
+    private static class MultiRowInserts extends PendingInserts {
+
+        private final int maxRows;
+        private final List<Object> rows = new ArrayList<Object>();
+
+        private MultiRowInserts(TableDef tableDef, TableDef.InsertSql insertSql, int maxRows) {
+            super(tableDef, insertSql, "insert");
+            this.maxRows = maxRows;
+        }
+
+        void add(StatementCache statementCache, Object row, List<Integer> counts) {
+            rows.add(row);
+            if (rows.size() >= maxRows) {
+                counts.add(insertChunk(statementCache, 0, rows.size()));
+                rows.clear();
+            }
+        }
+
+        void execute(StatementCache statementCache, List<Integer> counts) {
+            int fromIndex = 0;
+            while (fromIndex < rows.size()) {
+                int chunkSize = Integer.highestOneBit(rows.size() - fromIndex);
+                counts.add(insertChunk(statementCache, fromIndex, chunkSize));
+                fromIndex += chunkSize;
+            }
+            rows.clear();
+        }
+
+        void discard(StatementCache statementCache) {
+            rows.clear();
+        }
+
+        private int insertChunk(StatementCache statementCache, int fromIndex, int chunkSize) {
+            String sql = insertSql.getMultiRowSql(chunkSize);
+            try {
+                PreparedStatement statement = statementCache.checkout(sql);
+                try {
+                    ColumnDef[] parameterColumnDefs = insertSql.parameterColumnDefs;
+                    int parameterIndex = 0;
+                    for (int i = fromIndex; i < fromIndex + chunkSize; i++) {
+                        Object row = rows.get(i);
+                        for (int j = 0; j < parameterColumnDefs.length; j++) {
+                            parameterColumnDefs[j].bindParameter(statement, ++parameterIndex, row);
+                        }
+                    }
+                    return statement.executeUpdate();
+                } finally {
+                    statementCache.checkin(sql, statement);
+                }
+            } catch (SQLException e) {
+                Jidbc.logSqlException(e, sql, null);
+                throw insertFailedException(e);
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,204 @@
+/*
+
+Copyright (c) 2013, 2014, Jirvan Pty Ltd
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+
+    * Redistributions of source code must retain the above copyright notice,
+      this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above copyright notice,
+      this list of conditions and the following disclaimer in the documentation
+      and/or other materials provided with the distribution.
+    * Neither the name of Jirvan Pty Ltd nor the names of its contributors
+      may be used to endorse or promote products derived from this software
+      without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+(INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+*/
+
+package com.jirvan.jidbc.internal;
+
+import com.jirvan.dates.*;
+import com.jirvan.jidbc.QueryOptions;
+import com.jirvan.lang.*;
+import com.jirvan.util.DatabaseType;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.sql.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+public class JidbcInternalUtils {
+
+    // Thread.ofVirtual(), Thread.Builder.name and Thread.Builder.unstarted (null before Java 21)
+    private static final Method[] VIRTUAL_THREAD_METHODS = getVirtualThreadMethods();
+
+    public static void setObject(PreparedStatement statement, int parameterIndex, Object object) throws SQLException {
+        try {
+            if (object instanceof java.util.Date) {
+                statement.setObject(parameterIndex, object, Types.TIMESTAMP);
+            } else if (object instanceof Day) {
+                statement.setObject(parameterIndex, ((Day) object).getDate(), Types.TIMESTAMP);
+            } else if (object instanceof LocalDate) {
+                statement.setObject(parameterIndex, ((LocalDate) object).toString(), Types.VARCHAR);
+            } else if (object instanceof LocalDateTime) {
+                statement.setObject(parameterIndex, ((LocalDateTime) object).toString(), Types.VARCHAR);
+            } else {
+                statement.setObject(parameterIndex, object);
+            }
+        } catch (Throwable t) {
+            ParameterMetaData parameterMetaData = statement.getParameterMetaData();
+            if ( parameterMetaData.getParameterCount() == 0) {
+                throw new SQLRuntimeException("There are no parameter markers (? characters) in the sql but a parameter value has been given.");
+            } else if ( parameterIndex >  parameterMetaData.getParameterCount()) {
+                throw new SQLRuntimeException("More parameter values have been given than there are parameter markers (? characters) in the sql.");
+            } else {
+                throw t;
+            }
+        }
+    }
+
+    /**
+     * Returns the maximum number of parameters (? characters) that a statement can have for
+     * the connection's database, or 0 if it is not known.
+     */
+    public static int getMaxStatementParameters(Connection connection) {
+        try {
+            DatabaseMetaData metaData = connection.getMetaData();
+            String databaseProductName = metaData.getDatabaseProductName();
+            if (DatabaseType.get(connection) == DatabaseType.sqlite || "SQLite".equals(databaseProductName)) {
+                // SQLITE_MAX_VARIABLE_NUMBER defaults to 999 before SQLite 3.32.0 and 32766 from then on
+                int majorVersion = metaData.getDatabaseMajorVersion();
+                int minorVersion = metaData.getDatabaseMinorVersion();
+                return majorVersion > 3 || (majorVersion == 3 && minorVersion >= 32) ? 32766 : 999;
+            } else if ("PostgreSQL".equals(databaseProductName)) {
+                return 32767;
+            } else if ("Microsoft SQL Server".equals(databaseProductName)) {
+                return 2100;
+            } else {
+                return 0;
+            }
+        } catch (SQLException e) {
+            throw new SQLRuntimeException(e);
+        }
+    }
+
+    /**
+     * Returns the maximum number of rows that a multi-row insert statement (insert into t
+     * (cols) values (?,?),(?,?),...) can have for the connection's database (apart from the
+     * statement parameter limit).
+     */
+    public static int getMaxInsertValuesRows(Connection connection) {
+        try {
+            return "Microsoft SQL Server".equals(connection.getMetaData().getDatabaseProductName())
+                   ? 1000
+                   : Integer.MAX_VALUE;
+        } catch (SQLException e) {
+            throw new SQLRuntimeException(e);
+        }
+    }
+
+    /**
+     * Returns the native upsert syntax supported by the connection's database, or null if it
+     * does not have one (or it is not supported by jidbc).
+     */
+    static UpsertDialect getUpsertDialect(Connection connection) {
+        try {
+            DatabaseMetaData metaData = connection.getMetaData();
+            String databaseProductName = metaData.getDatabaseProductName();
+            int majorVersion = metaData.getDatabaseMajorVersion();
+            int minorVersion = metaData.getDatabaseMinorVersion();
+            if (DatabaseType.get(connection) == DatabaseType.sqlite || "SQLite".equals(databaseProductName)) {
+                return majorVersion > 3 || (majorVersion == 3 && minorVersion >= 24) ? UpsertDialect.sqlite : null;
+            } else if ("PostgreSQL".equals(databaseProductName)) {
+                return majorVersion > 9 || (majorVersion == 9 && minorVersion >= 5) ? UpsertDialect.postgres : null;
+            } else if ("Microsoft SQL Server".equals(databaseProductName)) {
+                return majorVersion >= 10 ? UpsertDialect.sqlServer : null;
+            } else {
+                return null;
+            }
+        } catch (SQLException e) {
+            throw new SQLRuntimeException(e);
+        }
+    }
+
+    /**
+     * Applies the query options' statement settings (see QueryOptions) to the statement.
+     * Statements that are to be reused should be put back to their default settings with
+     * resetQueryOptions afterwards.
+     */
+    static void applyQueryOptions(PreparedStatement statement, QueryOptions queryOptions) throws SQLException {
+        if (queryOptions.getFetchSize() != 0) {
+            Connection connection = statement.getConnection();
+            String databaseProductName = connection.getMetaData().getDatabaseProductName();
+            if ("PostgreSQL".equals(databaseProductName) && connection.getAutoCommit()) {
+                throw new RuntimeException("PostgreSQL only streams query results (i.e. uses the fetch size) when autocommit is off");
+            }
+            statement.setFetchSize("MySQL".equals(databaseProductName) ? Integer.MIN_VALUE : queryOptions.getFetchSize());
+        }
+        if (queryOptions.getMaxRows() != 0) {
+            statement.setMaxRows(queryOptions.getMaxRows());
+        }
+        if (queryOptions.getQueryTimeoutSeconds() != 0) {
+            statement.setQueryTimeout(queryOptions.getQueryTimeoutSeconds());
+        }
+    }
+
+    static void resetQueryOptions(PreparedStatement statement) throws SQLException {
+        statement.setFetchSize(0);
+        statement.setMaxRows(0);
+        statement.setQueryTimeout(0);
+    }
+
+    public static boolean supportsVirtualThreads() {
+        return VIRTUAL_THREAD_METHODS != null;
+    }
+
+    /**
+     * Returns a new (unstarted) virtual thread where the JVM supports them, otherwise a new
+     * (unstarted) daemon thread.
+     */
+    public static Thread newThread(Runnable runnable, String name) {
+        if (VIRTUAL_THREAD_METHODS != null) {
+            try {
+                Object builder = VIRTUAL_THREAD_METHODS[0].invoke(null);
+                builder = VIRTUAL_THREAD_METHODS[1].invoke(builder, name);
+                return (Thread) VIRTUAL_THREAD_METHODS[2].invoke(builder, runnable);
+            } catch (IllegalAccessException e) {
+                // Fall through to a platform thread
+            } catch (InvocationTargetException e) {
+                // Fall through to a platform thread (e.g. virtual threads are a disabled preview feature)
+            }
+        }
+        Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    private static Method[] getVirtualThreadMethods() {
+        try {
+            Class builderClass = Class.forName("java.lang.Thread$Builder");
+            return new Method[]{Thread.class.getMethod("ofVirtual"),
+                                builderClass.getMethod("name", String.class),
+                                builderClass.getMethod("unstarted", Runnable.class)};
+        } catch (ClassNotFoundException e) {
+            return null;
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+}
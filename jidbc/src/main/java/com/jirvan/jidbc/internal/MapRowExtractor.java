@@ -33,24 +33,41 @@ import com.jirvan.lang.SQLRuntimeException;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 public class MapRowExtractor<T> implements RowExtractor<T> {
 
+    private ResultSet keysResultSet;
+    private CompactRowMap.Keys keys;
+    private int[] columnValueIndexes; // the value index of each result set column
+
     public T extractRowFromResultSet(Class rowClass, RowDef rowDef, ResultSet resultSet, final boolean ignoreMissingResultSetColumns) {
         if (ignoreMissingResultSetColumns) throw new RuntimeException("ignoreMissingResultSetColumns is inappropriate for MapRowExtractor");
         try {
-            // Create and return the row
-            final Map row = rowClass == Map.class
-                            ? new HashMap()
-                            : (Map) rowClass.newInstance();
-            ResultSetMetaData metaData = resultSet.getMetaData();
-            int columnCount = metaData.getColumnCount();
-            for (int i = 0; i < columnCount; i++) {
-                row.put(metaData.getColumnName(i + 1), resultSet.getObject(i + 1));
+
+            // Work out the row keys once per result set
+            if (resultSet != keysResultSet) {
+                resolveKeys(resultSet);
+                keysResultSet = resultSet;
             }
-            return (T) row;
+
+            // Create and return the row (a compact map sharing the keys unless a specific map class was asked for)
+            if (rowClass == Map.class) {
+                Object[] values = new Object[keys.names.length];
+                for (int i = 0; i < columnValueIndexes.length; i++) {
+                    values[columnValueIndexes[i]] = resultSet.getObject(i + 1);
+                }
+                return (T) new CompactRowMap(keys, values);
+            } else {
+                final Map row = (Map) rowClass.newInstance();
+                for (int i = 0; i < columnValueIndexes.length; i++) {
+                    row.put(keys.names[columnValueIndexes[i]], resultSet.getObject(i + 1));
+                }
+                return (T) row;
+            }
+
         } catch (SQLException e) {
             throw new SQLRuntimeException(e);
         } catch (InstantiationException e) {
@@ -60,4 +77,23 @@ public class MapRowExtractor<T> implements RowExtractor<T> {
         }
     }
 
+    private void resolveKeys(ResultSet resultSet) throws SQLException {
+        ResultSetMetaData metaData = resultSet.getMetaData();
+        int columnCount = metaData.getColumnCount();
+
+        // Columns with the same name share a value (the last column's value wins, as with a HashMap)
+        List<String> names = new ArrayList<String>();
+        columnValueIndexes = new int[columnCount];
+        for (int i = 0; i < columnCount; i++) {
+            String columnName = metaData.getColumnName(i + 1);
+            int index = names.indexOf(columnName);
+            if (index == -1) {
+                index = names.size();
+                names.add(columnName);
+            }
+            columnValueIndexes[i] = index;
+        }
+        keys = new CompactRowMap.Keys(names.toArray(new String[names.size()]));
+    }
+
 }
@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2013, Jirvan Pty Ltd
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright notice,
+ *       this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright notice,
+ *       this list of conditions and the following disclaimer in the documentation
+ *       and/or other materials provided with the distribution.
+ *     * Neither the name of Jirvan Pty Ltd nor the names of its contributors
+ *       may be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.jirvan.jidbc.internal;
+
+import com.jirvan.lang.SQLRuntimeException;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
+public class ObjectRowExtractor<T> implements RowExtractor<T> {
+
+    private static volatile boolean useRowMappers = true;
+
+    private boolean rowMapperResolved;
+    private RowMapper<T> rowMapper;               // null if the row class is not supported by RowMapper
+    private ResultSet columnIndexesResultSet;
+    private int[] columnIndexes;                  // per row def column def (0 if not in the result set)
+
+    /**
+     * Determines whether rows are extracted using a RowMapper (built once per row class)
+     * or reflectively (instantiating the row class and looking up each column by name for
+     * every row).  The default is to use row mappers.  Row classes that are not supported
+     * by RowMapper are always extracted reflectively.
+     */
+    public static void setUseRowMappers(boolean useRowMappers) {
+        ObjectRowExtractor.useRowMappers = useRowMappers;
+    }
+
+    public T extractRowFromResultSet(Class rowClass, final RowDef rowDef, final ResultSet resultSet, final boolean ignoreMissingResultSetColumns) {
+        if (useRowMappers) {
+            if (!rowMapperResolved) {
+                rowMapper = RowMapper.forRowDef(rowDef, rowClass);
+                rowMapperResolved = true;
+            }
+            if (rowMapper != null) {
+                if (resultSet != columnIndexesResultSet) {
+                    columnIndexes = rowMapper.resolveColumnIndexes(resultSet, ignoreMissingResultSetColumns);
+                    columnIndexesResultSet = resultSet;
+                }
+                return rowMapper.extractRow(resultSet, columnIndexes);
+            }
+        }
+        return extractRowReflectively(rowClass, rowDef, resultSet, ignoreMissingResultSetColumns);
+    }
+
+    /**
+     * Populates the given row from the result set's current row (rather than creating a
+     * new one) and returns it.  Rows of row classes that are created via a constructor
+     * (records and @JidbcConstructor row classes) cannot be repopulated, so for them a new
+     * row is returned instead.
+     */
+    public T extractRowIntoRow(Class rowClass, final RowDef rowDef, final ResultSet resultSet, final boolean ignoreMissingResultSetColumns, T row) {
+        if (rowDef.rowConstructor != null) {
+            return extractRowFromResultSet(rowClass, rowDef, resultSet, ignoreMissingResultSetColumns);
+        }
+        if (useRowMappers) {
+            if (!rowMapperResolved) {
+                rowMapper = RowMapper.forRowDef(rowDef, rowClass);
+                rowMapperResolved = true;
+            }
+            if (rowMapper != null) {
+                if (resultSet != columnIndexesResultSet) {
+                    columnIndexes = rowMapper.resolveColumnIndexes(resultSet, ignoreMissingResultSetColumns);
+                    columnIndexesResultSet = resultSet;
+                }
+                rowMapper.populateRow(resultSet, columnIndexes, row);
+                return row;
+            }
+        }
+        List<ColumnDef> columnDefs = rowDef.columnDefs;
+        resolveColumnIndexes(columnDefs, resultSet, ignoreMissingResultSetColumns);
+        try {
+            for (int i = 0; i < columnIndexes.length; i++) {
+                if (columnIndexes[i] != 0) {
+                    ColumnDef columnDef = columnDefs.get(i);
+                    columnDef.columnType.readInto(resultSet, columnIndexes[i], columnDef, row);
+                }
+            }
+        } catch (SQLException e) {
+            throw new SQLRuntimeException(e);
+        }
+        return row;
+    }
+
+    private T extractRowReflectively(Class rowClass, final RowDef rowDef, final ResultSet resultSet, final boolean ignoreMissingResultSetColumns) {
+        try {
+
+            // Resolve the column indexes on the first row of each result set (the row def's
+            // column defs are in the same order as a row mapper's so the indexes are shared)
+            List<ColumnDef> columnDefs = rowDef.columnDefs;
+            resolveColumnIndexes(columnDefs, resultSet, ignoreMissingResultSetColumns);
+
+            // Create rows of records and @JidbcConstructor row classes via their constructor
+            if (rowDef.rowConstructor != null) {
+                Object[] attributeValues = new Object[columnDefs.size()];
+                for (int i = 0; i < attributeValues.length; i++) {
+                    ColumnDef columnDef = columnDefs.get(i);
+                    attributeValues[i] = columnIndexes[i] != 0
+                                         ? columnDef.columnType.read(resultSet, columnIndexes[i], columnDef)
+                                         : columnDef.columnType.defaultValue();
+                }
+                return (T) rowDef.constructRow(attributeValues);
+            }
+
+            // Create and return the row
+            final T row;
+            try {
+                row = (T) rowClass.newInstance();
+            } catch (IllegalAccessException e) {
+                throw new RuntimeException(e);
+            }
+            for (int i = 0; i < columnIndexes.length; i++) {
+                if (columnIndexes[i] != 0) {
+                    ColumnDef columnDef = columnDefs.get(i);
+                    columnDef.columnType.readInto(resultSet, columnIndexes[i], columnDef, row);
+                }
+            }
+            return row;
+        } catch (InstantiationException e) {
+            throw new RuntimeException(e);
+        } catch (SQLException e) {
+            throw new SQLRuntimeException(e);
+        }
+    }
+
+    private void resolveColumnIndexes(List<ColumnDef> columnDefs, ResultSet resultSet, boolean ignoreMissingResultSetColumns) {
+        if (resultSet != columnIndexesResultSet) {
+            columnIndexes = RowMapper.resolveColumnIndexes(columnDefs.toArray(new ColumnDef[columnDefs.size()]), resultSet, ignoreMissingResultSetColumns);
+            columnIndexesResultSet = resultSet;
+        }
+    }
+
+}
@@ -32,6 +32,7 @@ package com.jirvan.jidbc.internal;
 
 import com.jirvan.dates.Day;
 import com.jirvan.jidbc.Jidbc;
+import com.jirvan.jidbc.QueryOptions;
 import com.jirvan.jidbc.lang.MultipleRowsRuntimeException;
 import com.jirvan.lang.NotFoundRuntimeException;
 import com.jirvan.lang.SQLRuntimeException;
@@ -44,21 +45,22 @@ import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Arrays;
 import java.util.Map;
 
 import static com.jirvan.jidbc.internal.JidbcInternalUtils.*;
 
 public class QueryForHandler {
 
-//    public static <T> T queryFor(Connection connection, boolean exceptionIfNotFound, Class rowClass, String sql, Object[] parameterValues, boolean isAGet) {
+//    public static <T> T queryFor(Connection connection, StatementCache statementCache, boolean exceptionIfNotFound, Class rowClass, String sql, Object[] parameterValues, boolean isAGet) {
 //        return queryFor(connection, exceptionIfNotFound, rowClass, sql, parameterValues, isAGet, false);
 //    }
 //
-//    public static <T> T queryForAndIgnoreMissingResultSetColumns(Connection connection, boolean exceptionIfNotFound, Class rowClass, String sql, Object[] parameterValues, boolean isAGet) {
+//    public static <T> T queryForAndIgnoreMissingResultSetColumns(Connection connection, StatementCache statementCache, boolean exceptionIfNotFound, Class rowClass, String sql, Object[] parameterValues, boolean isAGet) {
 //        return queryFor(connection, exceptionIfNotFound, rowClass, sql, parameterValues, isAGet, true);
 //    }
 
-    public static <T> T queryFor(Connection connection, boolean exceptionIfNotFound, Class rowClass, String sql, Object[] parameterValues, boolean isAGet, boolean ignoreMissingResultSetColumns, boolean forUpdate) {
+    public static <T> T queryFor(Connection connection, StatementCache statementCache, boolean exceptionIfNotFound, Class rowClass, String sql, Object[] parameterValues, boolean isAGet, boolean ignoreMissingResultSetColumns, boolean forUpdate) {
         RowDef rowDef;
         RowExtractor rowExtractor;
         String sqlToUse;
@@ -78,7 +80,7 @@ public class QueryForHandler {
                     throw new RuntimeException(String.format("Cannot perform a get for row class %s as it does not have exactly one id field (it has %d)", tableDef.rowClass.getName(), tableDef.pkColumnDefs.size()));
                 }
                 rowDef = tableDef;
-                sqlToUse = String.format("select * from %s where %s = ?", tableDef.tableName, tableDef.pkColumnDefs.get(0).columnName);
+                sqlToUse = forUpdate ? tableDef.getForUpdateSql : tableDef.getSql;
             } else if (sql.matches("(?si)\\s*where\\s+.*")) {
                 TableDef tableDef = TableDef.getTableDefForRowClass(rowClass);
                 rowDef = tableDef;
@@ -88,11 +90,11 @@ public class QueryForHandler {
                 sqlToUse = sql;
             }
         }
-        if (forUpdate) {
+        if (forUpdate && !isAGet) {
             sqlToUse += " for update";
         }
         try {
-            PreparedStatement statement = connection.prepareStatement(sqlToUse);
+            PreparedStatement statement = statementCache.checkout(sqlToUse);
             try {
 
                 // Set parameter values
@@ -102,23 +104,27 @@ public class QueryForHandler {
 
                 // Get result and check for anything other than exactly one row
                 ResultSet resultSet = statement.executeQuery();
-                T result;
-                if (resultSet.next()) {
-                    result = (T) rowExtractor.extractRowFromResultSet(rowClass, rowDef, resultSet, ignoreMissingResultSetColumns);
-                } else {
-                    if (exceptionIfNotFound) {
-                        throw new NotFoundRuntimeException();
+                try {
+                    T result;
+                    if (resultSet.next()) {
+                        result = (T) rowExtractor.extractRowFromResultSet(rowClass, rowDef, resultSet, ignoreMissingResultSetColumns);
                     } else {
-                        result = null;
+                        if (exceptionIfNotFound) {
+                            throw new NotFoundRuntimeException();
+                        } else {
+                            result = null;
+                        }
                     }
+                    if (resultSet.next()) {
+                        throw new MultipleRowsRuntimeException();
+                    }
+                    return result;
+                } finally {
+                    resultSet.close();
                 }
-                if (resultSet.next()) {
-                    throw new MultipleRowsRuntimeException();
-                }
-                return result;
 
             } finally {
-                statement.close();
+                statementCache.checkin(sqlToUse, statement);
             }
         } catch (SQLException e) {
             Jidbc.logSqlException(e, sqlToUse, parameterValues);
@@ -126,9 +132,40 @@ public class QueryForHandler {
         }
     }
 
-    public static Integer queryFor_Integer(Connection connection, boolean exceptionIfNotFound, String sql, Object... parameterValues) {
+    /**
+     * Runs the query and returns all of its rows held by column (see ColumnarResults).
+     */
+    public static ColumnarResults queryForColumns(StatementCache statementCache, QueryOptions queryOptions, String sql, Object... parameterValues) {
+        try {
+            PreparedStatement statement = statementCache.checkout(sql);
+            try {
+                if (queryOptions != null) {
+                    applyQueryOptions(statement, queryOptions);
+                }
+                for (int i = 0; i < parameterValues.length; i++) {
+                    setObject(statement, i + 1, parameterValues[i]);
+                }
+                ResultSet resultSet = statement.executeQuery();
+                try {
+                    return ColumnarResults.read(resultSet);
+                } finally {
+                    resultSet.close();
+                }
+            } finally {
+                if (queryOptions != null) {
+                    resetQueryOptions(statement);
+                }
+                statementCache.checkin(sql, statement);
+            }
+        } catch (SQLException e) {
+            Jidbc.logSqlException(e, sql, parameterValues);
+            throw new SQLRuntimeException(e);
+        }
+    }
+
+    public static Integer queryFor_Integer(Connection connection, StatementCache statementCache, boolean exceptionIfNotFound, String sql, Object... parameterValues) {
         try {
-            PreparedStatement statement = connection.prepareStatement(sql);
+            PreparedStatement statement = statementCache.checkout(sql);
             try {
 
                 // Set parameter values and execute query
@@ -162,7 +199,7 @@ public class QueryForHandler {
                 return result;
 
             } finally {
-                statement.close();
+                statementCache.checkin(sql, statement);
             }
         } catch (SQLException e) {
             Jidbc.logSqlException(e, sql, parameterValues);
@@ -170,9 +207,9 @@ public class QueryForHandler {
         }
     }
 
-    public static Long queryFor_Long(Connection connection, boolean exceptionIfNotFound, String sql, Object... parameterValues) {
+    public static Long queryFor_Long(Connection connection, StatementCache statementCache, boolean exceptionIfNotFound, String sql, Object... parameterValues) {
         try {
-            PreparedStatement statement = connection.prepareStatement(sql);
+            PreparedStatement statement = statementCache.checkout(sql);
             try {
 
                 // Set parameter values and execute query
@@ -206,7 +243,242 @@ public class QueryForHandler {
                 return result;
 
             } finally {
-                statement.close();
+                statementCache.checkin(sql, statement);
+            }
+        } catch (SQLException e) {
+            Jidbc.logSqlException(e, sql, parameterValues);
+            throw new SQLRuntimeException(e);
+        }
+    }
+
+    /**
+     * As for queryFor_Long but returning a primitive long (defaultIfNull if the value is null)
+     * so that no boxed value is created.
+     */
+    public static long queryFor_long(StatementCache statementCache, String sql, long defaultIfNull, Object... parameterValues) {
+        try {
+            PreparedStatement statement = statementCache.checkout(sql);
+            try {
+
+                // Set parameter values and execute query
+                for (int i = 0; i < parameterValues.length; i++) {
+                    setObject(statement, i + 1, parameterValues[i]);
+                }
+                ResultSet resultSet = statement.executeQuery();
+                long result;
+                try {
+
+                    // Get result and check for anything other than exactly one row
+                    if (resultSet.next()) {
+                        long value = resultSet.getLong(1);
+                        result = resultSet.wasNull() ? defaultIfNull : value;
+                    } else {
+                        throw new NotFoundRuntimeException();
+                    }
+                    if (resultSet.next()) {
+                        throw new MultipleRowsRuntimeException();
+                    }
+
+                } finally {
+                    resultSet.close();
+                }
+
+                // Return the result
+                return result;
+
+            } finally {
+                statementCache.checkin(sql, statement);
+            }
+        } catch (SQLException e) {
+            Jidbc.logSqlException(e, sql, parameterValues);
+            throw new SQLRuntimeException(e);
+        }
+    }
+
+    /**
+     * As for queryFor_Integer but returning a primitive int (defaultIfNull if the value is null)
+     * so that no boxed value is created.
+     */
+    public static int queryFor_int(StatementCache statementCache, String sql, int defaultIfNull, Object... parameterValues) {
+        try {
+            PreparedStatement statement = statementCache.checkout(sql);
+            try {
+
+                // Set parameter values and execute query
+                for (int i = 0; i < parameterValues.length; i++) {
+                    setObject(statement, i + 1, parameterValues[i]);
+                }
+                ResultSet resultSet = statement.executeQuery();
+                int result;
+                try {
+
+                    // Get result and check for anything other than exactly one row
+                    if (resultSet.next()) {
+                        int value = resultSet.getInt(1);
+                        result = resultSet.wasNull() ? defaultIfNull : value;
+                    } else {
+                        throw new NotFoundRuntimeException();
+                    }
+                    if (resultSet.next()) {
+                        throw new MultipleRowsRuntimeException();
+                    }
+
+                } finally {
+                    resultSet.close();
+                }
+
+                // Return the result
+                return result;
+
+            } finally {
+                statementCache.checkin(sql, statement);
+            }
+        } catch (SQLException e) {
+            Jidbc.logSqlException(e, sql, parameterValues);
+            throw new SQLRuntimeException(e);
+        }
+    }
+
+    /**
+     * As for queryFor_BigDecimal but returning a primitive double (defaultIfNull if the value is null)
+     * read with getDouble so that no BigDecimal or boxed value is created.
+     */
+    public static double queryFor_double(StatementCache statementCache, String sql, double defaultIfNull, Object... parameterValues) {
+        try {
+            PreparedStatement statement = statementCache.checkout(sql);
+            try {
+
+                // Set parameter values and execute query
+                for (int i = 0; i < parameterValues.length; i++) {
+                    setObject(statement, i + 1, parameterValues[i]);
+                }
+                ResultSet resultSet = statement.executeQuery();
+                double result;
+                try {
+
+                    // Get result and check for anything other than exactly one row
+                    if (resultSet.next()) {
+                        double value = resultSet.getDouble(1);
+                        result = resultSet.wasNull() ? defaultIfNull : value;
+                    } else {
+                        throw new NotFoundRuntimeException();
+                    }
+                    if (resultSet.next()) {
+                        throw new MultipleRowsRuntimeException();
+                    }
+
+                } finally {
+                    resultSet.close();
+                }
+
+                // Return the result
+                return result;
+
+            } finally {
+                statementCache.checkin(sql, statement);
+            }
+        } catch (SQLException e) {
+            Jidbc.logSqlException(e, sql, parameterValues);
+            throw new SQLRuntimeException(e);
+        }
+    }
+
+    /**
+     * As for queryFor_Boolean but returning a primitive boolean (defaultIfNull if the value is null)
+     * so that no boxed value is created.
+     */
+    public static boolean queryFor_boolean(StatementCache statementCache, String sql, boolean defaultIfNull, Object... parameterValues) {
+        try {
+            PreparedStatement statement = statementCache.checkout(sql);
+            try {
+
+                // Set parameter values and execute query
+                for (int i = 0; i < parameterValues.length; i++) {
+                    setObject(statement, i + 1, parameterValues[i]);
+                }
+                ResultSet resultSet = statement.executeQuery();
+                boolean result;
+                try {
+
+                    // Get result and check for anything other than exactly one row
+                    if (resultSet.next()) {
+                        boolean value = resultSet.getBoolean(1);
+                        result = resultSet.wasNull() ? defaultIfNull : value;
+                    } else {
+                        throw new NotFoundRuntimeException();
+                    }
+                    if (resultSet.next()) {
+                        throw new MultipleRowsRuntimeException();
+                    }
+
+                } finally {
+                    resultSet.close();
+                }
+
+                // Return the result
+                return result;
+
+            } finally {
+                statementCache.checkin(sql, statement);
+            }
+        } catch (SQLException e) {
+            Jidbc.logSqlException(e, sql, parameterValues);
+            throw new SQLRuntimeException(e);
+        }
+    }
+
+    /**
+     * Runs the query and returns the values of its first column as a primitive array of
+     * the given component type (long, int or double), filled with the primitive ResultSet
+     * getter into a growable array so that no boxed values or list are created.  Null
+     * values are not allowed.
+     */
+    public static Object queryForPrimitiveArray(StatementCache statementCache, QueryOptions queryOptions, Class componentType, String sql, Object... parameterValues) {
+        try {
+            PreparedStatement statement = statementCache.checkout(sql);
+            try {
+                if (queryOptions != null) {
+                    applyQueryOptions(statement, queryOptions);
+                }
+                for (int i = 0; i < parameterValues.length; i++) {
+                    setObject(statement, i + 1, parameterValues[i]);
+                }
+                ResultSet resultSet = statement.executeQuery();
+                try {
+                    long[] longs = componentType == long.class ? new long[1024] : null;
+                    int[] ints = componentType == int.class ? new int[1024] : null;
+                    double[] doubles = componentType == double.class ? new double[1024] : null;
+                    if (longs == null && ints == null && doubles == null) {
+                        throw new RuntimeException(String.format("Unsupported primitive array component type %s", componentType.getName()));
+                    }
+                    int count = 0;
+                    while (resultSet.next()) {
+                        if (longs != null) {
+                            if (count == longs.length) longs = Arrays.copyOf(longs, count * 2);
+                            longs[count] = resultSet.getLong(1);
+                        } else if (ints != null) {
+                            if (count == ints.length) ints = Arrays.copyOf(ints, count * 2);
+                            ints[count] = resultSet.getInt(1);
+                        } else {
+                            if (count == doubles.length) doubles = Arrays.copyOf(doubles, count * 2);
+                            doubles[count] = resultSet.getDouble(1);
+                        }
+                        if (resultSet.wasNull()) {
+                            throw new RuntimeException(String.format("Row %d has a null value (nulls cannot be returned in a %s array)", count + 1, componentType.getName()));
+                        }
+                        count++;
+                    }
+                    return longs != null ? Arrays.copyOf(longs, count)
+                                         : ints != null ? (Object) Arrays.copyOf(ints, count)
+                                                        : Arrays.copyOf(doubles, count);
+                } finally {
+                    resultSet.close();
+                }
+            } finally {
+                if (queryOptions != null) {
+                    resetQueryOptions(statement);
+                }
+                statementCache.checkin(sql, statement);
             }
         } catch (SQLException e) {
             Jidbc.logSqlException(e, sql, parameterValues);
@@ -214,9 +486,9 @@ public class QueryForHandler {
         }
     }
 
-    public static Boolean queryFor_Boolean(Connection connection, boolean exceptionIfNotFound, String sql, Object... parameterValues) {
+    public static Boolean queryFor_Boolean(Connection connection, StatementCache statementCache, boolean exceptionIfNotFound, String sql, Object... parameterValues) {
         try {
-            PreparedStatement statement = connection.prepareStatement(sql);
+            PreparedStatement statement = statementCache.checkout(sql);
             try {
 
                 // Set parameter values and execute query
@@ -250,7 +522,7 @@ public class QueryForHandler {
                 return result;
 
             } finally {
-                statement.close();
+                statementCache.checkin(sql, statement);
             }
         } catch (SQLException e) {
             Jidbc.logSqlException(e, sql, parameterValues);
@@ -258,9 +530,9 @@ public class QueryForHandler {
         }
     }
 
-    public static BigDecimal queryFor_BigDecimal(Connection connection, boolean exceptionIfNotFound, String sql, Object... parameterValues) {
+    public static BigDecimal queryFor_BigDecimal(Connection connection, StatementCache statementCache, boolean exceptionIfNotFound, String sql, Object... parameterValues) {
         try {
-            PreparedStatement statement = connection.prepareStatement(sql);
+            PreparedStatement statement = statementCache.checkout(sql);
             try {
 
                 // Set parameter values and execute query
@@ -294,7 +566,7 @@ public class QueryForHandler {
                 return result;
 
             } finally {
-                statement.close();
+                statementCache.checkin(sql, statement);
             }
         } catch (SQLException e) {
             Jidbc.logSqlException(e, sql, parameterValues);
@@ -302,9 +574,9 @@ public class QueryForHandler {
         }
     }
 
-    public static String queryFor_String(Connection connection, boolean exceptionIfNotFound, String sql, Object... parameterValues) {
+    public static String queryFor_String(Connection connection, StatementCache statementCache, boolean exceptionIfNotFound, String sql, Object... parameterValues) {
         try {
-            PreparedStatement statement = connection.prepareStatement(sql);
+            PreparedStatement statement = statementCache.checkout(sql);
             try {
 
                 // Set parameter values and execute query
@@ -338,7 +610,7 @@ public class QueryForHandler {
                 return result;
 
             } finally {
-                statement.close();
+                statementCache.checkin(sql, statement);
             }
         } catch (SQLException e) {
             Jidbc.logSqlException(e, sql, parameterValues);
@@ -346,9 +618,9 @@ public class QueryForHandler {
         }
     }
 
-    public static Day queryFor_Day(Connection connection, boolean exceptionIfNotFound, String sql, Object... parameterValues) {
+    public static Day queryFor_Day(Connection connection, StatementCache statementCache, boolean exceptionIfNotFound, String sql, Object... parameterValues) {
         try {
-            PreparedStatement statement = connection.prepareStatement(sql);
+            PreparedStatement statement = statementCache.checkout(sql);
             try {
 
                 // Set parameter values and execute query
@@ -382,7 +654,7 @@ public class QueryForHandler {
                 return result;
 
             } finally {
-                statement.close();
+                statementCache.checkin(sql, statement);
             }
         } catch (SQLException e) {
             Jidbc.logSqlException(e, sql, parameterValues);
@@ -390,9 +662,9 @@ public class QueryForHandler {
         }
     }
 
-    public static LocalDate queryFor_LocalDate(Connection connection, boolean exceptionIfNotFound, String sql, Object... parameterValues) {
+    public static LocalDate queryFor_LocalDate(Connection connection, StatementCache statementCache, boolean exceptionIfNotFound, String sql, Object... parameterValues) {
         try {
-            PreparedStatement statement = connection.prepareStatement(sql);
+            PreparedStatement statement = statementCache.checkout(sql);
             try {
 
                 // Set parameter values and execute query
@@ -426,7 +698,7 @@ public class QueryForHandler {
                 return result;
 
             } finally {
-                statement.close();
+                statementCache.checkin(sql, statement);
             }
         } catch (SQLException e) {
             Jidbc.logSqlException(e, sql, parameterValues);
@@ -434,9 +706,9 @@ public class QueryForHandler {
         }
     }
 
-    public static LocalDateTime queryFor_LocalDateTime(Connection connection, boolean exceptionIfNotFound, String sql, Object... parameterValues) {
+    public static LocalDateTime queryFor_LocalDateTime(Connection connection, StatementCache statementCache, boolean exceptionIfNotFound, String sql, Object... parameterValues) {
         try {
-            PreparedStatement statement = connection.prepareStatement(sql);
+            PreparedStatement statement = statementCache.checkout(sql);
             try {
 
                 // Set parameter values and execute query
@@ -470,7 +742,7 @@ public class QueryForHandler {
                 return result;
 
             } finally {
-                statement.close();
+                statementCache.checkin(sql, statement);
             }
         } catch (SQLException e) {
             Jidbc.logSqlException(e, sql, parameterValues);
@@ -0,0 +1,385 @@
+/*
+ * Copyright (c) 2013, Jirvan Pty Ltd
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright notice,
+ *       this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright notice,
+ *       this list of conditions and the following disclaimer in the documentation
+ *       and/or other materials provided with the distribution.
+ *     * Neither the name of Jirvan Pty Ltd nor the names of its contributors
+ *       may be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.jirvan.jidbc.internal;
+
+import com.jirvan.dates.Day;
+import com.jirvan.jidbc.Jidbc;
+import com.jirvan.jidbc.QueryOptions;
+import com.jirvan.lang.SQLRuntimeException;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static com.jirvan.jidbc.internal.JidbcInternalUtils.*;
+
+public class Results<T> implements Iterable<T> {
+
+    private RowDef rowDef;
+    private RowExtractor rowExtractor;
+    private List<Results> connectionOpenResultses;
+    private Class rowClass;
+    private StatementCache statementCache;
+    private String sql;
+    private PreparedStatement statement;
+    private ResultSet resultSet;
+    private Object nextRow;
+    private boolean ignoreMissingResultSetColumns;
+    private boolean queryOptionsApplied;
+
+    // Pipelined results (only set if rows are extracted on a background producer thread)
+    private static final Object END_OF_ROWS = new Object();
+    private static final Object NULL_ROW = new Object(); // queued in place of null rows (e.g. null single values)
+    private BlockingQueue<Object> pipelineQueue;
+    private Thread producerThread;
+    private volatile boolean producerStopped;
+
+    public Results(StatementCache statementCache, List<Results> connectionOpenResultses, Class rowClass, String sql, boolean ignoreMissingResultSetColumns, boolean forUpdate, Object... parameterValues) {
+        this(statementCache, connectionOpenResultses, rowClass, null, sql, ignoreMissingResultSetColumns, forUpdate, parameterValues);
+    }
+
+    public Results(StatementCache statementCache, List<Results> connectionOpenResultses, Class rowClass, QueryOptions queryOptions, String sql, boolean ignoreMissingResultSetColumns, boolean forUpdate, Object... parameterValues) {
+        this.ignoreMissingResultSetColumns = ignoreMissingResultSetColumns;
+
+        String sqlToUse;
+        if (String.class.isAssignableFrom(rowClass)) {
+            rowDef = null;
+            rowExtractor = new StringRowExtractor();
+            sqlToUse = sql;
+        } else if (Integer.class.isAssignableFrom(rowClass)) {
+            rowDef = null;
+            rowExtractor = new IntegerRowExtractor();
+            sqlToUse = sql;
+        } else if (Long.class.isAssignableFrom(rowClass)) {
+            rowDef = null;
+            rowExtractor = new LongRowExtractor();
+            sqlToUse = sql;
+        } else if (BigDecimal.class.isAssignableFrom(rowClass)) {
+            rowDef = null;
+            rowExtractor = new BigDecimalRowExtractor();
+            sqlToUse = sql;
+        } else if (Boolean.class.isAssignableFrom(rowClass)) {
+            rowDef = null;
+            rowExtractor = new BooleanRowExtractor();
+            sqlToUse = sql;
+        } else if (Date.class.isAssignableFrom(rowClass)) {
+            rowDef = null;
+            rowExtractor = new DateRowExtractor();
+            sqlToUse = sql;
+        } else if (Day.class.isAssignableFrom(rowClass)) {
+            rowDef = null;
+            rowExtractor = new DayRowExtractor();
+            sqlToUse = sql;
+        } else if (LocalDate.class.isAssignableFrom(rowClass)) {
+            rowDef = null;
+            rowExtractor = new LocalDateRowExtractor();
+            sqlToUse = sql;
+        } else if (LocalDateTime.class.isAssignableFrom(rowClass)) {
+            rowDef = null;
+            rowExtractor = new LocalDateTimeRowExtractor();
+            sqlToUse = sql;
+        } else if (Map.class.isAssignableFrom(rowClass)) {
+            rowDef = null;
+            rowExtractor = new MapRowExtractor();
+            sqlToUse = sql;
+        } else if (Object[].class.isAssignableFrom(rowClass)) {
+            rowDef = null;
+            rowExtractor = new ArrayRowExtractor();
+            sqlToUse = sql;
+        } else {
+            rowExtractor = new ObjectRowExtractor();
+            if (sql.equalsIgnoreCase("all")) {
+                rowDef = TableDef.getTableDefForRowClass(rowClass);
+                sqlToUse = String.format("select * from %s", ((TableDef) rowDef).tableName);
+            } else if (sql.matches("(?si)\\s*where\\s+.*")) {
+                rowDef = TableDef.getTableDefForRowClass(rowClass);
+                sqlToUse = String.format("select * from %s %s", ((TableDef) rowDef).tableName, sql);
+            } else {
+                rowDef = RowDef.getRowDefForRowClass(rowClass);
+                sqlToUse = sql;
+            }
+        }
+        if (forUpdate) {
+            sqlToUse += " for update";
+        }
+
+        connectionOpenResultses.add(this);
+        this.connectionOpenResultses = connectionOpenResultses;
+        this.rowClass = rowClass;
+        this.statementCache = statementCache;
+        this.sql = sqlToUse;
+        try {
+
+            statement = statementCache.checkout(sqlToUse);
+            if (queryOptions != null) {
+                queryOptionsApplied = true;
+                applyQueryOptions(statement, queryOptions);
+            }
+            for (int i = 0; i < parameterValues.length; i++) {
+                setObject(statement, i + 1, parameterValues[i]);
+            }
+            resultSet = statement.executeQuery();
+            if (queryOptions != null && queryOptions.getPipelineQueueSize() != 0) {
+                startProducer(queryOptions.getPipelineQueueSize());
+            }
+            fetchNext();
+
+        } catch (SQLException e) {
+            Jidbc.logSqlException(e, sqlToUse, parameterValues);
+            throw new SQLRuntimeException(e);
+        }
+    }
+
+    /**
+     * Returns a lazy stream of the query's rows.  The query is not executed until the
+     * stream's terminal operation starts, rows are then pulled from the result set one at a
+     * time as the stream needs them (so short-circuiting operations such as limit and
+     * findFirst don't read the rest of the rows) and closing the stream closes the Results.
+     * Streams that are not read to the end should be closed (e.g. with try-with-resources),
+     * otherwise their Results are closed when the JidbcConnection is released.
+     */
+    public static <T> Stream<T> stream(final StatementCache statementCache, final List<Results> connectionOpenResultses, final Class rowClass, final QueryOptions queryOptions, final String sql, final boolean ignoreMissingResultSetColumns, final boolean forUpdate, final Object... parameterValues) {
+        final Results[] resultsHolder = new Results[1];
+        Supplier<Spliterator<T>> spliteratorSupplier = new Supplier<Spliterator<T>>() {
+            public Spliterator<T> get() {
+                Results<T> results = new Results<T>(statementCache, connectionOpenResultses, rowClass, queryOptions, sql, ignoreMissingResultSetColumns, forUpdate, parameterValues);
+                resultsHolder[0] = results;
+                return results.spliterator();
+            }
+        };
+        return StreamSupport.stream(spliteratorSupplier, Spliterator.ORDERED | Spliterator.NONNULL, false).onClose(new Runnable() {
+            public void run() {
+                if (resultsHolder[0] != null) {
+                    resultsHolder[0].close();
+                }
+            }
+        });
+    }
+
+    private void startProducer(int pipelineQueueSize) {
+        pipelineQueue = new ArrayBlockingQueue<Object>(pipelineQueueSize);
+        producerThread = newThread(new Runnable() {
+            public void run() {
+                produceRows();
+            }
+        }, "jidbc-results-producer");
+        producerThread.start();
+    }
+
+    /**
+     * Runs on the producer thread, reading and extracting rows into the pipeline queue until
+     * the rows run out, something fails or the Results is closed.
+     */
+    private void produceRows() {
+        try {
+            while (!producerStopped) {
+                Object row = resultSet.next()
+                             ? rowExtractor.extractRowFromResultSet(rowClass, rowDef, resultSet, ignoreMissingResultSetColumns)
+                             : END_OF_ROWS;
+                if (!offerToPipeline(row != null ? row : NULL_ROW) || row == END_OF_ROWS) {
+                    return;
+                }
+            }
+        } catch (Throwable t) {
+            offerToPipeline(new ProducerFailure(t));
+        }
+    }
+
+    private boolean offerToPipeline(Object item) {
+        try {
+            while (!pipelineQueue.offer(item, 100, TimeUnit.MILLISECONDS)) {
+                if (producerStopped) {
+                    return false;
+                }
+            }
+            return true;
+        } catch (InterruptedException e) {
+            return false;
+        }
+    }
+
+    private void fetchNextFromPipeline() {
+        if (producerThread == null) {
+            return; // already closed
+        }
+        Object item;
+        try {
+            item = pipelineQueue.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            close();
+            throw new RuntimeException(e);
+        }
+        if (item == END_OF_ROWS) {
+            close();
+        } else if (item instanceof ProducerFailure) {
+            close();
+            Throwable t = ((ProducerFailure) item).throwable;
+            if (t instanceof RuntimeException) {
+                throw (RuntimeException) t;
+            } else if (t instanceof Error) {
+                throw (Error) t;
+            } else if (t instanceof SQLException) {
+                throw new SQLRuntimeException((SQLException) t);
+            } else {
+                throw new RuntimeException(t);
+            }
+        } else {
+            nextRow = item != NULL_ROW ? item : null;
+        }
+    }
+
+    /**
+     * Stops the producer thread and waits for it to finish (so that the result set and
+     * statement are no longer in use when they are closed).
+     */
+    private void stopProducer() {
+        producerStopped = true;
+        pipelineQueue.clear();
+        boolean interrupted = false;
+        while (true) {
+            try {
+                producerThread.join();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        producerThread = null;
+        pipelineQueue.clear();
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void fetchNext() {
+        if (pipelineQueue != null) {
+            fetchNextFromPipeline();
+            return;
+        }
+        try {
+            if (resultSet.next()) {
+                nextRow = rowExtractor.extractRowFromResultSet(rowClass, rowDef, resultSet, ignoreMissingResultSetColumns);
+            } else {
+                close();
+            }
+        } catch (SQLException e) {
+            throw new SQLRuntimeException(e);
+        }
+    }
+
+    public void close() {
+        try {
+            nextRow = null;
+            connectionOpenResultses.remove(this);
+            if (producerThread != null) {
+                stopProducer();
+            }
+            if (resultSet != null) {
+                resultSet.close();
+                resultSet = null;
+            }
+            if (statement != null) {
+                PreparedStatement statementToCheckin = statement;
+                statement = null;
+                if (queryOptionsApplied) {
+
+                    // Put the statement back to its default settings before it is reused
+                    queryOptionsApplied = false;
+                    resetQueryOptions(statementToCheckin);
+
+                }
+                statementCache.checkin(sql, statementToCheckin);
+            }
+        } catch (SQLException e) {
+            throw new SQLRuntimeException(e);
+        }
+    }
+
+    public Spliterator<T> spliterator() {
+        return new Spliterators.AbstractSpliterator<T>(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+            public boolean tryAdvance(Consumer<? super T> action) {
+                if (nextRow == null) {
+                    return false;
+                }
+                T rowToReturn = (T) nextRow;
+                fetchNext();
+                action.accept(rowToReturn);
+                return true;
+            }
+        };
+    }
+
+    public Iterator<T> iterator() {
+        return new Iterator<T>() {
+
+            public boolean hasNext() {
+                return nextRow != null;
+            }
+
+            public T next() {
+                T rowToReturn = (T) nextRow;
+                fetchNext();
+                return rowToReturn;
+            }
+
+            public void remove() {
+                throw new UnsupportedOperationException("The .remove method is not supported");
+            }
+
+        };
+    }
+
+    private static class ProducerFailure {
+
+        private final Throwable throwable;
+
+        private ProducerFailure(Throwable throwable) {
+            this.throwable = throwable;
+        }
+
+    }
+
+}
@@ -0,0 +1,464 @@
+/*
+
+Copyright (c) 2013, Jirvan Pty Ltd
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+
+    * Redistributions of source code must retain the above copyright notice,
+      this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above copyright notice,
+      this list of conditions and the following disclaimer in the documentation
+      and/or other materials provided with the distribution.
+    * Neither the name of Jirvan Pty Ltd nor the names of its contributors
+      may be used to endorse or promote products derived from this software
+      without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+(INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+*/
+
+package com.jirvan.jidbc.internal;
+
+import com.jirvan.jidbc.DatabaseDefault;
+import com.jirvan.jidbc.GeneratedRowMapper;
+import com.jirvan.jidbc.JidbcConstructor;
+import com.jirvan.jidbc.JidbcIgnore;
+import com.jirvan.jidbc.NullAsDefault;
+import com.jirvan.jidbc.StoreAsTimestamp;
+import com.jirvan.jidbc.UnsupportedDataTypeException;
+
+import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+public class RowDef {
+
+    /**
+     * Row defs keyed by row class.  Lookups of already registered row classes are a
+     * plain (lock free) get, a row class is only ever introspected once (by whichever
+     * thread gets to it first) and different row classes can be introspected concurrently.
+     */
+    protected static final ConcurrentMap<Class, RowDef> rowDefMap = new ConcurrentHashMap<Class, RowDef>();
+
+    // Class.isRecord and Class.getRecordComponents (null if running on a pre record JVM)
+    private static final Method IS_RECORD_METHOD = findClassMethod("isRecord");
+    private static final Method GET_RECORD_COMPONENTS_METHOD = findClassMethod("getRecordComponents");
+
+    Class rowClass;
+    List<ColumnDef> columnDefs = new ArrayList<>();
+    volatile RowMapper rowMapper; // built on first use by RowMapper.forRowDef
+    GeneratedRowMapper generatedRowMapper; // only set if the column defs came from a generated row mapper
+    MethodHandle rowConstructor;           // (Object[])Object, only set for records and @JidbcConstructor row classes
+
+    protected RowDef(Class rowClass) {
+        this.rowClass = rowClass;
+    }
+
+    public static RowDef getRowDefForRowClass(Class rowClass) {
+
+        // Try a plain get first as computeIfAbsent locks the bin even when the key is present
+        RowDef rowDef = rowDefMap.get(rowClass);
+        if (rowDef == null) {
+            rowDef = rowDefMap.computeIfAbsent(rowClass, new Function<Class, RowDef>() {
+                public RowDef apply(Class rowClass) {
+                    return extractRowDefFromRowClass(rowClass, null);
+                }
+            });
+        }
+        return rowDef;
+    }
+
+    public static void deregisterRowClasses() {
+        rowDefMap.clear();
+    }
+
+    private static RowDef extractRowDefFromRowClass(final Class rowClass, final String[] idAttributes) {
+
+        RowDef rowDef = new RowDef(rowClass);
+        GeneratedRowMapper generatedRowMapper = findGeneratedRowMapper(rowClass);
+        if (generatedRowMapper != null) {
+            addGeneratedColumnDefsToRowDef(generatedRowMapper, rowDef);
+        } else {
+            addColumnDefsToRowDef(rowClass, rowDef);
+        }
+        return rowDef;
+
+    }
+
+    /**
+     * Adds the column defs for the row class's constructor parameters if it is a record or
+     * has a @JidbcConstructor constructor, otherwise adds the basic (field and getter/setter
+     * based) column defs.
+     */
+    protected static void addColumnDefsToRowDef(Class rowClass, RowDef rowDef) {
+        Constructor rowConstructor = findRowConstructor(rowClass);
+        if (rowConstructor != null) {
+            addConstructorColumnDefsToRowDef(rowClass, rowConstructor, rowDef);
+        } else {
+            addBasicColumnDefsToRowDef(rowClass, rowDef);
+        }
+    }
+
+    /**
+     * Creates a row via the row def's row constructor (the attribute values must be in
+     * column def order).
+     */
+    Object constructRow(Object[] attributeValues) {
+        try {
+            return (Object) rowConstructor.invokeExact(attributeValues);
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new RuntimeException(t);
+        }
+    }
+
+    private static Constructor findRowConstructor(Class rowClass) {
+
+        // Look for an annotated constructor
+        Constructor annotatedConstructor = null;
+        for (Constructor constructor : rowClass.getDeclaredConstructors()) {
+            if (constructor.getAnnotation(JidbcConstructor.class) != null) {
+                if (annotatedConstructor != null) {
+                    throw new RuntimeException(String.format("Row class %s has more than one @JidbcConstructor constructor", rowClass.getName()));
+                }
+                annotatedConstructor = constructor;
+            }
+        }
+        if (annotatedConstructor != null) {
+            return annotatedConstructor;
+        }
+
+        // Use the canonical constructor of records
+        if (isRecord(rowClass)) {
+            Object[] recordComponents = getRecordComponents(rowClass);
+            Class[] parameterTypes = new Class[recordComponents.length];
+            for (int i = 0; i < recordComponents.length; i++) {
+                parameterTypes[i] = (Class) invokeRecordComponentMethod(recordComponents[i], "getType");
+            }
+            try {
+                return rowClass.getDeclaredConstructor(parameterTypes);
+            } catch (NoSuchMethodException e) {
+                throw new RuntimeException(e);
+            }
+        }
+
+        return null;
+
+    }
+
+    private static void addConstructorColumnDefsToRowDef(Class rowClass, Constructor rowConstructor, RowDef rowDef) {
+
+        // Determine the attribute names (in constructor parameter order)
+        Class[] parameterTypes = rowConstructor.getParameterTypes();
+        String[] attributeNames = new String[parameterTypes.length];
+        JidbcConstructor annotation = (JidbcConstructor) rowConstructor.getAnnotation(JidbcConstructor.class);
+        if (annotation != null && annotation.value().length > 0) {
+            if (annotation.value().length != parameterTypes.length) {
+                throw new RuntimeException(String.format("The @JidbcConstructor of row class %s lists %d attribute names but has %d parameters", rowClass.getName(), annotation.value().length, parameterTypes.length));
+            }
+            attributeNames = annotation.value();
+        } else if (annotation == null) {
+            Object[] recordComponents = getRecordComponents(rowClass);
+            for (int i = 0; i < recordComponents.length; i++) {
+                attributeNames[i] = (String) invokeRecordComponentMethod(recordComponents[i], "getName");
+            }
+        } else {
+            Parameter[] parameters = rowConstructor.getParameters();
+            for (int i = 0; i < parameters.length; i++) {
+                if (!parameters[i].isNamePresent()) {
+                    throw new RuntimeException(String.format("The @JidbcConstructor of row class %s does not list its attribute names and its parameter names are not available (compile with -parameters or list the names in the annotation)", rowClass.getName()));
+                }
+                attributeNames[i] = parameters[i].getName();
+            }
+        }
+
+        // Add a column def for each parameter (with the field or getter used to read the attribute back)
+        for (int i = 0; i < parameterTypes.length; i++) {
+            checkAttributeTypeIsSupported(parameterTypes[i]);
+            ColumnDef columnDef = new ColumnDef();
+            columnDef.attributeName = attributeNames[i];
+            columnDef.attributeType = parameterTypes[i];
+            columnDef.columnName = guessDatabaseNameFromJavaName(attributeNames[i]);
+            try {
+                columnDef.field = rowClass.getField(attributeNames[i]);
+            } catch (NoSuchFieldException e) {
+                columnDef.getterMethod = findAccessor(rowClass, attributeNames[i]);
+            }
+            Class readBackType = columnDef.field != null ? columnDef.field.getType() : columnDef.getterMethod.getReturnType();
+            if (readBackType != parameterTypes[i]) {
+                throw new RuntimeException(String.format("Attribute %s of row class %s is a %s but its constructor parameter is a %s", attributeNames[i], rowClass.getName(), readBackType.getName(), parameterTypes[i].getName()));
+            }
+            AnnotatedElement annotatedElement = columnDef.field != null ? columnDef.field : columnDef.getterMethod;
+            columnDef.storeAsTimestamp = annotatedElement.getAnnotation(StoreAsTimestamp.class) != null;
+            columnDef.nullAsDefault = annotatedElement.getAnnotation(NullAsDefault.class) != null;
+            columnDef.hasDatabaseDefault = annotatedElement.getAnnotation(DatabaseDefault.class) != null;
+            columnDef.resolveAccessors();
+            columnDef.columnType = ColumnType.forColumnDef(columnDef);
+            rowDef.columnDefs.add(columnDef);
+        }
+
+        // Resolve the constructor handle
+        try {
+            rowDef.rowConstructor = MethodHandles.lookup().unreflectConstructor(rowConstructor)
+                                                 .asType(MethodType.genericMethodType(parameterTypes.length))
+                                                 .asSpreader(Object[].class, parameterTypes.length);
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException(String.format("The row constructor of row class %s is not accessible", rowClass.getName()), e);
+        }
+
+    }
+
+    private static Method findAccessor(Class rowClass, String attributeName) {
+        String capitalizedAttributeName = attributeName.substring(0, 1).toUpperCase() + attributeName.substring(1);
+        for (String methodName : new String[]{"get" + capitalizedAttributeName, "is" + capitalizedAttributeName, attributeName}) {
+            try {
+                return rowClass.getMethod(methodName);
+            } catch (NoSuchMethodException e) {
+            }
+        }
+        throw new RuntimeException(String.format("Row class %s has no public field, getter or accessor for constructor attribute %s", rowClass.getName(), attributeName));
+    }
+
+    private static Method findClassMethod(String methodName) {
+        try {
+            return Class.class.getMethod(methodName);
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    private static boolean isRecord(Class rowClass) {
+        if (IS_RECORD_METHOD == null) {
+            return false;
+        }
+        try {
+            return (Boolean) IS_RECORD_METHOD.invoke(rowClass);
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException(e);
+        } catch (InvocationTargetException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static Object[] getRecordComponents(Class rowClass) {
+        try {
+            Object recordComponents = GET_RECORD_COMPONENTS_METHOD.invoke(rowClass);
+            Object[] components = new Object[Array.getLength(recordComponents)];
+            for (int i = 0; i < components.length; i++) {
+                components[i] = Array.get(recordComponents, i);
+            }
+            return components;
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException(e);
+        } catch (InvocationTargetException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static Object invokeRecordComponentMethod(Object recordComponent, String methodName) {
+        try {
+            return recordComponent.getClass().getMethod(methodName).invoke(recordComponent);
+        } catch (NoSuchMethodException e) {
+            throw new RuntimeException(e);
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException(e);
+        } catch (InvocationTargetException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Returns true if the column defs came from a row mapper generated by the jidbc-processor
+     * annotation processor (rather than from introspecting the row class).
+     */
+    public boolean usesGeneratedRowMapper() {
+        return generatedRowMapper != null;
+    }
+
+    /**
+     * Returns an instance of the row mapper generated (by the jidbc-processor annotation
+     * processor) for the row class or null if there isn't one.
+     */
+    protected static GeneratedRowMapper findGeneratedRowMapper(Class rowClass) {
+        Class generatedRowMapperClass;
+        try {
+            generatedRowMapperClass = Class.forName(rowClass.getName() + GeneratedRowMapper.GENERATED_CLASS_NAME_SUFFIX, true, rowClass.getClassLoader());
+        } catch (ClassNotFoundException e) {
+            return null;
+        }
+        try {
+            return (GeneratedRowMapper) generatedRowMapperClass.newInstance();
+        } catch (InstantiationException e) {
+            throw new RuntimeException(e);
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    protected static void addGeneratedColumnDefsToRowDef(GeneratedRowMapper generatedRowMapper, RowDef rowDef) {
+        GeneratedRowMapper.Column[] columns = generatedRowMapper.getColumns();
+        for (int i = 0; i < columns.length; i++) {
+            ColumnDef columnDef = new ColumnDef();
+            columnDef.attributeName = columns[i].attributeName;
+            columnDef.attributeType = columns[i].attributeType;
+            columnDef.storeAsTimestamp = columns[i].storeAsTimestamp;
+            columnDef.nullAsDefault = columns[i].nullAsDefault;
+            columnDef.hasDatabaseDefault = columns[i].hasDatabaseDefault;
+            columnDef.columnName = guessDatabaseNameFromJavaName(columns[i].attributeName);
+            columnDef.resolveAccessors(generatedRowMapper, i);
+            columnDef.columnType = ColumnType.forColumnDef(columnDef);
+            rowDef.columnDefs.add(columnDef);
+        }
+        rowDef.generatedRowMapper = generatedRowMapper;
+    }
+
+    protected static void addBasicColumnDefsToRowDef(Class rowClass, final RowDef rowDef) {
+
+        // Extract public field based column defs
+        for (final Field field : rowClass.getFields()) {
+            Annotation annotation = field.getAnnotation(JidbcIgnore.class);
+            if (!(annotation instanceof JidbcIgnore) && !Collection.class.isAssignableFrom(field.getType())) {
+                checkAttributeTypeIsSupported(field.getType());
+                extractAndAddColumnDefFromField(field, rowDef);
+            }
+        }
+
+        // Extract get/set method based column defs
+        Pattern GET_METHOD_PATTERN = Pattern.compile("^get([A-Z].*)$");
+        for (final Method method : rowClass.getMethods()) {
+            if (method.getParameterTypes().length == 0) {
+
+                Annotation annotation = method.getAnnotation(JidbcIgnore.class);
+                if (!(annotation instanceof JidbcIgnore) && !Collection.class.isAssignableFrom(method.getReturnType())) {
+
+                    Matcher matcher = GET_METHOD_PATTERN.matcher(method.getName());
+                    if (matcher.matches()) {
+                        try {
+                            final Method getterMethod = method;
+                            final String afterGetString = matcher.group(1);
+                            final String attributeName = afterGetString.substring(0, 1).toLowerCase() + afterGetString.substring(1);
+                            ColumnDef columnDef = rowDef.columnDefForAttribute(attributeName);
+                            if (columnDef != null) {
+                                columnDef.getterMethod = getterMethod;
+                            } else {
+                                final Method setterMethod = rowClass.getMethod("set" + afterGetString, method.getReturnType());
+                                checkAttributeTypeIsSupported(getterMethod.getReturnType());
+                                extractAndAddColumnDefFromGetterSetterMethods(attributeName, getterMethod, setterMethod, rowDef);
+                            }
+                        } catch (NoSuchMethodException e) {
+                        }
+                    }
+                }
+
+            }
+
+        }
+
+        // Resolve the accessors and column types now that the getter, setter and field of each column def are known
+        for (ColumnDef columnDef : rowDef.columnDefs) {
+            columnDef.resolveAccessors();
+            columnDef.columnType = ColumnType.forColumnDef(columnDef);
+        }
+    }
+
+    private static void checkAttributeTypeIsSupported(Class attributeType) {
+        if (ColumnType.forAttributeType(attributeType, false) == null) {
+            throw new UnsupportedDataTypeException(String.format("%s is an unsupported type",
+                                                                 attributeType.getName()));
+        }
+    }
+
+    private ColumnDef columnDefForAttribute(String attributeName) {
+        for (ColumnDef columnDef : columnDefs) {
+            if (columnDef.attributeName.equals(attributeName)) {
+                return columnDef;
+            }
+        }
+        return null;
+    }
+
+    private static void extractAndAddColumnDefFromField(Field field, RowDef rowDef) {
+        ColumnDef columnDef = new ColumnDef();
+        columnDef.attributeName = field.getName();
+        columnDef.attributeType = field.getType();
+        columnDef.storeAsTimestamp = field.getAnnotation(StoreAsTimestamp.class) != null;
+        columnDef.nullAsDefault = field.getAnnotation(NullAsDefault.class) != null;
+        columnDef.hasDatabaseDefault = field.getAnnotation(DatabaseDefault.class) != null;
+        columnDef.field = field;
+        columnDef.columnName = guessDatabaseNameFromJavaName(field.getName());
+        rowDef.columnDefs.add(columnDef);
+    }
+
+    private static void extractAndAddColumnDefFromGetterSetterMethods(String attributeName, Method getterMethod, Method setterMethod, RowDef rowDef) {
+        ColumnDef columnDef = new ColumnDef();
+        columnDef.attributeName = attributeName;
+        columnDef.attributeType = getterMethod.getReturnType();
+        columnDef.storeAsTimestamp = getterMethod.getAnnotation(StoreAsTimestamp.class) != null;
+        columnDef.nullAsDefault = getterMethod.getAnnotation(NullAsDefault.class) != null;
+        columnDef.hasDatabaseDefault = getterMethod.getAnnotation(DatabaseDefault.class) != null;
+        columnDef.getterMethod = getterMethod;
+        columnDef.setterMethod = setterMethod;
+        columnDef.columnName = guessDatabaseNameFromJavaName(attributeName);
+        rowDef.columnDefs.add(columnDef);
+    }
+
+    protected static String guessDatabaseNameFromJavaName(String fieldName) {
+        StringBuffer buf = new StringBuffer();
+        char[] chars = fieldName.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            char c = chars[i];
+            if (i == 0) {
+                if (c < 'A' || c > 'Z') {
+                    buf.append(c);
+                } else {
+                    buf.append((char) (c - ('A' - 'a')));
+                }
+            } else {
+                if ('0' <= c && c <= '9') {
+                    char previousChar = chars[i - 1];
+                    if ('a' <= previousChar && previousChar <= 'z') {
+                        buf.append('_');
+                    }
+                    buf.append(c);
+                } else if (c < 'A' || c > 'Z') {
+                    buf.append(c);
+                } else {
+                    buf.append('_');
+                    buf.append((char) (c - ('A' - 'a')));
+                }
+            }
+        }
+        return buf.toString();
+    }
+
+}
@@ -0,0 +1,211 @@
+/*
+
+Copyright (c) 2013, Jirvan Pty Ltd
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+
+    * Redistributions of source code must retain the above copyright notice,
+      this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above copyright notice,
+      this list of conditions and the following disclaimer in the documentation
+      and/or other materials provided with the distribution.
+    * Neither the name of Jirvan Pty Ltd nor the names of its contributors
+      may be used to endorse or promote products derived from this software
+      without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+(INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+*/
+
+package com.jirvan.jidbc.internal;
+
+import com.jirvan.jidbc.GeneratedRowMapper;
+import com.jirvan.lang.SQLRuntimeException;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+
+/**
+ * A mapper dedicated to a particular row class.  It is built once per row def (the first
+ * time the row class is extracted from a result set) and holds everything that the
+ * reflective extraction in ObjectRowExtractor works out per column per row: the column
+ * type of each column def (i.e. which typed ResultSet getter to call and how to convert
+ * the result) and a method handle for the row class's no-arg constructor (or
+ * the newRow method of the row class's generated row mapper if it has one).
+ * Columns are read by index, the indexes being resolved once per result set.
+ */
+public class RowMapper<T> {
+
+    private static final MethodType CONSTRUCTOR_TYPE = MethodType.methodType(Object.class);
+
+    final Class rowClass;
+    final ColumnDef[] columnDefs;
+    private final ColumnType[] columnTypes;
+    private final MethodHandle constructor;    // ()Object
+    private final RowDef constructingRowDef;   // only set if rows are created via the row def's row constructor
+
+    private RowMapper(Class rowClass, ColumnDef[] columnDefs, ColumnType[] columnTypes, MethodHandle constructor, RowDef constructingRowDef) {
+        this.rowClass = rowClass;
+        this.columnDefs = columnDefs;
+        this.columnTypes = columnTypes;
+        this.constructor = constructor;
+        this.constructingRowDef = constructingRowDef;
+    }
+
+    /**
+     * Returns the row mapper for the row def and row class, or null if the row class
+     * cannot be handled by a row mapper (in which case reflective extraction should be
+     * used).  The row mapper is cached on the row def.
+     */
+    static <T> RowMapper<T> forRowDef(RowDef rowDef, Class rowClass) {
+        RowMapper rowMapper = rowDef.rowMapper;
+        if (rowMapper == null || rowMapper.rowClass != rowClass) {
+            rowMapper = createRowMapper(rowDef, rowClass);
+            if (rowDef.rowMapper == null) {
+                rowDef.rowMapper = rowMapper;
+            }
+        }
+        return rowMapper.constructor != null || rowMapper.constructingRowDef != null ? rowMapper : null;
+    }
+
+    private static RowMapper createRowMapper(RowDef rowDef, Class rowClass) {
+        ColumnDef[] columnDefs = rowDef.columnDefs.toArray(new ColumnDef[rowDef.columnDefs.size()]);
+        ColumnType[] columnTypes = new ColumnType[columnDefs.length];
+        for (int i = 0; i < columnDefs.length; i++) {
+            columnTypes[i] = columnDefs[i].columnType;
+            if (columnTypes[i] == null) {
+                return new RowMapper(rowClass, columnDefs, columnTypes, null, null);
+            }
+        }
+        if (rowDef.rowConstructor != null) {
+            return new RowMapper(rowClass, columnDefs, columnTypes, null, rowClass == rowDef.rowClass ? rowDef : null);
+        }
+        MethodHandle constructor;
+        try {
+            if (rowDef.generatedRowMapper != null && rowClass == rowDef.rowClass) {
+                constructor = MethodHandles.lookup().findVirtual(GeneratedRowMapper.class, "newRow", CONSTRUCTOR_TYPE).bindTo(rowDef.generatedRowMapper);
+            } else {
+                constructor = MethodHandles.lookup().findConstructor(rowClass, MethodType.methodType(void.class)).asType(CONSTRUCTOR_TYPE);
+            }
+        } catch (NoSuchMethodException e) {
+            constructor = null;
+        } catch (IllegalAccessException e) {
+            constructor = null;
+        }
+        return new RowMapper(rowClass, columnDefs, columnTypes, constructor, null);
+    }
+
+    /**
+     * Works out the result set column index for each of the mapper's column defs.  Missing
+     * columns are given an index of 0 (and skipped during extraction) if
+     * ignoreMissingResultSetColumns is true, otherwise they cause an exception.
+     */
+    public int[] resolveColumnIndexes(ResultSet resultSet, boolean ignoreMissingResultSetColumns) {
+        return resolveColumnIndexes(columnDefs, resultSet, ignoreMissingResultSetColumns);
+    }
+
+    /**
+     * As for resolveColumnIndexes(ResultSet, boolean) but for the given column defs (also
+     * used by reflective extraction).
+     */
+    static int[] resolveColumnIndexes(ColumnDef[] columnDefs, ResultSet resultSet, boolean ignoreMissingResultSetColumns) {
+        try {
+            ResultSetMetaData metaData = resultSet.getMetaData();
+            int columnCount = metaData.getColumnCount();
+            String[] resultSetColumnNames = new String[columnCount];
+            for (int i = 0; i < columnCount; i++) {
+                resultSetColumnNames[i] = metaData.getColumnLabel(i + 1);
+            }
+            int[] columnIndexes = new int[columnDefs.length];
+            for (int i = 0; i < columnDefs.length; i++) {
+                columnIndexes[i] = findColumnIndex(resultSetColumnNames, columnDefs[i].columnName);
+                if (columnIndexes[i] == 0 && !ignoreMissingResultSetColumns) {
+                    throw new SQLException(String.format("The column name %s was not found in this ResultSet.", columnDefs[i].columnName));
+                }
+            }
+            return columnIndexes;
+        } catch (SQLException e) {
+            throw new SQLRuntimeException(e);
+        }
+    }
+
+    private static int findColumnIndex(String[] resultSetColumnNames, String columnName) {
+        for (int i = 0; i < resultSetColumnNames.length; i++) {
+            if (columnName.equals(resultSetColumnNames[i])) return i + 1;
+        }
+        for (int i = 0; i < resultSetColumnNames.length; i++) {
+            if (columnName.equalsIgnoreCase(resultSetColumnNames[i])) return i + 1;
+        }
+        return 0;
+    }
+
+    public T extractRow(ResultSet resultSet, int[] columnIndexes) {
+        if (constructingRowDef != null) {
+            return constructRow(resultSet, columnIndexes);
+        }
+        T row = newRow();
+        populateRow(resultSet, columnIndexes, row);
+        return row;
+    }
+
+    /**
+     * Populates an existing row (rather than creating a new one) from the result set's
+     * current row.  Not supported for row classes whose rows are created via a constructor.
+     */
+    public void populateRow(ResultSet resultSet, int[] columnIndexes, T row) {
+        try {
+            for (int i = 0; i < columnDefs.length; i++) {
+                if (columnIndexes[i] != 0) {
+                    columnTypes[i].readInto(resultSet, columnIndexes[i], columnDefs[i], row);
+                }
+            }
+        } catch (SQLException e) {
+            throw new SQLRuntimeException(e);
+        }
+    }
+
+    /**
+     * Reads all of the column values and then creates the row with a single constructor call.
+     */
+    private T constructRow(ResultSet resultSet, int[] columnIndexes) {
+        Object[] attributeValues = new Object[columnDefs.length];
+        try {
+            for (int i = 0; i < columnDefs.length; i++) {
+                attributeValues[i] = columnIndexes[i] != 0
+                                     ? columnTypes[i].read(resultSet, columnIndexes[i], columnDefs[i])
+                                     : columnTypes[i].defaultValue();
+            }
+        } catch (SQLException e) {
+            throw new SQLRuntimeException(e);
+        }
+        return (T) constructingRowDef.constructRow(attributeValues);
+    }
+
+    private T newRow() {
+        try {
+            return (T) (Object) constructor.invokeExact();
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new RuntimeException(t);
+        }
+    }
+
+}
@@ -0,0 +1,107 @@
+/*
+
+Copyright (c) 2013, Jirvan Pty Ltd
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+
+    * Redistributions of source code must retain the above copyright notice,
+      this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above copyright notice,
+      this list of conditions and the following disclaimer in the documentation
+      and/or other materials provided with the distribution.
+    * Neither the name of Jirvan Pty Ltd nor the names of its contributors
+      may be used to endorse or promote products derived from this software
+      without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+(INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+*/
+
+package com.jirvan.jidbc.internal;
+
+import com.jirvan.jidbc.*;
+import com.jirvan.lang.*;
+
+import java.sql.*;
+
+public class SaveHandler extends AbstractPkWhereClauseHandler {
+
+    /**
+     * Inserts the row, or updates it if it already exists.  Where the database has a native
+     * upsert (insert ... on conflict or merge) this is done in a single statement, otherwise
+     * the row's existence is checked first.
+     */
+    public static void save(Connection connection, StatementCache statementCache, Object row) {
+        UpsertDialect upsertDialect = JidbcInternalUtils.getUpsertDialect(connection);
+        if (upsertDialect != null) {
+            InsertHandler.upsert(connection, statementCache, row, upsertDialect);
+        } else {
+            saveViaExistsCheck(connection, statementCache, row);
+        }
+    }
+
+    /**
+     * Saves the rows.  Where the database has a native upsert the rows are sent in JDBC
+     * batches of up to batchSize rows (see InsertHandler.insertAll for how rows are grouped),
+     * otherwise they are saved one at a time.
+     */
+    public static void saveAll(Connection connection, StatementCache statementCache, Iterable<?> rows, int batchSize) {
+        UpsertDialect upsertDialect = JidbcInternalUtils.getUpsertDialect(connection);
+        if (upsertDialect != null) {
+            InsertHandler.upsertAll(connection, statementCache, rows, batchSize, upsertDialect);
+        } else {
+            for (Object row : rows) {
+                saveViaExistsCheck(connection, statementCache, row);
+            }
+        }
+    }
+
+    private static void saveViaExistsCheck(Connection connection, StatementCache statementCache, Object row) {
+        if (rowExists(connection, statementCache, row)) {
+            UpdateHandler.update(connection, statementCache, row);
+        } else {
+            InsertHandler.insert(connection, statementCache, row, null);
+        }
+    }
+
+    private static boolean rowExists(Connection connection, StatementCache statementCache, Object row) {
+
+        // Get the table def and sql to use
+        TableDef tableDef = TableDef.getTableDefForRowClass(row.getClass());
+        checkHasPkColumns(tableDef, row);
+        String sql = tableDef.existsSql;
+
+        try {
+
+            // Determine if the row already exists
+            PreparedStatement statement = statementCache.checkout(sql);
+            try {
+                bindParameters(statement, tableDef.pkParameterColumnDefs, row);
+                ResultSet resultSet = statement.executeQuery();
+                try {
+                    return resultSet.next();
+                } finally {
+                    resultSet.close();
+                }
+            } finally {
+                statementCache.checkin(sql, statement);
+            }
+
+        } catch (SQLException e) {
+            Jidbc.logSqlException(e, sql, getParameterValues(tableDef.pkParameterColumnDefs, row));
+            throw new SQLRuntimeException(e);
+        }
+    }
+
+}
@@ -37,10 +37,35 @@ import java.sql.*;
 
 public class SequenceHandler {
 
-    public static Long takeSequenceNextVal(Connection connection, String sequenceName) {
+    private static volatile IdAllocator idAllocator;
+
+    /**
+     * Sets the allocator used for the generated ids of inserted rows.  If null (the default)
+     * each generated id is taken from its sequence with takeSequenceNextVal.
+     */
+    public static void setIdAllocator(IdAllocator idAllocator) {
+        SequenceHandler.idAllocator = idAllocator;
+    }
+
+    public static IdAllocator getIdAllocator() {
+        return idAllocator;
+    }
+
+    /**
+     * Returns a generated id for an inserted row from the id allocator if one has been set,
+     * otherwise directly from the sequence.
+     */
+    static Long takeGeneratedId(Connection connection, StatementCache statementCache, String sequenceName) {
+        IdAllocator idAllocator = SequenceHandler.idAllocator;
+        return idAllocator != null
+               ? idAllocator.allocateId(connection, sequenceName)
+               : takeSequenceNextVal(connection, statementCache, sequenceName);
+    }
+
+    public static Long takeSequenceNextVal(Connection connection, StatementCache statementCache, String sequenceName) {
         String sql = String.format("select nextval('%s')", sequenceName);
         try {
-            PreparedStatement statement = connection.prepareStatement(sql);
+            PreparedStatement statement = statementCache.checkout(sql);
             try {
                 ResultSet resultSet = statement.executeQuery();
                 try {
@@ -53,7 +78,7 @@ public class SequenceHandler {
                     resultSet.close();
                 }
             } finally {
-                statement.close();
+                statementCache.checkin(sql, statement);
             }
         } catch (SQLException e) {
             Jidbc.logSqlException(e, sql, null);
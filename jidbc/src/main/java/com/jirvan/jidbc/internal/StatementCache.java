@@ -0,0 +1,156 @@
+/*
+
+Copyright (c) 2013, Jirvan Pty Ltd
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+
+    * Redistributions of source code must retain the above copyright notice,
+      this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above copyright notice,
+      this list of conditions and the following disclaimer in the documentation
+      and/or other materials provided with the distribution.
+    * Neither the name of Jirvan Pty Ltd nor the names of its contributors
+      may be used to endorse or promote products derived from this software
+      without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+(INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+*/
+
+package com.jirvan.jidbc.internal;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+/**
+ * A bounded, least recently used cache of a connection's prepared statements keyed by sql.
+ * Statements are checked out for the duration of their use and checked back in afterwards
+ * (rather than being closed), so a statement is never in use by two callers at once (e.g. a
+ * query executed while iterating over the Results of the same query simply gets a statement
+ * of its own).  A max size of zero disables caching (statements are prepared on checkout and
+ * closed on checkin).
+ * <p>
+ * Statement caches are not thread safe (neither are the connections they belong to).
+ */
+public class StatementCache {
+
+    public static final int DEFAULT_MAX_SIZE = 64;
+
+    private final Connection connection;
+    private final LinkedHashMap<String, PreparedStatement> statements = new LinkedHashMap<String, PreparedStatement>(16, 0.75f, true);
+    private int maxSize;
+    private long hits;
+    private long misses;
+
+    public StatementCache(Connection connection) {
+        this(connection, DEFAULT_MAX_SIZE);
+    }
+
+    public StatementCache(Connection connection, int maxSize) {
+        if (maxSize < 0) {
+            throw new RuntimeException(String.format("Statement cache max size cannot be negative (%d)", maxSize));
+        }
+        this.connection = connection;
+        this.maxSize = maxSize;
+    }
+
+    public PreparedStatement checkout(String sql) throws SQLException {
+        if (maxSize > 0) {
+            PreparedStatement statement = statements.remove(sql);
+            if (statement != null) {
+                hits++;
+                return statement;
+            }
+            misses++;
+        }
+        return connection.prepareStatement(sql);
+    }
+
+    /**
+     * Returns a statement (with any result sets already closed) to the cache, evicting the
+     * least recently used statement if the cache is full.  The statement is closed instead
+     * if caching is disabled or another statement for the same sql has been checked in in
+     * the meantime.
+     */
+    public void checkin(String sql, PreparedStatement statement) throws SQLException {
+        if (maxSize <= 0 || statements.containsKey(sql)) {
+            statement.close();
+            return;
+        }
+        try {
+            statement.clearParameters();
+        } catch (SQLException e) {
+            statement.close();
+            throw e;
+        }
+        statements.put(sql, statement);
+        evictLeastRecentlyUsed(maxSize);
+    }
+
+    /**
+     * Closes and removes all of the cached statements.  Statements that are currently
+     * checked out are not affected.
+     */
+    public void clear() throws SQLException {
+        SQLException firstException = null;
+        for (PreparedStatement statement : statements.values()) {
+            try {
+                statement.close();
+            } catch (SQLException e) {
+                if (firstException == null) firstException = e;
+            }
+        }
+        statements.clear();
+        if (firstException != null) {
+            throw firstException;
+        }
+    }
+
+    public void setMaxSize(int maxSize) throws SQLException {
+        if (maxSize < 0) {
+            throw new RuntimeException(String.format("Statement cache max size cannot be negative (%d)", maxSize));
+        }
+        this.maxSize = maxSize;
+        evictLeastRecentlyUsed(maxSize);
+    }
+
+    private void evictLeastRecentlyUsed(int sizeToEvictDownTo) throws SQLException {
+        Iterator<PreparedStatement> iterator = statements.values().iterator();
+        while (statements.size() > sizeToEvictDownTo) {
+            PreparedStatement leastRecentlyUsedStatement = iterator.next();
+            iterator.remove();
+            leastRecentlyUsedStatement.close();
+        }
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public int size() {
+        return statements.size();
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+}
@@ -0,0 +1,534 @@
+/*
+
+Copyright (c) 2013, Jirvan Pty Ltd
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+
+    * Redistributions of source code must retain the above copyright notice,
+      this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above copyright notice,
+      this list of conditions and the following disclaimer in the documentation
+      and/or other materials provided with the distribution.
+    * Neither the name of Jirvan Pty Ltd nor the names of its contributors
+      may be used to endorse or promote products derived from this software
+      without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+(INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+*/
+
+package com.jirvan.jidbc.internal;
+
+import com.jirvan.jidbc.GeneratedRowMapper;
+import com.jirvan.jidbc.Id;
+import com.jirvan.jidbc.TableRow;
+import com.jirvan.jidbc.TableRowExtensionClass;
+import com.jirvan.util.DatabaseType;
+import com.jirvan.util.Strings;
+
+import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.BiFunction;
+
+public class TableDef extends RowDef {
+
+    String tableName;
+    String generatorSequence;
+    boolean ifSQLiteUseAutoincrement;
+    DatabaseType[] databasesToIgnoreGeneratorSequenceFor;
+    boolean fixedShapeInserts;
+    List<ColumnDef> pkColumnDefs = new ArrayList<ColumnDef>();
+    List<ColumnDef> nonPkColumnDefs = new ArrayList<ColumnDef>();
+
+    // Sql built once (when the table def is built) along with the column defs that
+    // its parameters are to be bound from (in parameter order)
+    String getSql;                         // null if there is not exactly one pk column
+    String getForUpdateSql;                // null if there is not exactly one pk column
+    String getAllArraySql;                 // null if there is not exactly one pk column
+    String existsSql;
+    String deleteSql;
+    String updateSql;
+    ColumnDef[] pkParameterColumnDefs;     // for getSql, getForUpdateSql, existsSql and deleteSql
+    ColumnDef[] updateParameterColumnDefs; // for updateSql
+
+    // Insert sql is built once per shape (i.e. set of included columns) of inserted rows
+    private static final int MAX_CACHED_INSERT_SHAPES = 256;
+    private static volatile boolean useFixedShapeInsertsForAllTables;
+    private final ConcurrentMap<Object, InsertSql> insertSqls = new ConcurrentHashMap<Object, InsertSql>();
+
+    // Get all "in list" sql is built once per (bucketed) pk count
+    private final ConcurrentMap<Integer, String> getAllInListSqls = new ConcurrentHashMap<Integer, String>();
+
+    static class InsertSql {
+
+        final String sql;
+        final ColumnDef[] parameterColumnDefs;
+        private final String valuesPrefix;   // "insert into t (a,b) values "
+        private final String rowPlaceHolders; // "(?,?)"
+        private final ConcurrentMap<Integer, String> multiRowSqls = new ConcurrentHashMap<Integer, String>();
+        private final ConcurrentMap<UpsertDialect, String> upsertSqls = new ConcurrentHashMap<UpsertDialect, String>();
+
+        private InsertSql(String valuesPrefix, String rowPlaceHolders, ColumnDef[] parameterColumnDefs) {
+            this.sql = valuesPrefix + rowPlaceHolders;
+            this.valuesPrefix = valuesPrefix;
+            this.rowPlaceHolders = rowPlaceHolders;
+            this.parameterColumnDefs = parameterColumnDefs;
+        }
+
+        /**
+         * Returns the multi-row version of the sql (insert into t (cols) values
+         * (?,?),(?,?),...) for the given number of rows.  Callers should keep the variety of
+         * row counts small (e.g. a full chunk size plus powers of two) as the sql is cached
+         * per row count.
+         */
+        String getMultiRowSql(int rowCount) {
+            String multiRowSql = multiRowSqls.get(rowCount);
+            if (multiRowSql == null) {
+                StringBuilder stringBuilder = new StringBuilder(valuesPrefix.length() + rowCount * (rowPlaceHolders.length() + 1));
+                stringBuilder.append(valuesPrefix);
+                for (int i = 0; i < rowCount; i++) {
+                    if (i != 0) stringBuilder.append(",");
+                    stringBuilder.append(rowPlaceHolders);
+                }
+                multiRowSql = stringBuilder.toString();
+                multiRowSqls.putIfAbsent(rowCount, multiRowSql);
+            }
+            return multiRowSql;
+        }
+
+    }
+
+    private TableDef(Class rowClass) {
+        super(rowClass);
+    }
+
+    public static TableDef registerTableDefRowClass(Class rowClass, String... idAttributes) {
+        if (rowDefMap.containsKey(rowClass)) {
+            throw new RuntimeException(String.format("A RowDef for %s already exists.  You need to ensure that the row class is registered only once and that it happens before the row class is ever used (which would trigger an automatic registration)", rowClass.getName()));
+        }
+        TableDef tableDef = extractTableDefFromRowClass(rowClass, idAttributes);
+        if (rowDefMap.putIfAbsent(rowClass, tableDef) != null) {
+            throw new RuntimeException(String.format("A RowDef for %s already exists.  You need to ensure that the row class is registered only once and that it happens before the row class is ever used (which would trigger an automatic registration)", rowClass.getName()));
+        }
+        return tableDef;
+    }
+
+    public static TableDef getTableDefForRowClass(Class rowClass) {
+
+        // Try a plain get first (the usual case), only falling back to compute if the row
+        // class has not been registered yet or has only been registered as a plain RowDef
+        RowDef rowDef = rowDefMap.get(rowClass);
+        if (rowDef instanceof TableDef) {
+            return (TableDef) rowDef;
+        }
+        return (TableDef) rowDefMap.compute(rowClass, new BiFunction<Class, RowDef, RowDef>() {
+            public RowDef apply(Class rowClass, RowDef existingRowDef) {
+                return existingRowDef instanceof TableDef
+                       ? existingRowDef
+                       : extractTableDefFromRowClass(rowClass, null);
+            }
+        });
+    }
+
+    public void setGeneratorSequence(String generatorSequence) {
+        this.generatorSequence = generatorSequence;
+    }
+
+    public void setFixedShapeInserts(boolean fixedShapeInserts) {
+        this.fixedShapeInserts = fixedShapeInserts;
+    }
+
+    public static void setUseFixedShapeInsertsForAllTables(boolean useFixedShapeInsertsForAllTables) {
+        TableDef.useFixedShapeInsertsForAllTables = useFixedShapeInsertsForAllTables;
+    }
+
+    private static TableDef extractTableDefFromRowClass(final Class rowClass, final String[] idAttributes) {
+
+        // Check for extension classes
+        Class effectiveRowClass = getEffectiveRowClass(rowClass);
+
+        // Use the generated row mapper if there is one (and id attributes are not being explicitly registered)
+        if (idAttributes == null || idAttributes.length == 0) {
+            GeneratedRowMapper generatedRowMapper = findGeneratedRowMapper(effectiveRowClass);
+            if (generatedRowMapper != null) {
+                return extractTableDefFromGeneratedRowMapper(effectiveRowClass, generatedRowMapper);
+            }
+        }
+
+        // Add column defs
+        final TableDef tableDef = new TableDef(effectiveRowClass);
+        addColumnDefsToRowDef(effectiveRowClass, tableDef);
+
+        // Extract table stuff
+        tableDef.tableName = getTableForEffectiveRowClass(effectiveRowClass);
+        tableDef.fixedShapeInserts = getFixedShapeInsertsForEffectiveRowClass(effectiveRowClass);
+
+        // Process annotations
+        for (ColumnDef columnDef : tableDef.columnDefs) {
+            if (columnDef.field != null) {
+                processAnnotationsForField(effectiveRowClass, tableDef, idAttributes, columnDef);
+            }
+            if (columnDef.getterMethod != null) {
+                processAnnotationsForGetterSetter(effectiveRowClass, tableDef, idAttributes, columnDef);
+            }
+        }
+        separatePkAndNonPkColumnDefs(effectiveRowClass, tableDef);
+        tableDef.buildSql();
+        return tableDef;
+
+    }
+
+    private static TableDef extractTableDefFromGeneratedRowMapper(Class effectiveRowClass, GeneratedRowMapper generatedRowMapper) {
+
+        // Add the generated column defs
+        final TableDef tableDef = new TableDef(effectiveRowClass);
+        addGeneratedColumnDefsToRowDef(generatedRowMapper, tableDef);
+
+        // Set table stuff (the annotations have already been processed by the annotation processor)
+        tableDef.tableName = generatedRowMapper.getTableName() != null
+                             ? generatedRowMapper.getTableName()
+                             : guessTableNameFromRowClassSimpleName(effectiveRowClass.getSimpleName());
+        tableDef.fixedShapeInserts = getFixedShapeInsertsForEffectiveRowClass(effectiveRowClass);
+        if (generatedRowMapper.getGeneratorSequence() != null) {
+            tableDef.generatorSequence = generatedRowMapper.getGeneratorSequence();
+            tableDef.ifSQLiteUseAutoincrement = generatedRowMapper.getIfSQLiteUseAutoincrement();
+            tableDef.databasesToIgnoreGeneratorSequenceFor = generatedRowMapper.getIgnoreSequenceForDBs();
+        }
+        GeneratedRowMapper.Column[] columns = generatedRowMapper.getColumns();
+        for (int i = 0; i < columns.length; i++) {
+            tableDef.columnDefs.get(i).isInPk = columns[i].isInPk;
+        }
+
+        separatePkAndNonPkColumnDefs(effectiveRowClass, tableDef);
+        tableDef.buildSql();
+        return tableDef;
+
+    }
+
+    private static void separatePkAndNonPkColumnDefs(Class effectiveRowClass, TableDef tableDef) {
+        for (ColumnDef columnDef : tableDef.columnDefs) {
+            if (columnDef.isInPk) {
+                tableDef.pkColumnDefs.add(columnDef);
+            } else {
+                tableDef.nonPkColumnDefs.add(columnDef);
+            }
+        }
+
+        // Check id fields
+        if (tableDef.pkColumnDefs.size() == 0) {
+            throw new RuntimeException(String.format("Row class %s does not have any id fields (they need to be annotated with @Id or registered via TableDef.registerRowClass(Class rowClass, String... idFields)", effectiveRowClass.getName()));
+        }
+        if (tableDef.pkColumnDefs.size() > 1 && tableDef.generatorSequence != null) {
+            throw new RuntimeException(String.format("Row class %s has more than one id field and a generatorSequence has been assigned", effectiveRowClass.getName()));
+        }
+    }
+
+    private void buildSql() {
+
+        // Build the pk where clause
+        StringBuilder whereClauseStringBuilder = new StringBuilder();
+        for (ColumnDef columnDef : pkColumnDefs) {
+            whereClauseStringBuilder.append(whereClauseStringBuilder.length() == 0 ? "where " : "\n  and ");
+            whereClauseStringBuilder.append(columnDef.columnName);
+            whereClauseStringBuilder.append(" = ?");
+        }
+        String whereClause = whereClauseStringBuilder.toString();
+        pkParameterColumnDefs = pkColumnDefs.toArray(new ColumnDef[pkColumnDefs.size()]);
+
+        // Build the get, exists and delete sql
+        if (pkColumnDefs.size() == 1) {
+            getSql = String.format("select * from %s where %s = ?", tableName, pkColumnDefs.get(0).columnName);
+            getForUpdateSql = getSql + " for update";
+            getAllArraySql = String.format("select * from %s where %s = any(?)", tableName, pkColumnDefs.get(0).columnName);
+        }
+        existsSql = String.format("select 1 from %s\n%s", tableName, whereClause);
+        deleteSql = String.format("delete from %s\n%s", tableName, whereClause);
+
+        // Build the update sql
+        StringBuilder columnSetClausesStringBuilder = new StringBuilder();
+        for (ColumnDef columnDef : nonPkColumnDefs) {
+            if (columnSetClausesStringBuilder.length() != 0) {
+                columnSetClausesStringBuilder.append(",\n   ");
+            }
+            columnSetClausesStringBuilder.append(columnDef.columnName);
+            columnSetClausesStringBuilder.append(" = ?");
+        }
+        updateSql = String.format("update %s set\n   %s\n%s", tableName, columnSetClausesStringBuilder.toString(), whereClause);
+        List<ColumnDef> updateParameterColumnDefList = new ArrayList<ColumnDef>(nonPkColumnDefs);
+        updateParameterColumnDefList.addAll(pkColumnDefs);
+        updateParameterColumnDefs = updateParameterColumnDefList.toArray(new ColumnDef[updateParameterColumnDefList.size()]);
+
+    }
+
+    /**
+     * Returns the insert sql for the row.  Normally only the columns of the row's non null
+     * attributes are included, but for fixed shape inserts all columns are included apart
+     * from null columns with a database default.  The sql is built once per shape (set of
+     * included columns) of inserted row (up to MAX_CACHED_INSERT_SHAPES).
+     */
+    InsertSql getInsertSql(Object row) {
+        boolean fixedShape = fixedShapeInserts || useFixedShapeInsertsForAllTables;
+
+        // Determine the shape of the row (a bit per included column)
+        Object shape;
+        if (columnDefs.size() <= 64) {
+            long includedColumns = 0;
+            for (int i = 0; i < columnDefs.size(); i++) {
+                if (isIncludedInInsert(columnDefs.get(i), row, fixedShape)) {
+                    includedColumns |= 1L << i;
+                }
+            }
+            shape = includedColumns;
+        } else {
+            BitSet includedColumns = new BitSet(columnDefs.size());
+            for (int i = 0; i < columnDefs.size(); i++) {
+                if (isIncludedInInsert(columnDefs.get(i), row, fixedShape)) {
+                    includedColumns.set(i);
+                }
+            }
+            shape = includedColumns;
+        }
+
+        // Get or build the sql
+        InsertSql insertSql = insertSqls.get(shape);
+        if (insertSql == null) {
+            insertSql = buildInsertSql(row, fixedShape);
+            if (insertSqls.size() < MAX_CACHED_INSERT_SHAPES) {
+                insertSqls.putIfAbsent(shape, insertSql);
+            }
+        }
+        return insertSql;
+
+    }
+
+    /**
+     * Returns the sql to get the rows with any of pkCount pk values (for tables with exactly
+     * one pk column) using an in list.
+     */
+    String getGetAllInListSql(int pkCount) {
+        String sql = getAllInListSqls.get(pkCount);
+        if (sql == null) {
+            StringBuilder placeHoldersStringBuilder = new StringBuilder();
+            for (int i = 0; i < pkCount; i++) {
+                placeHoldersStringBuilder.append(i == 0 ? "?" : ",?");
+            }
+            sql = String.format("select * from %s where %s in (%s)", tableName, pkColumnDefs.get(0).columnName, placeHoldersStringBuilder.toString());
+            getAllInListSqls.putIfAbsent(pkCount, sql);
+        }
+        return sql;
+    }
+
+    /**
+     * Returns the upsert (insert or update if the pk already exists) version of the insert
+     * sql for the given dialect.  The parameters are the same as those of the insert sql.
+     * Like update, the update part of the upsert sets all of the non pk columns (the columns
+     * left out of the insert sql are set to null).
+     */
+    String getUpsertSql(InsertSql insertSql, UpsertDialect upsertDialect) {
+        String upsertSql = insertSql.upsertSqls.get(upsertDialect);
+        if (upsertSql == null) {
+            upsertSql = buildUpsertSql(insertSql, upsertDialect);
+            insertSql.upsertSqls.putIfAbsent(upsertDialect, upsertSql);
+        }
+        return upsertSql;
+    }
+
+    private String buildUpsertSql(InsertSql insertSql, UpsertDialect upsertDialect) {
+        List<ColumnDef> insertColumnDefs = Arrays.asList(insertSql.parameterColumnDefs);
+        String sourceAlias = upsertDialect == UpsertDialect.sqlServer ? "source" : "excluded";
+
+        // Build the update set clauses
+        StringBuilder columnSetClausesStringBuilder = new StringBuilder();
+        for (ColumnDef columnDef : nonPkColumnDefs) {
+            if (columnSetClausesStringBuilder.length() != 0) {
+                columnSetClausesStringBuilder.append(",\n   ");
+            }
+            columnSetClausesStringBuilder.append(columnDef.columnName);
+            columnSetClausesStringBuilder.append(insertColumnDefs.contains(columnDef)
+                                                 ? String.format(" = %s.%s", sourceAlias, columnDef.columnName)
+                                                 : " = null");
+        }
+
+        if (upsertDialect == UpsertDialect.sqlServer) {
+
+            // Build the merge statement
+            StringBuilder columnNamesStringBuilder = new StringBuilder();
+            StringBuilder sourceColumnNamesStringBuilder = new StringBuilder();
+            for (ColumnDef columnDef : insertColumnDefs) {
+                if (columnNamesStringBuilder.length() != 0) {
+                    columnNamesStringBuilder.append(",");
+                    sourceColumnNamesStringBuilder.append(",");
+                }
+                columnNamesStringBuilder.append(columnDef.columnName);
+                sourceColumnNamesStringBuilder.append("source.");
+                sourceColumnNamesStringBuilder.append(columnDef.columnName);
+            }
+            StringBuilder onClauseStringBuilder = new StringBuilder();
+            for (ColumnDef columnDef : pkColumnDefs) {
+                onClauseStringBuilder.append(onClauseStringBuilder.length() == 0 ? "on " : "\n  and ");
+                onClauseStringBuilder.append(String.format("target.%s = source.%s", columnDef.columnName, columnDef.columnName));
+            }
+            return String.format("merge into %s with (holdlock) as target\nusing (values %s) as source (%s)\n%s\n%swhen not matched then insert (%s) values (%s);",
+                                 tableName,
+                                 insertSql.rowPlaceHolders,
+                                 columnNamesStringBuilder.toString(),
+                                 onClauseStringBuilder.toString(),
+                                 nonPkColumnDefs.size() == 0 ? "" : String.format("when matched then update set\n   %s\n", columnSetClausesStringBuilder.toString()),
+                                 columnNamesStringBuilder.toString(),
+                                 sourceColumnNamesStringBuilder.toString());
+
+        } else {
+
+            // Build the insert ... on conflict statement
+            StringBuilder pkColumnNamesStringBuilder = new StringBuilder();
+            for (ColumnDef columnDef : pkColumnDefs) {
+                if (pkColumnNamesStringBuilder.length() != 0) {
+                    pkColumnNamesStringBuilder.append(",");
+                }
+                pkColumnNamesStringBuilder.append(columnDef.columnName);
+            }
+            return nonPkColumnDefs.size() == 0
+                   ? String.format("%s\non conflict (%s) do nothing", insertSql.sql, pkColumnNamesStringBuilder.toString())
+                   : String.format("%s\non conflict (%s) do update set\n   %s", insertSql.sql, pkColumnNamesStringBuilder.toString(), columnSetClausesStringBuilder.toString());
+
+        }
+    }
+
+    private static boolean isIncludedInInsert(ColumnDef columnDef, Object row, boolean fixedShape) {
+        return (fixedShape && !columnDef.hasDatabaseDefault) || !columnDef.isNull(row);
+    }
+
+    private InsertSql buildInsertSql(Object row, boolean fixedShape) {
+        StringBuilder columNamesStringBuilder = new StringBuilder();
+        StringBuilder paramPlaceHoldersStringBuilder = new StringBuilder();
+        List<ColumnDef> parameterColumnDefs = new ArrayList<ColumnDef>();
+        for (ColumnDef columnDef : columnDefs) {
+            if (isIncludedInInsert(columnDef, row, fixedShape)) {
+                if (columNamesStringBuilder.length() != 0) {
+                    columNamesStringBuilder.append(",");
+                    paramPlaceHoldersStringBuilder.append(",");
+                }
+                columNamesStringBuilder.append(columnDef.columnName);
+                paramPlaceHoldersStringBuilder.append("?");
+                parameterColumnDefs.add(columnDef);
+            }
+        }
+        return new InsertSql(String.format("insert into %s (%s) values ", tableName, columNamesStringBuilder.toString()),
+                             String.format("(%s)", paramPlaceHoldersStringBuilder.toString()),
+                             parameterColumnDefs.toArray(new ColumnDef[parameterColumnDefs.size()]));
+    }
+
+    public static String getTableForRowClass(Class rowClass) {
+        return getTableForEffectiveRowClass(getEffectiveRowClass(rowClass));
+    }
+
+    private static boolean getFixedShapeInsertsForEffectiveRowClass(Class effectiveRowClass) {
+        Annotation tableRowAnnotation = effectiveRowClass.getAnnotation(TableRow.class);
+        return tableRowAnnotation instanceof TableRow && ((TableRow) tableRowAnnotation).fixedShapeInserts();
+    }
+
+    private static String getTableForEffectiveRowClass(Class effectiveRowClass) {
+        String rowClassSimpleName = effectiveRowClass.getSimpleName();
+        Annotation tableRowAnnotation = effectiveRowClass.getAnnotation(TableRow.class);
+        String annotationTableName = tableRowAnnotation instanceof TableRow
+                                     ? ((TableRow) tableRowAnnotation).tableName()
+                                     : "<Guessed>";
+        if (!"<Guessed>".equals(annotationTableName)) {
+            return annotationTableName;
+        } else {
+            return guessTableNameFromRowClassSimpleName(rowClassSimpleName);
+        }
+    }
+
+    private static String guessTableNameFromRowClassSimpleName(String rowClassSimpleName) {
+        if (rowClassSimpleName.endsWith("Row")) {
+            return guessDatabaseNameFromJavaName(rowClassSimpleName.replaceFirst("Row$", ""));
+        } else {
+            return guessDatabaseNameFromJavaName(rowClassSimpleName) + "s";
+        }
+    }
+
+    private static Class getEffectiveRowClass(Class rowClass) {
+        Class effectiveRowClass;
+        Annotation tableRowExtensionClassAnnotation = rowClass.getAnnotation(TableRowExtensionClass.class);
+        if (tableRowExtensionClassAnnotation != null) {
+            effectiveRowClass = ((TableRowExtensionClass) tableRowExtensionClassAnnotation).baseClass();
+        } else {
+            effectiveRowClass = rowClass;
+        }
+        return effectiveRowClass;
+    }
+
+    private static void processAnnotationsForField(Class rowClass,
+                                                   TableDef tableDef,
+                                                   String[] idFields,
+                                                   ColumnDef columnDef) {
+        Annotation annotation = columnDef.field.getAnnotation(Id.class);
+        if (annotation instanceof Id) {
+            if (idFields != null && idFields.length > 0) {
+                throw new RuntimeException(String.format("Row class %s has annotated id fields and you have specified id fields in RowDef.registerRowClass(Class rowClass, String... idFields) (you can't do both)", rowClass.getName()));
+            }
+            Id idAnnotation = (Id) annotation;
+            if (!"<None>".equals(idAnnotation.generatorSequence())) {
+                if (tableDef.generatorSequence == null) {
+                    if (columnDef.attributeType != Long.class) {
+                        throw new RuntimeException(String.format("Id field %s.%s has a generatorSequence assigned but is not a Long (only type Long can be generated)", rowClass.getSimpleName(), columnDef.field.getName()));
+                    }
+                    tableDef.generatorSequence = idAnnotation.generatorSequence();
+                } else {
+                    throw new RuntimeException(String.format("Row class %s has more than one id field with a generatorSequence", rowClass.getName()));
+                }
+                tableDef.ifSQLiteUseAutoincrement = idAnnotation.ifSQLiteUseAutoincrement();
+                tableDef.databasesToIgnoreGeneratorSequenceFor = idAnnotation.ignoreSequenceForDBs();
+            }
+            columnDef.isInPk = true;
+        } else if (idFields != null && idFields.length > 0 && Strings.isIn(columnDef.field.getName(), idFields)) {
+            columnDef.isInPk = true;
+        }
+    }
+
+    private static void processAnnotationsForGetterSetter(Class rowClass,
+                                                          TableDef tableDef,
+                                                          String[] idAttributes,
+                                                          ColumnDef columnDef) {
+        Annotation annotation = columnDef.getterMethod.getAnnotation(Id.class);
+        if (annotation instanceof Id) {
+            if (idAttributes != null && idAttributes.length > 0) {
+                throw new RuntimeException(String.format("Row class %s has annotated id attributes and you have specified id attributes in RowDef.registerRowClass(Class rowClass, String... idAttributes) (you can't do both)", rowClass.getName()));
+            }
+            Id idAnnotation = (Id) annotation;
+            if (!"<None>".equals(idAnnotation.generatorSequence())) {
+                if (tableDef.generatorSequence == null) {
+                    if (columnDef.getterMethod.getReturnType() != Long.class) {
+                        throw new RuntimeException(String.format("Id attribute %s.%s() has a generatorSequence assigned but is not a Long (only type Long can be generated)", rowClass.getSimpleName(), columnDef.getterMethod.getName()));
+                    }
+                    tableDef.generatorSequence = idAnnotation.generatorSequence();
+                } else {
+                    throw new RuntimeException(String.format("Row class %s has more than one id attribute with a generatorSequence", rowClass.getName()));
+                }
+                tableDef.ifSQLiteUseAutoincrement = idAnnotation.ifSQLiteUseAutoincrement();
+                tableDef.databasesToIgnoreGeneratorSequenceFor = idAnnotation.ignoreSequenceForDBs();
+            }
+            columnDef.isInPk = true;
+        } else if (idAttributes != null && idAttributes.length > 0 && Strings.isIn(columnDef.attributeName, idAttributes)) {
+            columnDef.isInPk = true;
+        }
+    }
+
+}
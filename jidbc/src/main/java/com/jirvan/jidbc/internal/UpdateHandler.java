@@ -30,56 +30,49 @@ SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
 
 package com.jirvan.jidbc.internal;
 
-import com.jirvan.jidbc.*;
-import com.jirvan.lang.*;
+import com.jirvan.jidbc.Jidbc;
+import com.jirvan.jidbc.lang.MultipleRowsRuntimeException;
+import com.jirvan.lang.NotFoundRuntimeException;
+import com.jirvan.lang.SQLRuntimeException;
 
-import java.sql.*;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
 
-import static com.jirvan.jidbc.internal.JidbcInternalUtils.*;
+public class UpdateHandler extends AbstractPkWhereClauseHandler {
 
-public class SaveHandler extends AbstractPkWhereClauseHandler {
+    public static void update(Connection connection, StatementCache statementCache, Object row) {
 
-    public static void save(Connection connection, Object row) {
-        if (rowExists(connection, row)) {
-            UpdateHandler.update(connection, row);
-        } else {
-            InsertHandler.insert(connection, row, null);
-        }
-    }
-
-    private static boolean rowExists(Connection connection, Object row) {
-
-        // Get the table def and where clause to use
         TableDef tableDef = TableDef.getTableDefForRowClass(row.getClass());
-        WhereClause whereClause = new WhereClause(tableDef, row);
 
-        String sql = String.format("select 1 from %s\n%s",
-                                   tableDef.tableName,
-                                   whereClause.sql);
+        checkHasPkColumns(tableDef, row);
+        String sql = tableDef.updateSql;
 
         try {
 
-            // Determine if the row already exists
-            PreparedStatement statement = connection.prepareStatement(sql);
+            // Update the object (the attribute values are bound directly from the row)
+            PreparedStatement statement = statementCache.checkout(sql);
             try {
-                int paramIndex = 0;
-                for (int i = 0; i < whereClause.parameterValues.size(); i++) {
-                    setObject(statement, ++paramIndex, whereClause.parameterValues.get(i));
+                bindParameters(statement, tableDef.updateParameterColumnDefs, row);
+                int count = statement.executeUpdate();
+                if (count == 0) {
+                    throw new NotFoundRuntimeException("Update failed - row not found");
                 }
-                ResultSet resultSet = statement.executeQuery();
-                try {
-                    return resultSet.next();
-                } finally {
-                    resultSet.close();
+                if (count > 1) {
+                    throw new MultipleRowsRuntimeException("Update failed - more than one row updated");
                 }
             } finally {
-                statement.close();
+                statementCache.checkin(sql, statement);
             }
 
         } catch (SQLException e) {
-            Jidbc.logSqlException(e, sql, whereClause.parameterValues.toArray());
+            Jidbc.logSqlException(e, sql, getParameterValues(tableDef.updateParameterColumnDefs, row));
             throw new SQLRuntimeException(e);
         }
     }
 
+    public static void updateAll(StatementCache statementCache, Iterable<?> rows, int batchSize) {
+        executeBatched(statementCache, rows, batchSize, true);
+    }
+
 }
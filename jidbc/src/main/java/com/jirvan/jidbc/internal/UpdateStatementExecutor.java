@@ -40,9 +40,9 @@ import java.time.LocalDateTime;
 
 public class UpdateStatementExecutor {
 
-    public static int executeUpdate(Connection connection, String sql, Object... parameters) {
+    public static int executeUpdate(Connection connection, StatementCache statementCache, String sql, Object... parameters) {
         try {
-            PreparedStatement statement = connection.prepareStatement(sql);
+            PreparedStatement statement = statementCache.checkout(sql);
             try {
                 for (int i = 0; i < parameters.length; i++) {
                     if (parameters[i] instanceof java.util.Date) {
@@ -59,7 +59,7 @@ public class UpdateStatementExecutor {
                 }
                 return statement.executeUpdate();
             } finally {
-                statement.close();
+                statementCache.checkin(sql, statement);
             }
         } catch (SQLException e) {
             Jidbc.logSqlException(e, sql, parameters);
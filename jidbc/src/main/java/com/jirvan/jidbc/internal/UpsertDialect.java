@@ -30,46 +30,14 @@ SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
 
 package com.jirvan.jidbc.internal;
 
-import java.lang.reflect.*;
-
-public class ColumnDef {
-
-    public String attributeName;
-    public Field field;
-    public Class<?> attributeType;
-    public boolean storeAsTimestamp;
-    public Method getterMethod;
-    public Method setterMethod;
-    public String columnName;
-    public boolean isInPk;
-
-    public Object getValue(Object object) {
-        try {
-            if (getterMethod != null) {
-                return getterMethod.invoke(object);
-            } else {
-                return field.get(object);
-            }
-        } catch (InvocationTargetException e) {
-            throw new RuntimeException(e);
-        } catch (IllegalAccessException e) {
-            throw new RuntimeException(e);
-        }
-    }
-
-    public void setValue(Object object, Object value) {
-        try {
-            if (setterMethod != null) {
-                setterMethod.invoke(object, value);
-            } else {
-                field.set(object, value);
-            }
-        } catch (InvocationTargetException e) {
-            throw new RuntimeException(e);
-        } catch (IllegalAccessException e) {
-            throw new RuntimeException(e);
-        }
-
-    }
+/**
+ * The native single statement upsert syntax supported by a database (used by save and
+ * saveAll).
+ */
+enum UpsertDialect {
+
+    postgres,  // insert ... on conflict (pk) do update set ...
+    sqlite,    // insert ... on conflict (pk) do update set ... (SQLite 3.24.0 and above)
+    sqlServer  // merge into ... using (values ...) ...
 
 }
@@ -0,0 +1,60 @@
+/*
+
+Copyright (c) 2013, Jirvan Pty Ltd
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+
+    * Redistributions of source code must retain the above copyright notice,
+      this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above copyright notice,
+      this list of conditions and the following disclaimer in the documentation
+      and/or other materials provided with the distribution.
+    * Neither the name of Jirvan Pty Ltd nor the names of its contributors
+      may be used to endorse or promote products derived from this software
+      without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+(INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+*/
+
+package com.jirvan.jidbc.lang;
+
+import java.util.List;
+
+/**
+ * Thrown by the batched update and delete methods (updateAll, deleteAll) if any of the rows
+ * was not found or matched more than one row.  All of the batches are executed before it is
+ * thrown, so it lists every row that failed.
+ */
+public class BatchRowCountRuntimeException extends RuntimeException {
+
+    private final List<Object> notFoundRows;
+    private final List<Object> multipleRowsRows;
+
+    public BatchRowCountRuntimeException(String operation, int rowCount, List<Object> notFoundRows, List<Object> multipleRowsRows) {
+        super(String.format("%s failed - %d of %d rows not found and %d of %d rows matched more than one row",
+                            operation, notFoundRows.size(), rowCount, multipleRowsRows.size(), rowCount));
+        this.notFoundRows = notFoundRows;
+        this.multipleRowsRows = multipleRowsRows;
+    }
+
+    public List<Object> getNotFoundRows() {
+        return notFoundRows;
+    }
+
+    public List<Object> getMultipleRowsRows() {
+        return multipleRowsRows;
+    }
+
+}
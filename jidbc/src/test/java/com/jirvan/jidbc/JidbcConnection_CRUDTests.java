@@ -0,0 +1,967 @@
+package com.jirvan.jidbc;
+
+
+import com.jirvan.jidbc.internal.StatementCache;
+import com.jirvan.jidbc.lang.*;
+import com.jirvan.lang.*;
+import org.testng.annotations.*;
+
+import java.sql.Connection;
+import java.util.*;
+
+import static org.testng.AssertJUnit.*;
+
+public class JidbcConnection_CRUDTests extends TestsBase {
+
+
+    @Test
+    public void insertWithExplicitId() {
+
+
+        // Open a new database connection and do the insert
+        long newDepartmentId;
+        JidbcConnection jidbc = JidbcConnection.from(DATA_SOURCE);
+        try {
+
+            Department department = new Department();
+            department.departmentId = jidbc.takeSequenceNextVal("common_id_sequence");
+            department.departmentType = DEPARTMENT1.DEPARTMENT_TYPE;
+            department.departmentAbbr = DEPARTMENT1.DEPARTMENT_ABBR;
+            department.departmentName = DEPARTMENT1.DEPARTMENT_NAME;
+            department.creationAnniversary = DEPARTMENT1.CREATION_ANNIVERSARY;
+            department.someMonth = DEPARTMENT1.SOME_MONTH;
+            department.thingyType = DEPARTMENT1.THINGY_TYPE;
+            department.thingyNumber = DEPARTMENT1.THINGY_NUMBER;
+            department.anotherThingy = DEPARTMENT1.ANOTHER_THINGY;
+            department.inactivatedDatetime = DEPARTMENT1.INACTIVATED_DATETIME;
+            jidbc.insert(department);
+            newDepartmentId = department.departmentId;
+
+            jidbc.commitAndClose();
+        } catch (Throwable t) {
+            throw jidbc.rollbackCloseAndWrap(t);
+        }
+
+        // Re-open the database connection and check the inserted row
+        retrieveFromDatabaseAndAssertAttributeValuesAreEqualToDepartment1(newDepartmentId);
+
+    }
+
+    @Test
+    public void insertWithExplicitId_fixedShapeInserts() {
+
+        // Open a new database connection and do the inserts (one with a null attribute)
+        JidbcConnection jidbc = JidbcConnection.from(DATA_SOURCE);
+        try {
+
+            jidbc.insert(FixedShapeDepartment.copyOf(DEPARTMENT2.newInstance()));
+            FixedShapeDepartment department = FixedShapeDepartment.copyOf(DEPARTMENT3.newInstance());
+            department.inactivatedDatetime = null;
+            jidbc.insert(department);
+            assertEquals("statement cache size", 1, jidbc.getStatementCacheSize());
+
+            jidbc.commitAndClose();
+        } catch (Throwable t) {
+            throw jidbc.rollbackCloseAndWrap(t);
+        }
+
+        // Re-open the database connection and check the inserted rows
+        JidbcConnection jidbc2 = JidbcConnection.from(DATA_SOURCE);
+        try {
+
+            Department department2 = jidbc2.get(Department.class, DEPARTMENT2.DEPARTMENT_ID);
+            assertEquals("department.department_name", DEPARTMENT2.DEPARTMENT_NAME, department2.departmentName);
+            assertEquals("department.inactivated_datetime", DEPARTMENT2.INACTIVATED_DATETIME, department2.inactivatedDatetime);
+
+            Department department3 = jidbc2.get(Department.class, DEPARTMENT3.DEPARTMENT_ID);
+            assertEquals("department.department_name", DEPARTMENT3.DEPARTMENT_NAME, department3.departmentName);
+            assertNull("department.inactivated_datetime", department3.inactivatedDatetime);
+
+            jidbc2.commitAndClose();
+        } catch (Throwable t) {
+            throw jidbc2.rollbackCloseAndWrap(t);
+        }
+
+    }
+
+    @Test
+    public void insertAll() {
+
+        // Open a new database connection and do the inserts
+        Department department1 = DEPARTMENT1.newInstance();
+        JidbcConnection jidbc = JidbcConnection.from(DATA_SOURCE);
+        try {
+
+            jidbc.setBatchSize(2);
+            int[] batchCounts = jidbc.insertAll(Arrays.asList(department1, DEPARTMENT2.newInstance(), DEPARTMENT3.newInstance()));
+            assertEquals("number of batches", 2, batchCounts.length);
+            assertEquals("batch 1 count", 2, batchCounts[0]);
+            assertEquals("batch 2 count", 1, batchCounts[1]);
+            assertNotNull("generated department id", department1.departmentId);
+
+            jidbc.commitAndClose();
+        } catch (Throwable t) {
+            throw jidbc.rollbackCloseAndWrap(t);
+        }
+
+        // Re-open the database connection and check the inserted rows
+        retrieveFromDatabaseAndAssertAttributeValuesAreEqualToDepartment1(department1.departmentId);
+        JidbcConnection jidbc2 = JidbcConnection.from(DATA_SOURCE);
+        try {
+
+            assertEquals("department.department_name", DEPARTMENT2.DEPARTMENT_NAME, jidbc2.<Department>get(Department.class, DEPARTMENT2.DEPARTMENT_ID).departmentName);
+            assertEquals("department.department_name", DEPARTMENT3.DEPARTMENT_NAME, jidbc2.<Department>get(Department.class, DEPARTMENT3.DEPARTMENT_ID).departmentName);
+
+            jidbc2.commitAndClose();
+        } catch (Throwable t) {
+            throw jidbc2.rollbackCloseAndWrap(t);
+        }
+
+    }
+
+    @Test
+    public void insertAll_multiRowValues() {
+
+        // Open a new database connection and do the inserts
+        JidbcConnection jidbc = JidbcConnection.from(DATA_SOURCE);
+        try {
+
+            int[] counts = jidbc.insertAll(Arrays.asList(DEPARTMENT2.newInstance(), DEPARTMENT3.newInstance()), BulkInsertStrategy.multiRowValues);
+            assertEquals("number of statements", 1, counts.length);
+            assertEquals("statement count", 2, counts[0]);
+
+            jidbc.commitAndClose();
+        } catch (Throwable t) {
+            throw jidbc.rollbackCloseAndWrap(t);
+        }
+
+        // Re-open the database connection and check the inserted rows
+        JidbcConnection jidbc2 = JidbcConnection.from(DATA_SOURCE);
+        try {
+
+            assertEquals("department.department_name", DEPARTMENT2.DEPARTMENT_NAME, jidbc2.<Department>get(Department.class, DEPARTMENT2.DEPARTMENT_ID).departmentName);
+            assertEquals("department.department_name", DEPARTMENT3.DEPARTMENT_NAME, jidbc2.<Department>get(Department.class, DEPARTMENT3.DEPARTMENT_ID).departmentName);
+
+            jidbc2.commitAndClose();
+        } catch (Throwable t) {
+            throw jidbc2.rollbackCloseAndWrap(t);
+        }
+
+    }
+
+    @Test
+    public void insertAll_multiRowValues_chunked() {
+
+        // Open a new database connection and insert rows in chunks of at most 4
+        JidbcConnection jidbc = JidbcConnection.from(DATA_SOURCE);
+        try {
+
+            jidbc.setBatchSize(4);
+            int[] counts = jidbc.insertAll(newMeasurements(1, 7), BulkInsertStrategy.multiRowValues);
+            assertEquals("statement counts", "[4, 2, 1]", Arrays.toString(counts));
+            assertEquals("statement cache misses", 3, jidbc.getStatementCacheMisses());
+            assertEquals("statement cache hits", 0, jidbc.getStatementCacheHits());
+
+            // Check the same chunk sizes reuse their (cached) multi-row statements
+            counts = jidbc.insertAll(newMeasurements(8, 7), BulkInsertStrategy.multiRowValues);
+            assertEquals("statement counts", "[4, 2, 1]", Arrays.toString(counts));
+            assertEquals("statement cache misses", 3, jidbc.getStatementCacheMisses());
+            assertEquals("statement cache hits", 3, jidbc.getStatementCacheHits());
+
+            jidbc.commitAndClose();
+        } catch (Throwable t) {
+            throw jidbc.rollbackCloseAndWrap(t);
+        }
+
+        // Re-open the database connection and check the inserted rows
+        JidbcConnection jidbc2 = JidbcConnection.from(DATA_SOURCE);
+        try {
+
+            assertEquals("number of rows", 14, jidbc2.queryFor_long("select count(*) from measurements", -1));
+            for (long measurementId = 1; measurementId <= 14; measurementId++) {
+                Measurement measurement = jidbc2.get(Measurement.class, measurementId);
+                assertEquals("measurement.reading_count", (int) measurementId * 10, measurement.readingCount);
+            }
+
+            jidbc2.commitAndClose();
+        } catch (Throwable t) {
+            throw jidbc2.rollbackCloseAndWrap(t);
+        }
+
+    }
+
+    private static List<Measurement> newMeasurements(long firstMeasurementId, int numberOfMeasurements) {
+        List<Measurement> measurements = new ArrayList<Measurement>();
+        for (long measurementId = firstMeasurementId; measurementId < firstMeasurementId + numberOfMeasurements; measurementId++) {
+            Measurement measurement = new Measurement();
+            measurement.measurementId = measurementId;
+            measurement.readingCount = (int) measurementId * 10;
+            measurement.readingValue = measurementId / 4.0;
+            measurements.add(measurement);
+        }
+        return measurements;
+    }
+
+    @Test
+    public void insertWithExplicitId_gettersAndSetters() {
+
+
+        // Open a new database connection and do the insert
+        JidbcConnection jidbc = JidbcConnection.from(DATA_SOURCE);
+        try {
+
+            GetterSetterDepartment department = new GetterSetterDepartment();
+            department.setDepartmentId(4242l);
+            department.setDepartmentType(DEPARTMENT1.DEPARTMENT_TYPE);
+            department.setDepartmentAbbr(DEPARTMENT1.DEPARTMENT_ABBR);
+            department.setDepartmentName(DEPARTMENT1.DEPARTMENT_NAME);
+            department.setCreationAnniversary(DEPARTMENT1.CREATION_ANNIVERSARY);
+            department.setSomeMonth(DEPARTMENT1.SOME_MONTH);
+            department.setThingyType(DEPARTMENT1.THINGY_TYPE);
+            department.setThingyNumber(DEPARTMENT1.THINGY_NUMBER);
+            department.setAnotherThingy(DEPARTMENT1.ANOTHER_THINGY);
+            department.setInactivatedDatetime(DEPARTMENT1.INACTIVATED_DATETIME);
+            jidbc.insert(department);
+
+            jidbc.commitAndClose();
+        } catch (Throwable t) {
+            throw jidbc.rollbackCloseAndWrap(t);
+        }
+
+        // Re-open the database connection and check the inserted row
+        retrieveFromDatabaseAndAssertAttributeValuesAreEqualToGetterSetterDepartment1(4242l);
+
+    }
+
+    @Test
+    public void insertWithAutoGeneratedId() {
+
+
+        // Open a new database connection and do the insert
+        long newDepartmentId;
+        JidbcConnection jidbc = JidbcConnection.from(DATA_SOURCE);
+        try {
+
+            Department department = new Department();
+            department.departmentType = DEPARTMENT1.DEPARTMENT_TYPE;
+            department.departmentAbbr = DEPARTMENT1.DEPARTMENT_ABBR;
+            department.departmentName = DEPARTMENT1.DEPARTMENT_NAME;
+            department.creationAnniversary = DEPARTMENT1.CREATION_ANNIVERSARY;
+            department.someMonth = DEPARTMENT1.SOME_MONTH;
+            department.thingyType = DEPARTMENT1.THINGY_TYPE;
+            department.thingyNumber = DEPARTMENT1.THINGY_NUMBER;
+            department.anotherThingy = DEPARTMENT1.ANOTHER_THINGY;
+            department.inactivatedDatetime = DEPARTMENT1.INACTIVATED_DATETIME;
+            jidbc.insert(department);
+            newDepartmentId = department.departmentId;
+
+            jidbc.commitAndClose();
+        } catch (Throwable t) {
+            throw jidbc.rollbackCloseAndWrap(t);
+        }
+
+        // Re-open the database connection and check the inserted row
+        retrieveFromDatabaseAndAssertAttributeValuesAreEqualToDepartment1(newDepartmentId);
+
+    }
+
+    @Test
+    public void get() {
+
+        // Open a separate database connection and insert a test row
+        Department newDepartment = DEPARTMENT1.newInstance();
+        Jidbc.insert(DATA_SOURCE, newDepartment);
+
+        // Open a different  database connection and check the inserted row
+        JidbcConnection jidbc = JidbcConnection.from(DATA_SOURCE);
+        try {
+
+            Department department = jidbc.get(Department.class, newDepartment.departmentId);
+            assertEquals("department.department_abbr", DEPARTMENT1.DEPARTMENT_ABBR, department.departmentAbbr);
+            assertEquals("department.department_type", DEPARTMENT1.DEPARTMENT_TYPE, department.departmentType);
+            assertEquals("department.department_name", DEPARTMENT1.DEPARTMENT_NAME, department.departmentName);
+            assertEquals("department.creation_anniversary", DEPARTMENT1.CREATION_ANNIVERSARY, department.creationAnniversary);
+            assertEquals("department.thingy_type", DEPARTMENT1.THINGY_TYPE, department.thingyType);
+            assertEquals("department.thingy_number", DEPARTMENT1.THINGY_NUMBER, department.thingyNumber);
+            assertEquals("department.another_thingy", DEPARTMENT1.ANOTHER_THINGY, department.anotherThingy);
+            assertEquals("department.inactivated_datetime", DEPARTMENT1.INACTIVATED_DATETIME, department.inactivatedDatetime);
+
+            jidbc.commitAndClose();
+        } catch (Throwable t) {
+            throw jidbc.rollbackCloseAndWrap(t);
+        }
+
+    }
+
+    @Test
+    public void get_gettersAndSetters() {
+
+        // Open a separate database connection and insert a test row
+        GetterSetterDepartment newDepartment = DEPARTMENT1.newGetterSetterInstance();
+        Jidbc.insert(DATA_SOURCE, newDepartment);
+
+        // Open a different  database connection and check the inserted row
+        JidbcConnection jidbc = JidbcConnection.from(DATA_SOURCE);
+        try {
+
+            GetterSetterDepartment department = jidbc.get(GetterSetterDepartment.class, newDepartment.getDepartmentId());
+            assertEquals("department.department_abbr", DEPARTMENT1.DEPARTMENT_ABBR, department.getDepartmentAbbr());
+            assertEquals("department.department_type", DEPARTMENT1.DEPARTMENT_TYPE, department.getDepartmentType());
+            assertEquals("department.department_name", DEPARTMENT1.DEPARTMENT_NAME, department.getDepartmentName());
+            assertEquals("department.creation_anniversary", DEPARTMENT1.CREATION_ANNIVERSARY, department.getCreationAnniversary());
+            assertEquals("department.thingy_type", DEPARTMENT1.THINGY_TYPE, department.getThingyType());
+            assertEquals("department.thingy_number", DEPARTMENT1.THINGY_NUMBER, department.getThingyNumber());
+            assertEquals("department.another_thingy", DEPARTMENT1.ANOTHER_THINGY, department.getAnotherThingy());
+            assertEquals("department.inactivated_datetime", DEPARTMENT1.INACTIVATED_DATETIME, department.getInactivatedDatetime());
+
+            jidbc.commitAndClose();
+        } catch (Throwable t) {
+            throw jidbc.rollbackCloseAndWrap(t);
+        }
+
+    }
+
+    @Test
+    public void insertAndGet_primitiveAttributes() {
+
+        // Open a database connection and insert a row with primitive attributes
+        JidbcConnection jidbc = JidbcConnection.from(DATA_SOURCE);
+        try {
+
+            Measurement measurement = new Measurement();
+            measurement.measurementId = 1;
+            measurement.readingCount = 17;
+            measurement.readingValue = 42.125;
+            measurement.setVerified(true);
+            jidbc.insert(measurement);
+
+            jidbc.commitAndClose();
+        } catch (Throwable t) {
+            throw jidbc.rollbackCloseAndWrap(t);
+        }
+
+        // Open a different database connection and check the inserted row
+        JidbcConnection jidbc2 = JidbcConnection.from(DATA_SOURCE);
+        try {
+
+            Measurement measurement = jidbc2.get(Measurement.class, 1l);
+            assertEquals("measurement.measurement_id", 1l, measurement.measurementId);
+            assertEquals("measurement.reading_count", 17, measurement.readingCount);
+            assertEquals("measurement.reading_value", 42.125, measurement.readingValue, 0);
+            assertTrue("measurement.verified", measurement.getVerified());
+
+            jidbc2.commitAndClose();
+        } catch (Throwable t) {
+            throw jidbc2.rollbackCloseAndWrap(t);
+        }
+
+    }
+
+    @Test
+    public void get_primitiveAttributes_nullRejected() {
+
+        // Insert a row with null values for the primitive attributes
+        Jidbc.executeUpdate(DATA_SOURCE, "insert into measurements (measurement_id) values (?)", 1);
+
+        // Check that reading the nulls into primitive attributes without @NullAsDefault fails
+        JidbcConnection jidbc = JidbcConnection.from(DATA_SOURCE);
+        try {
+
+            try {
+                jidbc.get(Measurement.class, 1l);
+                fail("Expected a RuntimeException");
+            } catch (RuntimeException e) {
+                assertTrue("message mentions @NullAsDefault", e.getMessage().contains("@NullAsDefault"));
+            }
+
+            jidbc.commitAndClose();
+        } catch (Throwable t) {
+            throw jidbc.rollbackCloseAndWrap(t);
+        }
+
+    }
+
+    @Test
+    public void get_primitiveAttributes_nullAsDefault() {
+
+        // Insert a row with null values for the primitive attributes
+        Jidbc.executeUpdate(DATA_SOURCE, "insert into measurements (measurement_id) values (?)", 1);
+
+        // Check that the nulls are read into @NullAsDefault attributes as the primitive defaults
+        JidbcConnection jidbc = JidbcConnection.from(DATA_SOURCE);
+        try {
+
+            NullAsDefaultMeasurement measurement = jidbc.get(NullAsDefaultMeasurement.class, 1l);
+            assertEquals("measurement.reading_count", 0, measurement.readingCount);
+            assertEquals("measurement.reading_value", 0d, measurement.readingValue, 0);
+            assertFalse("measurement.verified", measurement.verified);
+
+            jidbc.commitAndClose();
+        } catch (Throwable t) {
+            throw jidbc.rollbackCloseAndWrap(t);
+        }
+
+    }
+
+    @Test
+    public void getIfExists() {
+
+        // Open a separate database connection and insert a test row
+        Jidbc.insert(DATA_SOURCE, DEPARTMENT3.newInstance());
+
+        // Open a different  database connection and check the inserted row is found
+        JidbcConnection jidbc = JidbcConnection.from(DATA_SOURCE);
+        try {
+
+            assertNotNull(String.format("Expected Department:%d to exist", DEPARTMENT3.DEPARTMENT_ID), jidbc.getIfExists(Department.class, DEPARTMENT3.DEPARTMENT_ID));
+
+            jidbc.commitAndClose();
+        } catch (Throwable t) {
+            throw jidbc.rollbackCloseAndWrap(t);
+        }
+
+        // Open another database connection and check non-existent row is not found
+        JidbcConnection jidbc2 = JidbcConnection.from(DATA_SOURCE);
+        try {
+
+            Long departmentId = 575757l;
+            assertNull(String.format("Expected Department:%d not to exist", departmentId), jidbc2.getIfExists(Department.class, departmentId));
+
+            jidbc2.commitAndClose();
+        } catch (Throwable t) {
+            throw jidbc2.rollbackCloseAndWrap(t);
+        }
+
+    }
+
+    @Test
+    public void getAll() {
+
+        // Open a separate database connection and insert test rows
+        Jidbc.insert(DATA_SOURCE, DEPARTMENT2.newInstance());
+        Jidbc.insert(DATA_SOURCE, DEPARTMENT3.newInstance());
+
+        // Re-open the database and get the rows along with a non-existent row
+        JidbcConnection jidbc = JidbcConnection.from(DATA_SOURCE);
+        try {
+
+            Map<Long, Department> departments = jidbc.getAll(Department.class, Arrays.asList(DEPARTMENT3.DEPARTMENT_ID, 575757l, DEPARTMENT2.DEPARTMENT_ID));
+            assertEquals("number of rows", 2, departments.size());
+            assertEquals("row order", Arrays.asList(DEPARTMENT3.DEPARTMENT_ID, DEPARTMENT2.DEPARTMENT_ID), new ArrayList<Long>(departments.keySet()));
+            assertEquals("department.department_abbr", DEPARTMENT2.DEPARTMENT_ABBR, departments.get(DEPARTMENT2.DEPARTMENT_ID).departmentAbbr);
+            assertEquals("department.department_abbr", DEPARTMENT3.DEPARTMENT_ABBR, departments.get(DEPARTMENT3.DEPARTMENT_ID).departmentAbbr);
+
+            // Integer pk values are converted to the Long pk attribute's type
+            Map<Integer, Department> departmentsByIntegerPk = jidbc.getAll(Department.class, Arrays.asList(42, 423636));
+            assertEquals("number of rows", 2, departmentsByIntegerPk.size());
+            assertEquals("department.department_abbr", DEPARTMENT2.DEPARTMENT_ABBR, departmentsByIntegerPk.get(42).departmentAbbr);
+
+            // Pk values of an unrelated type are rejected
+            try {
+                jidbc.getAll(Department.class, Arrays.asList("42"));
+                fail("Expected RuntimeException");
+            } catch (RuntimeException e) {
+            }
+
+            jidbc.commitAndClose();
+        } catch (Throwable t) {
+            throw jidbc.rollbackCloseAndWrap(t);
+        }
+
+    }
+
+    @Test
+    public void update() {
+
+        // Open a separate database connection and insert test rows
+        Jidbc.insert(DATA_SOURCE, DEPARTMENT3.newInstance());
+        Jidbc.insert(DATA_SOURCE, DEPARTMENT2.newInstance());
+
+        // Re-connect to the database and fetch the row and update it
+        JidbcConnection jidbc = JidbcConnection.from(DATA_SOURCE);
+        try {
+
+            Department department = jidbc.get(Department.class, DEPARTMENT3.DEPARTMENT_ID);
+            department.departmentAbbr = "Zac";
+            department.departmentName = "Zac's Department";
+            department.inactivatedDatetime = new GregorianCalendar(2009, 8, 14).getTime();
+            jidbc.update(department);
+
+            jidbc.commitAndClose();
+        } catch (Throwable t) {
+            throw jidbc.rollbackCloseAndWrap(t);
+        }
+
+
+        // Re-connect to the database and check the updated row and that at least one other row has not been updated
+        JidbcConnection jidbc2 = JidbcConnection.from(DATA_SOURCE);
+        try {
+
+            Department department = jidbc2.get(Department.class, DEPARTMENT3.DEPARTMENT_ID);
+            assertEquals("department.department_id", DEPARTMENT3.DEPARTMENT_ID, department.departmentId);
+            assertEquals("department.department_abbr", "Zac", department.departmentAbbr);
+            assertEquals("department.department_name", "Zac's Department", department.departmentName);
+            assertEquals("department.inactivated_datetime", new GregorianCalendar(2009, 8, 14).getTime(), department.inactivatedDatetime);
+
+            Department department2 = jidbc2.get(Department.class, DEPARTMENT2.DEPARTMENT_ID);
+            assertEquals("department.department_id", DEPARTMENT2.DEPARTMENT_ID, department2.departmentId);
+            assertEquals("department.department_abbr", DEPARTMENT2.DEPARTMENT_ABBR, department2.departmentAbbr);
+            assertEquals("department.department_name", DEPARTMENT2.DEPARTMENT_NAME, department2.departmentName);
+            assertEquals("department.inactivated_datetime", DEPARTMENT2.INACTIVATED_DATETIME, department2.inactivatedDatetime);
+
+            jidbc2.commitAndClose();
+        } catch (Throwable t) {
+            throw jidbc2.rollbackCloseAndWrap(t);
+        }
+
+    }
+
+    @Test
+    public void update_reusesCachedStatements() {
+
+        // Open a separate database connection and insert test rows
+        Jidbc.insert(DATA_SOURCE, DEPARTMENT3.newInstance());
+        Jidbc.insert(DATA_SOURCE, DEPARTMENT2.newInstance());
+
+        // Re-connect to the database and repeatedly fetch and update the rows
+        JidbcConnection jidbc = JidbcConnection.from(DATA_SOURCE);
+        try {
+
+            for (int i = 0; i < 5; i++) {
+                Department department3 = jidbc.get(Department.class, DEPARTMENT3.DEPARTMENT_ID);
+                department3.departmentName = "Zac's Department " + i;
+                jidbc.update(department3);
+                Department department2 = jidbc.get(Department.class, DEPARTMENT2.DEPARTMENT_ID);
+                department2.departmentName = "Zac's Other Department " + i;
+                jidbc.update(department2);
+            }
+            assertEquals("statement cache size", 2, jidbc.getStatementCacheSize());
+            assertEquals("statement cache misses", 2, jidbc.getStatementCacheMisses());
+            assertEquals("statement cache hits", 18, jidbc.getStatementCacheHits());
+
+            jidbc.commitAndClose();
+        } catch (Throwable t) {
+            throw jidbc.rollbackCloseAndWrap(t);
+        }
+
+        // Re-connect to the database and check the updated rows
+        JidbcConnection jidbc2 = JidbcConnection.from(DATA_SOURCE);
+        try {
+
+            assertEquals("department.department_name", "Zac's Department 4", jidbc2.<Department>get(Department.class, DEPARTMENT3.DEPARTMENT_ID).departmentName);
+            assertEquals("department.department_name", "Zac's Other Department 4", jidbc2.<Department>get(Department.class, DEPARTMENT2.DEPARTMENT_ID).departmentName);
+
+            jidbc2.commitAndClose();
+        } catch (Throwable t) {
+            throw jidbc2.rollbackCloseAndWrap(t);
+        }
+
+    }
+
+    @Test
+    public void using_statementCacheIsOptIn() throws Exception {
+
+        // Open a separate database connection and insert a test row
+        Jidbc.insert(DATA_SOURCE, DEPARTMENT3.newInstance());
+
+        // Wrap a connection managed by the test and check statements are not cached by default
+        Connection connection = DATA_SOURCE.getConnection();
+        try {
+            JidbcConnection jidbc = JidbcConnection.using(connection);
+            jidbc.get(Department.class, DEPARTMENT3.DEPARTMENT_ID);
+            jidbc.get(Department.class, DEPARTMENT3.DEPARTMENT_ID);
+            assertEquals("statement cache size", 0, jidbc.getStatementCacheSize());
+            assertEquals("statement cache hits", 0, jidbc.getStatementCacheHits());
+
+            // Opt in to statement caching and release the cached statements before closing
+            jidbc.setStatementCacheMaxSize(StatementCache.DEFAULT_MAX_SIZE);
+            jidbc.get(Department.class, DEPARTMENT3.DEPARTMENT_ID);
+            jidbc.get(Department.class, DEPARTMENT3.DEPARTMENT_ID);
+            assertEquals("statement cache size", 1, jidbc.getStatementCacheSize());
+            assertEquals("statement cache hits", 1, jidbc.getStatementCacheHits());
+            jidbc.clearStatementCache();
+            assertEquals("statement cache size", 0, jidbc.getStatementCacheSize());
+        } finally {
+            connection.close();
+        }
+
+    }
+
+    @Test
+    public void save_update() {
+
+        // Open a separate database connection and insert test rows
+        Jidbc.insert(DATA_SOURCE, DEPARTMENT3.newInstance());
+        Jidbc.insert(DATA_SOURCE, DEPARTMENT2.newInstance());
+
+        // Re-connect to the database and fetch the row then change and save it
+        JidbcConnection jidbc = JidbcConnection.from(DATA_SOURCE);
+        try {
+
+            Department department = jidbc.get(Department.class, DEPARTMENT3.DEPARTMENT_ID);
+            department.departmentAbbr = "Zac";
+            department.departmentName = "Zac's Department";
+            department.inactivatedDatetime = new GregorianCalendar(2009, 8, 14).getTime();
+            jidbc.save(department);
+
+            jidbc.commitAndClose();
+        } catch (Throwable t) {
+            throw jidbc.rollbackCloseAndWrap(t);
+        }
+
+
+        // Re-connect to the database and check the updated row and that at least one other row has not been updated
+        JidbcConnection jidbc2 = JidbcConnection.from(DATA_SOURCE);
+        try {
+
+            Department department = jidbc2.get(Department.class, DEPARTMENT3.DEPARTMENT_ID);
+            assertEquals("department.department_id", DEPARTMENT3.DEPARTMENT_ID, department.departmentId);
+            assertEquals("department.department_abbr", "Zac", department.departmentAbbr);
+            assertEquals("department.department_name", "Zac's Department", department.departmentName);
+            assertEquals("department.inactivated_datetime", new GregorianCalendar(2009, 8, 14).getTime(), department.inactivatedDatetime);
+
+            Department department2 = jidbc2.get(Department.class, DEPARTMENT2.DEPARTMENT_ID);
+            assertEquals("department.department_id", DEPARTMENT2.DEPARTMENT_ID, department2.departmentId);
+            assertEquals("department.department_abbr", DEPARTMENT2.DEPARTMENT_ABBR, department2.departmentAbbr);
+            assertEquals("department.department_name", DEPARTMENT2.DEPARTMENT_NAME, department2.departmentName);
+            assertEquals("department.inactivated_datetime", DEPARTMENT2.INACTIVATED_DATETIME, department2.inactivatedDatetime);
+
+            jidbc2.commitAndClose();
+        } catch (Throwable t) {
+            throw jidbc2.rollbackCloseAndWrap(t);
+        }
+
+    }
+
+    @Test
+    public void save_insertWithExplicitId() {
+
+
+        // Open a new database connection and do the insert
+        long newDepartmentId;
+        JidbcConnection jidbc = JidbcConnection.from(DATA_SOURCE);
+        try {
+
+            Department department = new Department();
+            department.departmentId = jidbc.takeSequenceNextVal("common_id_sequence");
+            department.departmentType = DEPARTMENT1.DEPARTMENT_TYPE;
+            department.departmentAbbr = DEPARTMENT1.DEPARTMENT_ABBR;
+            department.departmentName = DEPARTMENT1.DEPARTMENT_NAME;
+            department.creationAnniversary = DEPARTMENT1.CREATION_ANNIVERSARY;
+            department.someMonth = DEPARTMENT1.SOME_MONTH;
+            department.thingyType = DEPARTMENT1.THINGY_TYPE;
+            department.thingyNumber = DEPARTMENT1.THINGY_NUMBER;
+            department.anotherThingy = DEPARTMENT1.ANOTHER_THINGY;
+            department.inactivatedDatetime = DEPARTMENT1.INACTIVATED_DATETIME;
+            jidbc.save(department);
+            newDepartmentId = department.departmentId;
+
+            jidbc.commitAndClose();
+        } catch (Throwable t) {
+            throw jidbc.rollbackCloseAndWrap(t);
+        }
+
+        // Re-open the database connection and check the inserted row
+        retrieveFromDatabaseAndAssertAttributeValuesAreEqualToDepartment1(newDepartmentId);
+
+    }
+
+    @Test
+    public void save_insertWithExplicitId_gettersAndSetters() {
+
+
+        // Open a new database connection and do the insert
+        JidbcConnection jidbc = JidbcConnection.from(DATA_SOURCE);
+        try {
+
+            GetterSetterDepartment department = new GetterSetterDepartment();
+            department.setDepartmentId(4242l);
+            department.setDepartmentType(DEPARTMENT1.DEPARTMENT_TYPE);
+            department.setDepartmentAbbr(DEPARTMENT1.DEPARTMENT_ABBR);
+            department.setDepartmentName(DEPARTMENT1.DEPARTMENT_NAME);
+            department.setCreationAnniversary(DEPARTMENT1.CREATION_ANNIVERSARY);
+            department.setSomeMonth(DEPARTMENT1.SOME_MONTH);
+            department.setThingyType(DEPARTMENT1.THINGY_TYPE);
+            department.setThingyNumber(DEPARTMENT1.THINGY_NUMBER);
+            department.setAnotherThingy(DEPARTMENT1.ANOTHER_THINGY);
+            department.setInactivatedDatetime(DEPARTMENT1.INACTIVATED_DATETIME);
+            jidbc.save(department);
+
+            jidbc.commitAndClose();
+        } catch (Throwable t) {
+            throw jidbc.rollbackCloseAndWrap(t);
+        }
+
+        // Re-open the database connection and check the inserted row
+        retrieveFromDatabaseAndAssertAttributeValuesAreEqualToGetterSetterDepartment1(4242l);
+
+    }
+    @Test
+    public void save_insertWithAutoGeneratedId() {
+
+
+        // Open a new database connection and do the insert
+        long newDepartmentId;
+        JidbcConnection jidbc = JidbcConnection.from(DATA_SOURCE);
+        try {
+
+            Department department = new Department();
+            department.departmentType = DEPARTMENT1.DEPARTMENT_TYPE;
+            department.departmentAbbr = DEPARTMENT1.DEPARTMENT_ABBR;
+            department.departmentName = DEPARTMENT1.DEPARTMENT_NAME;
+            department.creationAnniversary = DEPARTMENT1.CREATION_ANNIVERSARY;
+            department.someMonth = DEPARTMENT1.SOME_MONTH;
+            department.thingyType = DEPARTMENT1.THINGY_TYPE;
+            department.thingyNumber = DEPARTMENT1.THINGY_NUMBER;
+            department.anotherThingy = DEPARTMENT1.ANOTHER_THINGY;
+            department.inactivatedDatetime = DEPARTMENT1.INACTIVATED_DATETIME;
+            jidbc.save(department);
+            newDepartmentId = department.departmentId;
+
+            jidbc.commitAndClose();
+        } catch (Throwable t) {
+            throw jidbc.rollbackCloseAndWrap(t);
+        }
+
+        // Re-open the database connection and check the inserted row
+        retrieveFromDatabaseAndAssertAttributeValuesAreEqualToDepartment1(newDepartmentId);
+
+    }
+
+    @Test
+    public void insertWithAutoGeneratedId_sequenceBlockIdAllocator() {
+
+        // Insert rows with ids allocated in blocks
+        Jidbc.setIdAllocator(new SequenceBlockIdAllocator(3));
+        try {
+            JidbcConnection jidbc = JidbcConnection.from(DATA_SOURCE);
+            try {
+
+                // Check the first three rows get consecutive ids from a single block
+                Department[] departments = new Department[4];
+                for (int i = 0; i < 3; i++) {
+                    departments[i] = newNumberedDepartment(i);
+                    jidbc.insert(departments[i]);
+                }
+                long lastValue = jidbc.queryFor_long("select last_value from common_id_sequence", -1);
+                for (int i = 0; i < 3; i++) {
+                    assertEquals("department.department_id", lastValue - 2 + i, departments[i].departmentId.longValue());
+                }
+
+                // Check the fourth row's id starts a new block
+                departments[3] = newNumberedDepartment(3);
+                jidbc.insert(departments[3]);
+                assertEquals("sequence last value", lastValue + 3, jidbc.queryFor_long("select last_value from common_id_sequence", -1));
+                assertEquals("department.department_id", lastValue + 1, departments[3].departmentId.longValue());
+
+                jidbc.commitAndClose();
+            } catch (Throwable t) {
+                throw jidbc.rollbackCloseAndWrap(t);
+            }
+        } finally {
+            Jidbc.setIdAllocator(null);
+        }
+
+    }
+
+    private static Department newNumberedDepartment(int number) {
+        Department department = DEPARTMENT1.newInstance();
+        department.departmentAbbr = "Zac" + number;
+        department.departmentName = "Zac's Department " + number;
+        department.thingyNumber = 100 + number;
+        return department;
+    }
+
+    @Test
+    public void saveAll() {
+
+        // Open a separate database connection and insert a test row
+        Jidbc.insert(DATA_SOURCE, DEPARTMENT3.newInstance());
+
+        // Re-connect to the database and save a changed existing row along with a new row
+        JidbcConnection jidbc = JidbcConnection.from(DATA_SOURCE);
+        try {
+
+            Department department3 = DEPARTMENT3.newInstance();
+            department3.departmentName = "Zac's Department";
+            jidbc.saveAll(Arrays.asList(department3, DEPARTMENT2.newInstance()));
+
+            jidbc.commitAndClose();
+        } catch (Throwable t) {
+            throw jidbc.rollbackCloseAndWrap(t);
+        }
+
+        // Re-connect to the database and check the updated and inserted rows
+        JidbcConnection jidbc2 = JidbcConnection.from(DATA_SOURCE);
+        try {
+
+            Department department3 = jidbc2.get(Department.class, DEPARTMENT3.DEPARTMENT_ID);
+            assertEquals("department.department_abbr", DEPARTMENT3.DEPARTMENT_ABBR, department3.departmentAbbr);
+            assertEquals("department.department_name", "Zac's Department", department3.departmentName);
+
+            Department department2 = jidbc2.get(Department.class, DEPARTMENT2.DEPARTMENT_ID);
+            assertEquals("department.department_abbr", DEPARTMENT2.DEPARTMENT_ABBR, department2.departmentAbbr);
+            assertEquals("department.department_name", DEPARTMENT2.DEPARTMENT_NAME, department2.departmentName);
+
+            jidbc2.commitAndClose();
+        } catch (Throwable t) {
+            throw jidbc2.rollbackCloseAndWrap(t);
+        }
+
+    }
+
+    @Test
+    public void delete() {
+
+        // Open a separate database connection and insert a test row
+        Jidbc.insert(DATA_SOURCE, DEPARTMENT3.newInstance());
+
+        // Re-open the database and verify the row is present
+        JidbcConnection jidbc = JidbcConnection.from(DATA_SOURCE);
+        try {
+
+            Department department = jidbc.get(Department.class, DEPARTMENT3.DEPARTMENT_ID);
+
+            jidbc.commitAndClose();
+        } catch (Throwable t) {
+            throw jidbc.rollbackCloseAndWrap(t);
+        }
+
+        // Re-open the database and perform the deletion
+        JidbcConnection jidbc2 = JidbcConnection.from(DATA_SOURCE);
+        try {
+
+            Department idOnlyDepartment = new Department();
+            idOnlyDepartment.departmentId = DEPARTMENT3.DEPARTMENT_ID;
+            jidbc2.delete(idOnlyDepartment);
+
+            jidbc2.commitAndClose();
+        } catch (Throwable t) {
+            throw jidbc2.rollbackCloseAndWrap(t);
+        }
+
+        // Re-open the database and verify the row is absent
+        JidbcConnection jidbc3 = JidbcConnection.from(DATA_SOURCE);
+        try {
+
+            assertNull(String.format("Department:%d does not appear to have been deleted", DEPARTMENT3.DEPARTMENT_ID), jidbc3.getIfExists(Department.class, DEPARTMENT3.DEPARTMENT_ID));
+
+            jidbc3.commitAndClose();
+        } catch (Throwable t) {
+            throw jidbc3.rollbackCloseAndWrap(t);
+        }
+
+        // Re-open the database, attempt to delete a non-existent row and check exception
+        JidbcConnection jidbc4 = JidbcConnection.from(DATA_SOURCE);
+        try {
+
+            Department idOnlyDepartment = new Department();
+            idOnlyDepartment.departmentId = 575757l;
+            try {
+                jidbc4.delete(idOnlyDepartment);
+                fail("Expected NotFoundRuntimeException");
+            } catch (NotFoundRuntimeException e) {
+            }
+
+            jidbc4.commitAndClose();
+        } catch (Throwable t) {
+            throw jidbc4.rollbackCloseAndWrap(t);
+        }
+
+    }
+
+    @Test
+    public void updateAll() {
+
+        // Open a separate database connection and insert test rows
+        Jidbc.insert(DATA_SOURCE, DEPARTMENT2.newInstance());
+        Jidbc.insert(DATA_SOURCE, DEPARTMENT3.newInstance());
+
+        // Re-open the database, attempt to update the rows along with a non-existent row and check exception
+        Department nonExistentDepartment = DEPARTMENT1.newInstance();
+        nonExistentDepartment.departmentId = 575757l;
+        JidbcConnection jidbc = JidbcConnection.from(DATA_SOURCE);
+        try {
+
+            try {
+                jidbc.updateAll(Arrays.asList(DEPARTMENT2.newInstance(), nonExistentDepartment, DEPARTMENT3.newInstance()));
+                fail("Expected BatchRowCountRuntimeException");
+            } catch (BatchRowCountRuntimeException e) {
+                assertEquals("number of rows not found", 1, e.getNotFoundRows().size());
+                assertSame("row not found", nonExistentDepartment, e.getNotFoundRows().get(0));
+                assertEquals("number of rows that matched more than one row", 0, e.getMultipleRowsRows().size());
+            }
+
+            jidbc.rollbackAndClose();
+        } catch (Throwable t) {
+            throw jidbc.rollbackCloseAndWrap(t);
+        }
+
+        // Re-open the database and update the existing rows
+        Department department2 = DEPARTMENT2.newInstance();
+        department2.departmentName = "Personnel (updated)";
+        Department department3 = DEPARTMENT3.newInstance();
+        department3.departmentName = "Threat Resolution (updated)";
+        Jidbc.updateAll(DATA_SOURCE, Arrays.asList(department2, department3));
+
+        // Re-open the database and verify the rows were updated
+        JidbcConnection jidbc2 = JidbcConnection.from(DATA_SOURCE);
+        try {
+
+            Department updatedDepartment2 = jidbc2.get(Department.class, DEPARTMENT2.DEPARTMENT_ID);
+            assertEquals("department.department_name", "Personnel (updated)", updatedDepartment2.departmentName);
+            Department updatedDepartment3 = jidbc2.get(Department.class, DEPARTMENT3.DEPARTMENT_ID);
+            assertEquals("department.department_name", "Threat Resolution (updated)", updatedDepartment3.departmentName);
+
+            jidbc2.commitAndClose();
+        } catch (Throwable t) {
+            throw jidbc2.rollbackCloseAndWrap(t);
+        }
+
+    }
+
+    @Test
+    public void deleteAll() {
+
+        // Open a separate database connection and insert test rows
+        Jidbc.insert(DATA_SOURCE, DEPARTMENT2.newInstance());
+        Jidbc.insert(DATA_SOURCE, DEPARTMENT3.newInstance());
+
+        // Re-open the database, attempt to delete the rows along with a non-existent row and check exception
+        Department nonExistentDepartment = new Department();
+        nonExistentDepartment.departmentId = 575757l;
+        JidbcConnection jidbc = JidbcConnection.from(DATA_SOURCE);
+        try {
+
+            try {
+                jidbc.deleteAll(Arrays.asList(DEPARTMENT2.newInstance(), nonExistentDepartment, DEPARTMENT3.newInstance()));
+                fail("Expected BatchRowCountRuntimeException");
+            } catch (BatchRowCountRuntimeException e) {
+                assertEquals("number of rows not found", 1, e.getNotFoundRows().size());
+                assertSame("row not found", nonExistentDepartment, e.getNotFoundRows().get(0));
+                assertEquals("number of rows that matched more than one row", 0, e.getMultipleRowsRows().size());
+            }
+
+            jidbc.rollbackAndClose();
+        } catch (Throwable t) {
+            throw jidbc.rollbackCloseAndWrap(t);
+        }
+
+        // Re-open the database and delete the existing rows
+        Jidbc.deleteAll(DATA_SOURCE, Arrays.asList(DEPARTMENT2.newInstance(), DEPARTMENT3.newInstance()));
+
+        // Re-open the database and verify the rows are absent
+        JidbcConnection jidbc2 = JidbcConnection.from(DATA_SOURCE);
+        try {
+
+            assertNull(String.format("Department:%d does not appear to have been deleted", DEPARTMENT2.DEPARTMENT_ID), jidbc2.getIfExists(Department.class, DEPARTMENT2.DEPARTMENT_ID));
+            assertNull(String.format("Department:%d does not appear to have been deleted", DEPARTMENT3.DEPARTMENT_ID), jidbc2.getIfExists(Department.class, DEPARTMENT3.DEPARTMENT_ID));
+
+            jidbc2.commitAndClose();
+        } catch (Throwable t) {
+            throw jidbc2.rollbackCloseAndWrap(t);
+        }
+
+    }
+
+}
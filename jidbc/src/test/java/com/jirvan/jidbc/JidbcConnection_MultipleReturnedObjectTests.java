@@ -0,0 +1,416 @@
+package com.jirvan.jidbc;
+
+
+import com.jirvan.jidbc.internal.ColumnarResults;
+import com.jirvan.jidbc.internal.Results;
+import org.testng.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertSame;
+import static org.testng.AssertJUnit.assertTrue;
+import static org.testng.AssertJUnit.fail;
+
+public class JidbcConnection_MultipleReturnedObjectTests extends TestsBase {
+
+    @Test
+    public void query() {
+
+        // Open a separate database connection and insert a test row
+        Department newDepartment = DEPARTMENT1.newInstance();
+        Jidbc.insert(DATA_SOURCE, newDepartment);
+        Jidbc.insert(DATA_SOURCE, DEPARTMENT2.newInstance());
+        Jidbc.insert(DATA_SOURCE, DEPARTMENT3.newInstance());
+
+        // Query and check rows
+        JidbcConnection jidbc = JidbcConnection.from(DATA_SOURCE);
+        int count = 0;
+        try {
+            for (Department department : jidbc.<Department>query(Department.class, "where department_abbr in (?,?)",
+                                                                 DEPARTMENT1.DEPARTMENT_ABBR, DEPARTMENT2.DEPARTMENT_ABBR)) {
+                if (++count == 1) {
+                    assertEquals("department.department_abbr", DEPARTMENT1.DEPARTMENT_ABBR, department.departmentAbbr);
+                    assertEquals("department.department_name", DEPARTMENT1.DEPARTMENT_NAME, department.departmentName);
+                    assertEquals("department.creation_anniversary", DEPARTMENT1.CREATION_ANNIVERSARY, department.creationAnniversary);
+                    assertEquals("department.thingy_type", DEPARTMENT1.THINGY_TYPE, department.thingyType);
+                    assertEquals("department.thingy_number", DEPARTMENT1.THINGY_NUMBER, department.thingyNumber);
+                    assertEquals("department.another_thingy", DEPARTMENT1.ANOTHER_THINGY, department.anotherThingy);
+                    assertEquals("department.inactivated_datetime", DEPARTMENT1.INACTIVATED_DATETIME, department.inactivatedDatetime);
+                } else if (count == 2) {
+                    assertEquals("department.department_abbr", DEPARTMENT2.DEPARTMENT_ABBR, department.departmentAbbr);
+                    assertEquals("department.department_name", DEPARTMENT2.DEPARTMENT_NAME, department.departmentName);
+                    assertEquals("department.creation_anniversary", DEPARTMENT2.CREATION_ANNIVERSARY, department.creationAnniversary);
+                    assertEquals("department.thingy_type", DEPARTMENT2.THINGY_TYPE, department.thingyType);
+                    assertEquals("department.thingy_number", DEPARTMENT2.THINGY_NUMBER, department.thingyNumber);
+                    assertEquals("department.another_thingy", DEPARTMENT2.ANOTHER_THINGY, department.anotherThingy);
+                    assertEquals("department.inactivated_datetime", DEPARTMENT2.INACTIVATED_DATETIME, department.inactivatedDatetime);
+                } else {
+                    fail(String.format("Unexpected row count %d", count));
+                }
+
+            }
+            jidbc.commitAndClose();
+        } catch (Throwable t) {
+            throw jidbc.rollbackCloseAndWrap(t);
+        }
+
+        // Check the total number of rows returned
+        assertEquals("total rows returned", 2, count);
+
+    }
+
+    @Test
+    public void query_placeholders() {
+
+        // Open a separate database connection and insert a test row
+        Department newDepartment = DEPARTMENT1.newInstance();
+        Jidbc.insert(DATA_SOURCE, newDepartment);
+        Jidbc.insert(DATA_SOURCE, DEPARTMENT2.newInstance());
+        Jidbc.insert(DATA_SOURCE, DEPARTMENT3.newInstance());
+
+        // Query and check rows
+        JidbcConnection jidbc = JidbcConnection.from(DATA_SOURCE);
+        int count = 0;
+        try {
+            Object[] parameters = {DEPARTMENT1.DEPARTMENT_ABBR, DEPARTMENT2.DEPARTMENT_ABBR};
+            for (Department department : jidbc.<Department>query(Department.class, "where department_abbr in ("+ Jidbc.placeholders(parameters) + ")", parameters)) {
+                if (++count == 1) {
+                    assertEquals("department.department_abbr", DEPARTMENT1.DEPARTMENT_ABBR, department.departmentAbbr);
+                    assertEquals("department.department_name", DEPARTMENT1.DEPARTMENT_NAME, department.departmentName);
+                    assertEquals("department.creation_anniversary", DEPARTMENT1.CREATION_ANNIVERSARY, department.creationAnniversary);
+                    assertEquals("department.thingy_type", DEPARTMENT1.THINGY_TYPE, department.thingyType);
+                    assertEquals("department.thingy_number", DEPARTMENT1.THINGY_NUMBER, department.thingyNumber);
+                    assertEquals("department.another_thingy", DEPARTMENT1.ANOTHER_THINGY, department.anotherThingy);
+                    assertEquals("department.inactivated_datetime", DEPARTMENT1.INACTIVATED_DATETIME, department.inactivatedDatetime);
+                } else if (count == 2) {
+                    assertEquals("department.department_abbr", DEPARTMENT2.DEPARTMENT_ABBR, department.departmentAbbr);
+                    assertEquals("department.department_name", DEPARTMENT2.DEPARTMENT_NAME, department.departmentName);
+                    assertEquals("department.creation_anniversary", DEPARTMENT2.CREATION_ANNIVERSARY, department.creationAnniversary);
+                    assertEquals("department.thingy_type", DEPARTMENT2.THINGY_TYPE, department.thingyType);
+                    assertEquals("department.thingy_number", DEPARTMENT2.THINGY_NUMBER, department.thingyNumber);
+                    assertEquals("department.another_thingy", DEPARTMENT2.ANOTHER_THINGY, department.anotherThingy);
+                    assertEquals("department.inactivated_datetime", DEPARTMENT2.INACTIVATED_DATETIME, department.inactivatedDatetime);
+                } else {
+                    fail(String.format("Unexpected row count %d", count));
+                }
+
+            }
+            jidbc.commitAndClose();
+        } catch (Throwable t) {
+            throw jidbc.rollbackCloseAndWrap(t);
+        }
+
+        // Check the total number of rows returned
+        assertEquals("total rows returned", 2, count);
+
+    }
+
+    @Test
+    public void stream() {
+
+        // Open a separate database connection and insert test rows
+        Jidbc.insert(DATA_SOURCE, DEPARTMENT1.newInstance());
+        Jidbc.insert(DATA_SOURCE, DEPARTMENT2.newInstance());
+        Jidbc.insert(DATA_SOURCE, DEPARTMENT3.newInstance());
+
+        // Stream rows filtering and short-circuiting in the pipeline
+        JidbcConnection jidbc = JidbcConnection.from(DATA_SOURCE);
+        try {
+
+            Stream<Department> departments = jidbc.stream(Department.class, "where department_abbr in (?,?) order by department_abbr",
+                                                          DEPARTMENT2.DEPARTMENT_ABBR, DEPARTMENT3.DEPARTMENT_ABBR);
+            try {
+                List<Department> firstDepartment = departments.limit(1).collect(Collectors.<Department>toList());
+                assertEquals("number of departments", 1, firstDepartment.size());
+                assertEquals("department.department_abbr", DEPARTMENT2.DEPARTMENT_ABBR, firstDepartment.get(0).departmentAbbr);
+            } finally {
+                departments.close();
+            }
+
+            Stream<Long> departmentIds = jidbc.stream(Long.class, "select department_id from departments where department_id in (?,?)",
+                                                      DEPARTMENT2.DEPARTMENT_ID, DEPARTMENT3.DEPARTMENT_ID);
+            assertEquals("sum of department ids", DEPARTMENT2.DEPARTMENT_ID + DEPARTMENT3.DEPARTMENT_ID,
+                         departmentIds.mapToLong(new ToLongFunction<Long>() {
+                             public long applyAsLong(Long value) {
+                                 return value;
+                             }
+                         }).sum());
+
+            jidbc.commitAndClose();
+        } catch (Throwable t) {
+            throw jidbc.rollbackCloseAndWrap(t);
+        }
+
+    }
+
+    @Test
+    public void forEach() {
+
+        // Open a separate database connection and insert test rows
+        Jidbc.insert(DATA_SOURCE, DEPARTMENT1.newInstance());
+        Jidbc.insert(DATA_SOURCE, DEPARTMENT2.newInstance());
+        Jidbc.insert(DATA_SOURCE, DEPARTMENT3.newInstance());
+
+        // Visit the rows checking that the same row instance is repopulated for each row
+        JidbcConnection jidbc = JidbcConnection.from(DATA_SOURCE);
+        try {
+
+            final List<Department> visitedRows = new ArrayList<Department>();
+            final List<String> visitedAbbrs = new ArrayList<String>();
+            jidbc.forEach(Department.class, "where department_abbr in (?,?) order by department_abbr", new RowVisitor<Department>() {
+                public void visit(Department department) {
+                    visitedRows.add(department);
+                    visitedAbbrs.add(department.departmentAbbr);
+                }
+            }, DEPARTMENT2.DEPARTMENT_ABBR, DEPARTMENT3.DEPARTMENT_ABBR);
+            assertEquals("visited abbrs", Arrays.asList(DEPARTMENT2.DEPARTMENT_ABBR, DEPARTMENT3.DEPARTMENT_ABBR), visitedAbbrs);
+            assertSame("visited row instance", visitedRows.get(0), visitedRows.get(1));
+
+            jidbc.commitAndClose();
+        } catch (Throwable t) {
+            throw jidbc.rollbackCloseAndWrap(t);
+        }
+
+    }
+
+    @Test
+    public void query_withFetchSize_streamsRowsInBoundedMemory() {
+
+        // Scan a large number of rows checking that used memory does not grow with the number of rows read
+        JidbcConnection jidbc = JidbcConnection.from(DATA_SOURCE);
+        long count = 0;
+        try {
+            long initialUsedMemory = usedMemoryAfterGc();
+            long maxUsedMemoryIncrease = 0;
+            for (String value : jidbc.<String>query(String.class, QueryOptions.withFetchSize(1000),
+                                                    "select repeat('x', 100) || n from generate_series(1, 2000000) n")) {
+                if (++count % 250000 == 0) {
+                    maxUsedMemoryIncrease = Math.max(maxUsedMemoryIncrease, usedMemoryAfterGc() - initialUsedMemory);
+                }
+            }
+            assertTrue(String.format("Used memory increased by %d bytes while streaming", maxUsedMemoryIncrease),
+                       maxUsedMemoryIncrease < 32 * 1024 * 1024);
+            jidbc.commitAndClose();
+        } catch (Throwable t) {
+            throw jidbc.rollbackCloseAndWrap(t);
+        }
+
+        // Check the total number of rows returned
+        assertEquals("total rows returned", 2000000, count);
+
+    }
+
+    @Test
+    public void query_pipelined() {
+
+        // Read rows via a background producer thread checking that all rows arrive in order
+        JidbcConnection jidbc = JidbcConnection.from(DATA_SOURCE);
+        long count = 0;
+        try {
+            for (Long value : jidbc.<Long>query(Long.class, QueryOptions.withFetchSize(1000).pipelineQueueSize(256),
+                                                "select n from generate_series(1, 100000) n order by n")) {
+                assertEquals("row value", ++count, value.longValue());
+            }
+            jidbc.commitAndClose();
+        } catch (Throwable t) {
+            throw jidbc.rollbackCloseAndWrap(t);
+        }
+
+        // Check the total number of rows returned
+        assertEquals("total rows returned", 100000, count);
+
+    }
+
+    @Test
+    public void query_pipelined_earlyClose() {
+
+        // Stop reading part way through and check the statement is back in the cache and reusable
+        String sql = "select n from generate_series(1, 100000) n order by n";
+        JidbcConnection jidbc = JidbcConnection.from(DATA_SOURCE);
+        try {
+
+            Results<? extends Long> results = jidbc.query(Long.class, QueryOptions.withFetchSize(100).pipelineQueueSize(16), sql);
+            long count = 0;
+            for (Long value : results) {
+                if (++count == 10) {
+                    break;
+                }
+            }
+            results.close();
+            assertEquals("statement cache size", 1, jidbc.getStatementCacheSize());
+
+            long total = 0;
+            for (Long value : jidbc.<Long>query(Long.class, QueryOptions.withFetchSize(100).pipelineQueueSize(16), sql)) {
+                total++;
+            }
+            assertEquals("total rows returned", 100000, total);
+            assertEquals("statement cache hits", 1, jidbc.getStatementCacheHits());
+
+            jidbc.commitAndClose();
+        } catch (Throwable t) {
+            throw jidbc.rollbackCloseAndWrap(t);
+        }
+
+    }
+
+    @Test
+    public void query_pipelined_producerFailure() {
+
+        // Check that a failure extracting a row on the producer thread reaches the caller
+        JidbcConnection jidbc = JidbcConnection.from(DATA_SOURCE);
+        try {
+
+            long count = 0;
+            try {
+                for (Long value : jidbc.<Long>query(Long.class, QueryOptions.withFetchSize(100).pipelineQueueSize(16),
+                                                    "select case when n = 500 then 'x' else n::text end from generate_series(1, 1000) n order by n")) {
+                    count++;
+                }
+                fail("Expected a RuntimeException");
+            } catch (RuntimeException e) {
+                // (the failure on row 500 surfaces when row 499 is returned, as the next row is always fetched ahead)
+                assertEquals("rows returned before the failure", 498, count);
+            }
+
+            jidbc.rollbackAndClose();
+        } catch (Throwable t) {
+            throw jidbc.rollbackCloseAndWrap(t);
+        }
+
+    }
+
+    @Test
+    public void query_pipelined_nullValues() {
+
+        // Check that null single values are handled as they are without pipelining
+        String sql = "select case when n = 3 then null else n::text end from generate_series(1, 5) n order by n";
+        JidbcConnection jidbc = JidbcConnection.from(DATA_SOURCE);
+        try {
+
+            List<String> values = new ArrayList<String>();
+            for (String value : jidbc.<String>query(String.class, sql)) {
+                values.add(value);
+            }
+            List<String> pipelinedValues = new ArrayList<String>();
+            for (String value : jidbc.<String>query(String.class, QueryOptions.withFetchSize(2).pipelineQueueSize(4), sql)) {
+                pipelinedValues.add(value);
+            }
+            assertEquals("pipelined values", values, pipelinedValues);
+
+            jidbc.commitAndClose();
+        } catch (Throwable t) {
+            throw jidbc.rollbackCloseAndWrap(t);
+        }
+
+    }
+
+    @Test
+    public void query_mapRows() {
+
+        // Query map rows (including a duplicated column name) and check them against HashMaps
+        JidbcConnection jidbc = JidbcConnection.from(DATA_SOURCE);
+        try {
+
+            List<Map<String, Object>> rows = new ArrayList<Map<String, Object>>();
+            for (Map<String, Object> row : jidbc.<Map<String, Object>>query(Map.class, "select n as id, n * 10 as amount, n * 100 as amount, null as note\n" +
+                                                                                     "from generate_series(1, 3) n order by n")) {
+                rows.add(row);
+            }
+            assertEquals("number of rows", 3, rows.size());
+            Map<String, Object> row = rows.get(1);
+            assertEquals("keys", Arrays.asList("id", "amount", "note"), new ArrayList<String>(row.keySet()));
+            assertEquals("amount (the last of the duplicated columns)", 200, row.get("amount"));
+
+            Map<String, Object> expected = new HashMap<String, Object>();
+            expected.put("id", 2);
+            expected.put("amount", 200);
+            expected.put("note", null);
+            assertEquals("row", expected, row);
+            assertEquals("row hash code", expected.hashCode(), row.hashCode());
+
+            // Rows are independent and modifiable
+            row.put("extra", "x");
+            row.remove("note");
+            expected.put("extra", "x");
+            expected.remove("note");
+            assertEquals("modified row", expected, row);
+            assertEquals("other row size", 3, rows.get(0).size());
+
+            jidbc.commitAndClose();
+        } catch (Throwable t) {
+            throw jidbc.rollbackCloseAndWrap(t);
+        }
+
+    }
+
+    @Test
+    public void queryForColumns() {
+
+        // Query columns of various types and check the column types and values
+        JidbcConnection jidbc = JidbcConnection.from(DATA_SOURCE);
+        try {
+
+            ColumnarResults columns = jidbc.queryForColumns("select n::bigint as id, case when n % 2 = 0 then null else n::integer end as odd_number,\n" +
+                                                            "       n * 0.5::float8 as half, case when n % 3 = 0 then 'fizz' else 'other' end as word\n" +
+                                                            "from generate_series(1, ?) n order by n", 3000);
+            assertEquals("row count", 3000, columns.getRowCount());
+            assertEquals("id", 3000l, columns.getLongColumn("id").get(2999));
+            assertTrue("odd_number is null", columns.getIntColumn("odd_number").isNull(1));
+            assertEquals("odd_number", 3, columns.getIntColumn("odd_number").get(2));
+            assertEquals("half", 1.5, columns.getDoubleColumn("half").get(2), 0);
+            assertEquals("word", "fizz", columns.getStringColumn("word").get(2));
+            assertEquals("word dictionary size", 2, columns.getStringColumn("word").getDictionary().size());
+
+            jidbc.commitAndClose();
+        } catch (Throwable t) {
+            throw jidbc.rollbackCloseAndWrap(t);
+        }
+
+    }
+
+    @Test
+    public void queryForPrimitives() {
+
+        // Query primitive scalars and arrays and check the values
+        JidbcConnection jidbc = JidbcConnection.from(DATA_SOURCE);
+        try {
+
+            assertEquals("count", 3000l, jidbc.queryFor_long("select count(*) from generate_series(1, ?) n", -1, 3000));
+            assertEquals("null long", -1l, jidbc.queryFor_long("select null::bigint", -1));
+            assertEquals("int", 7, jidbc.queryFor_int("select 7", 0));
+            assertEquals("double", 2.5, jidbc.queryFor_double("select 2.5::float8", 0), 0);
+            assertTrue("boolean", jidbc.queryFor_boolean("select null::boolean", true));
+
+            long[] ids = jidbc.queryForLongArray("select n::bigint from generate_series(1, ?) n order by n", 3000);
+            assertEquals("ids length", 3000, ids.length);
+            assertEquals("last id", 3000l, ids[2999]);
+            int[] ints = jidbc.queryForIntArray(QueryOptions.withFetchSize(100), "select n from generate_series(1, ?) n order by n", 250);
+            assertEquals("ints length", 250, ints.length);
+            assertEquals("first int", 1, ints[0]);
+            double[] doubles = jidbc.queryForDoubleArray("select n * 0.5::float8 from generate_series(1, 3) n order by n");
+            assertEquals("doubles length", 3, doubles.length);
+            assertEquals("last double", 1.5, doubles[2], 0);
+            assertEquals("empty array length", 0, jidbc.queryForLongArray("select 1::bigint where false").length);
+
+            jidbc.commitAndClose();
+        } catch (Throwable t) {
+            throw jidbc.rollbackCloseAndWrap(t);
+        }
+
+    }
+
+    private static long usedMemoryAfterGc() {
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+}
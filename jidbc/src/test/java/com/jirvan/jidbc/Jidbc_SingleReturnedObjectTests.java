@@ -4,6 +4,11 @@ package com.jirvan.jidbc;
 import com.jirvan.lang.*;
 import org.testng.annotations.*;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
 import static org.testng.AssertJUnit.*;
 
 public class Jidbc_SingleReturnedObjectTests extends TestsBase {
@@ -37,6 +42,22 @@ public class Jidbc_SingleReturnedObjectTests extends TestsBase {
 
     }
 
+    @Test
+    public void queryFor_immutableRow() {
+
+        // Create and insert a test row
+        Department newDepartment = DEPARTMENT1.newInstance();
+        Jidbc.insert(DATA_SOURCE, newDepartment);
+        Jidbc.insert(DATA_SOURCE, DEPARTMENT2.newInstance());
+
+        // Test queryFor success (the row is created via its @JidbcConstructor constructor)
+        ImmutableDepartment department = Jidbc.queryFor(DATA_SOURCE, ImmutableDepartment.class, "where department_id = ?", newDepartment.departmentId);
+        assertEquals("department.department_id", newDepartment.departmentId, department.departmentId);
+        assertEquals("department.department_name", DEPARTMENT1.DEPARTMENT_NAME, department.getDepartmentName());
+        assertEquals("department.thingy_number", DEPARTMENT1.THINGY_NUMBER, department.getThingyNumber());
+
+    }
+
     @Test
     public void queryForOptional() {
 
@@ -229,4 +250,35 @@ public class Jidbc_SingleReturnedObjectTests extends TestsBase {
 
     }
 
+    @Test
+    public void jidbcAsync() {
+
+        // Create and insert test rows
+        Jidbc.insert(DATA_SOURCE, DEPARTMENT1.newInstance());
+        Jidbc.insert(DATA_SOURCE, DEPARTMENT2.newInstance());
+        Jidbc.insert(DATA_SOURCE, DEPARTMENT3.newInstance());
+
+        // Run independent queries concurrently and gather the results
+        CompletableFuture<Department> department = JidbcAsync.get(DATA_SOURCE, Department.class, DEPARTMENT2.DEPARTMENT_ID);
+        CompletableFuture<Long> count = JidbcAsync.queryFor_Long(DATA_SOURCE, "select count(*) from departments");
+        JidbcAsync.allOf(department, count).join();
+        assertEquals("department.department_abbr", DEPARTMENT2.DEPARTMENT_ABBR, department.join().departmentAbbr);
+        assertEquals("count", 3l, (long) count.join());
+
+        List<CompletableFuture<Long>> ids = new ArrayList<CompletableFuture<Long>>();
+        for (int i = 0; i < 25; i++) {
+            ids.add(JidbcAsync.queryFor_Long(DATA_SOURCE, "select department_id from departments where department_id = ?", DEPARTMENT3.DEPARTMENT_ID));
+        }
+        assertEquals("gathered results", 25, JidbcAsync.allOf(ids).join().size());
+
+        // Test not found
+        try {
+            JidbcAsync.queryFor_Long(DATA_SOURCE, "select department_id from departments where department_id = ?", 342092348).join();
+            fail("Expected NotFoundRuntimeException");
+        } catch (CompletionException e) {
+            assertTrue("cause is NotFoundRuntimeException", e.getCause() instanceof NotFoundRuntimeException);
+        }
+
+    }
+
 }
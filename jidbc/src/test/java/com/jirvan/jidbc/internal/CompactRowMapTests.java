@@ -0,0 +1,172 @@
+/*
+
+Copyright (c) 2013, Jirvan Pty Ltd
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+
+    * Redistributions of source code must retain the above copyright notice,
+      this list of conditions and the following disclaimer.
+    * Redistributions in binary form must reproduce the above copyright notice,
+      this list of conditions and the following disclaimer in the documentation
+      and/or other materials provided with the distribution.
+    * Neither the name of Jirvan Pty Ltd nor the names of its contributors
+      may be used to endorse or promote products derived from this software
+      without specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+(INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+*/
+
+package com.jirvan.jidbc.internal;
+
+import org.testng.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import static org.testng.AssertJUnit.*;
+
+public class CompactRowMapTests {
+
+    @Test
+    public void get() {
+        CompactRowMap row = newRow();
+        assertEquals("size", 3, row.size());
+        assertEquals("a", 1, row.get("a"));
+        assertNull("c", row.get("c"));
+        assertTrue("containsKey(c)", row.containsKey("c"));
+        assertFalse("containsKey(d)", row.containsKey("d"));
+        assertNull("d", row.get("d"));
+        assertEquals("keys", Arrays.asList("a", "b", "c"), new ArrayList<String>(row.keySet()));
+        assertEquals("matches a HashMap", newExpectedRow(), row);
+    }
+
+    @Test
+    public void put() {
+        CompactRowMap row = newRow();
+        HashMap<String, Object> expected = newExpectedRow();
+        assertEquals("previous value", 1, row.put("a", 10));
+        expected.put("a", 10);
+        assertNull("previous value", row.put("d", 4));
+        expected.put("d", 4);
+        assertEquals("size", 4, row.size());
+        assertEquals("d", 4, row.get("d"));
+        assertEquals("keys", Arrays.asList("a", "b", "c", "d"), new ArrayList<String>(row.keySet()));
+        assertEquals("matches a HashMap", expected, row);
+    }
+
+    @Test
+    public void remove() {
+        CompactRowMap row = newRow();
+        HashMap<String, Object> expected = newExpectedRow();
+        row.put("d", 4);
+        expected.put("d", 4);
+        assertEquals("removed value", 1, row.remove("a"));
+        expected.remove("a");
+        assertNull("removed value", row.remove("a"));
+        assertEquals("removed value", 4, row.remove("d"));
+        expected.remove("d");
+        assertEquals("size", 2, row.size());
+        assertFalse("containsKey(a)", row.containsKey("a"));
+        assertEquals("keys", Arrays.asList("b", "c"), new ArrayList<String>(row.keySet()));
+        assertEquals("matches a HashMap", expected, row);
+
+        // Putting a removed column back
+        assertNull("previous value", row.put("a", 11));
+        assertEquals("size", 3, row.size());
+        assertEquals("keys", Arrays.asList("a", "b", "c"), new ArrayList<String>(row.keySet()));
+    }
+
+    @Test
+    public void iteratorRemove() {
+        CompactRowMap row = newRow();
+        row.put("d", 4);
+        Iterator<Map.Entry<String, Object>> iterator = row.entrySet().iterator();
+        while (iterator.hasNext()) {
+            String key = iterator.next().getKey();
+            if (key.equals("b") || key.equals("d")) {
+                iterator.remove();
+            }
+        }
+        assertEquals("size", 2, row.size());
+        assertEquals("keys", Arrays.asList("a", "c"), new ArrayList<String>(row.keySet()));
+        try {
+            iterator.remove();
+            fail("Expected IllegalStateException");
+        } catch (IllegalStateException e) {
+        }
+    }
+
+    @Test
+    public void entrySetValue() {
+        CompactRowMap row = newRow();
+        Map.Entry<String, Object> entry = row.entrySet().iterator().next();
+        assertEquals("previous value", 1, entry.setValue(9));
+        assertEquals("a", 9, row.get("a"));
+
+        // Setting the value of a removed entry must not bring the entry back
+        row.remove("a");
+        try {
+            entry.setValue(10);
+            fail("Expected IllegalStateException");
+        } catch (IllegalStateException e) {
+        }
+        assertEquals("size", 2, row.size());
+        assertFalse("containsKey(a)", row.containsKey("a"));
+    }
+
+    @Test
+    public void clear() {
+        CompactRowMap row = newRow();
+        row.put("d", 4);
+        row.clear();
+        assertEquals("size", 0, row.size());
+        assertTrue("isEmpty", row.isEmpty());
+        assertFalse("iterator hasNext", row.entrySet().iterator().hasNext());
+        row.put("b", 2);
+        HashMap<String, Object> expected = new HashMap<String, Object>();
+        expected.put("b", 2);
+        assertEquals("matches a HashMap", expected, row);
+        assertEquals("size", 1, row.size());
+    }
+
+    @Test
+    public void equalsAndHashCode() {
+        CompactRowMap row = newRow();
+        HashMap<String, Object> expected = newExpectedRow();
+        assertTrue("row equals HashMap", row.equals(expected));
+        assertTrue("HashMap equals row", expected.equals(row));
+        assertEquals("hashCode", expected.hashCode(), row.hashCode());
+        row.put("c", "changed");
+        assertFalse("row equals HashMap after change", row.equals(expected));
+        expected.put("c", "changed");
+        assertEquals("hashCode after change", expected.hashCode(), row.hashCode());
+    }
+
+    private static CompactRowMap newRow() {
+        return new CompactRowMap(new CompactRowMap.Keys(new String[]{"a", "b", "c"}), new Object[]{1, 2, null});
+    }
+
+    private static HashMap<String, Object> newExpectedRow() {
+        HashMap<String, Object> expected = new HashMap<String, Object>();
+        expected.put("a", 1);
+        expected.put("b", 2);
+        expected.put("c", null);
+        return expected;
+    }
+
+}
@@ -3,3 +3,4 @@
 drop sequence if exists common_id_sequence;
 drop table if exists departments cascade;
 drop table if exists getter_setter_departments cascade;
+drop table if exists measurements cascade;
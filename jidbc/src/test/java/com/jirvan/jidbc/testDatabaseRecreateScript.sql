@@ -3,6 +3,7 @@
 drop sequence if exists common_id_sequence;
 drop table if exists departments cascade;
 drop table if exists getter_setter_departments cascade;
+drop table if exists measurements cascade;
 
 -- Create id sequence
 create sequence common_id_sequence;
@@ -58,6 +59,14 @@ constraint gsdepartments_thingy_type_chk
    )
 );
 
+create table measurements (
+  measurement_id        bigint         not null,
+  reading_count         integer,
+  reading_value         double precision,
+  verified              boolean,
+constraint measurements_pk primary key (measurement_id)
+);
+
 
 
 -- Create foreign keys